@@ -0,0 +1,12 @@
+#!/bin/sh
+# Runs the benchmarks with the GC profiler and writes throughput and allocation rates to results/<commit>.json,
+# so that runs of different commits can be compared. Arguments are passed on to JMH, e.g. a benchmark name regex.
+set -e
+cd "$(dirname "$0")"
+commit=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain -- ../bank-server ../bank-benchmarks)" ]; then
+  commit="$commit-dirty"
+fi
+mkdir -p results
+java -jar target/benchmarks.jar -prof gc -rf json -rff "results/$commit.json" "$@"
+echo "Results written to results/$commit.json"
@@ -0,0 +1,45 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of {@link AccountNumberGenerator} without a database: blocks are leased from an in-memory counter,
+ * so the numbers show the cost of the permutation, the check digit and the block hand-off. Run with {@code -t} to
+ * measure contention on the current block.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountNumberGeneratorBenchmark {
+    @Param({"100"})
+    private int blockSize;
+
+    private AccountNumberGenerator accountNumberGenerator;
+    private String accountNumber;
+
+    @Setup
+    public void setUp() {
+        // Wraps around long before the 10^9 numbers are used up, which would end the benchmark with an exception.
+        AtomicLong sequence = new AtomicLong();
+        accountNumberGenerator = new AccountNumberGenerator(
+                size -> sequence.getAndAdd(size) % (100_000_000L / size * size), blockSize);
+        accountNumber = accountNumberGenerator.nextAccountNumber();
+    }
+
+    @Benchmark
+    public String nextAccountNumber() {
+        return accountNumberGenerator.nextAccountNumber();
+    }
+
+    @Benchmark
+    public boolean hasValidCheckDigit() {
+        return AccountNumberGenerator.hasValidCheckDigit(accountNumber);
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+
+import java.time.LocalDateTime;
+
+/**
+ * Model objects shaped like the ones the repositories return.
+ */
+final class BenchmarkData {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 9, 1, 12, 30, 15);
+
+    private BenchmarkData() {}
+
+    static Customer customer(long id) {
+        return new Customer(id, "Jane", "Doe", "jane.doe" + id + "@example.com", "$2a$12$hash", CREATED_AT);
+    }
+
+    static BankAccount bankAccount(long id) {
+        String accountNumber = new AccountNumberGenerator(size -> id, 1).nextAccountNumber();
+        return new BankAccount(id, accountNumber, customer(id), Money.parse("1234.56"), CREATED_AT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.util.DataConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and, with {@code -prof gc}, allocation per call of {@link DataConverter#toBankAccountDto}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataConverterBenchmark {
+    private BankAccount bankAccount;
+
+    @Setup
+    public void setUp() {
+        bankAccount = BenchmarkData.bankAccount(1);
+    }
+
+    @Benchmark
+    public BankAccountDto toBankAccountDto() {
+        return DataConverter.toBankAccountDto(bankAccount);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.util.DataConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serialization of a {@code List<BankAccountDto>} response body per page size, with an {@link ObjectMapper} configured
+ * the way Spring Boot configures the one behind the controllers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonSerializationBenchmark {
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<BankAccountDto> bankAccounts;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bankAccounts = LongStream.rangeClosed(1, size)
+                .mapToObj(BenchmarkData::bankAccount)
+                .map(DataConverter::toBankAccountDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bankAccounts);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Money} against the {@link BigDecimal} amounts it replaced: the balance check and update of a transfer, and
+ * reading and writing a transfer request as JSON. The {@code bigDecimal*} benchmarks are the previous implementation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+    private static final String TRANSFER_REQUEST = "{\"senderAccountNumber\":\"1234567897\",\"receiverAccountNumber\":\"2345678904\",\"amount\":125.50}";
+
+    private ObjectMapper objectMapper;
+
+    private Money balance = Money.ofCents(123_456);
+    private Money amount = Money.ofCents(12_550);
+    private long balanceCents = 123_456;
+    private long amountCents = 12_550;
+    private BigDecimal bigDecimalBalance = new BigDecimal("1234.56");
+    private BigDecimal bigDecimalAmount = new BigDecimal("125.50");
+
+    private MoneyTransferRequestPayload transferRequest;
+    private BigDecimalTransferRequest bigDecimalTransferRequest;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transferRequest = objectMapper.readValue(TRANSFER_REQUEST, MoneyTransferRequestPayload.class);
+        bigDecimalTransferRequest = objectMapper.readValue(TRANSFER_REQUEST, BigDecimalTransferRequest.class);
+    }
+
+    @Benchmark
+    public Money debit() {
+        return balance.isLessThan(amount) ? balance : balance.minus(amount);
+    }
+
+    @Benchmark
+    public long debitCents() {
+        return balanceCents < amountCents ? balanceCents : balanceCents - amountCents;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDebit() {
+        return bigDecimalBalance.compareTo(bigDecimalAmount) < 0 ? bigDecimalBalance : bigDecimalBalance.subtract(bigDecimalAmount);
+    }
+
+    @Benchmark
+    public MoneyTransferRequestPayload readTransferRequest() throws JsonProcessingException {
+        return objectMapper.readValue(TRANSFER_REQUEST, MoneyTransferRequestPayload.class);
+    }
+
+    @Benchmark
+    public BigDecimalTransferRequest bigDecimalReadTransferRequest() throws JsonProcessingException {
+        return objectMapper.readValue(TRANSFER_REQUEST, BigDecimalTransferRequest.class);
+    }
+
+    @Benchmark
+    public String writeTransferRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(transferRequest);
+    }
+
+    @Benchmark
+    public String bigDecimalWriteTransferRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(bigDecimalTransferRequest);
+    }
+
+    /**
+     * The transfer request as it was before amounts were {@link Money}.
+     */
+    public static class BigDecimalTransferRequest {
+        public String senderAccountNumber;
+        public String receiverAccountNumber;
+        public BigDecimal amount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash and verify latency of {@link PasswordHasher} per BCrypt cost factor, as a reference for
+ * {@code bank.password-hashing.target-latency-ms}. Each step of the cost doubles both latencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHasherBenchmark {
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({"8", "10", "12", "14"})
+    private int cost;
+
+    private String hashedPassword;
+
+    @Setup
+    public void setUp() {
+        PasswordHasher.setCost(cost);
+        hashedPassword = PasswordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordHasher.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordHasher.checkPassword(PASSWORD, hashedPassword);
+    }
+}
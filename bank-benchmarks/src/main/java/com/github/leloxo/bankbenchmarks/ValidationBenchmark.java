@@ -0,0 +1,96 @@
+package com.github.leloxo.bankbenchmarks;
+
+import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
+import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.model.validation.ValidationType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ValidationManager} per field. Rejected input is measured separately because it pays for
+ * building the exception, unless it is only checked for its {@link ValidationError}. The {@code *Baseline}
+ * benchmarks measure the previous implementations: the email regex and validating amounts through their string form.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+    private static final String EMAIL_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
+
+    private final ValidationManager validationManager = new ValidationManager();
+
+    private String email = "jane.doe+bank@example.com";
+    private String invalidEmail = "jane.doe@example";
+    private String name = "Jane";
+    private String password = "correct-horse-battery-staple";
+    private String accountNumber;
+    private Money amount = Money.ofCents(12550);
+    private long amountCents = 12550;
+
+    @Setup
+    public void setUp() {
+        accountNumber = new AccountNumberGenerator(size -> 0, 1).nextAccountNumber();
+    }
+
+    @Benchmark
+    public void email() {
+        validationManager.validate(ValidationType.EMAIL, email);
+    }
+
+    @Benchmark
+    public boolean emailRegexBaseline() {
+        return email.matches(EMAIL_REGEX);
+    }
+
+    @Benchmark
+    public Exception invalidEmail() {
+        try {
+            validationManager.validate(ValidationType.EMAIL, invalidEmail);
+            throw new IllegalStateException("Email " + invalidEmail + " was accepted.");
+        } catch (InvalidCustomerDataException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ValidationError invalidEmailCheck() {
+        return validationManager.check(ValidationType.EMAIL, invalidEmail);
+    }
+
+    @Benchmark
+    public void name() {
+        validationManager.validate(ValidationType.NAME, name);
+    }
+
+    @Benchmark
+    public void password() {
+        validationManager.validate(ValidationType.PASSWORD, password);
+    }
+
+    @Benchmark
+    public void accountNumber() {
+        validationManager.validate(ValidationType.BANK_ACCOUNT_NUMBER, accountNumber);
+    }
+
+    @Benchmark
+    public void transferAmount() {
+        validationManager.validateTransferAmount(amount);
+    }
+
+    @Benchmark
+    public void transferAmountCents() {
+        validationManager.validateTransferAmount(amountCents);
+    }
+
+    @Benchmark
+    public void transferAmountBaseline() {
+        validationManager.validate(ValidationType.TRANSFER_AMOUNT, amount.toString());
+    }
+}
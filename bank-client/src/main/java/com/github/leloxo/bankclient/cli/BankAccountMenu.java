@@ -3,22 +3,31 @@ package com.github.leloxo.bankclient.cli;
 import com.github.leloxo.bankclient.model.bankaccount.BankAccount;
 import com.github.leloxo.bankclient.model.bankaccount.BankAccountDto;
 import com.github.leloxo.bankclient.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankclient.model.bankaccount.TransferDto;
+import com.github.leloxo.bankclient.model.bankaccount.TransferHistoryPage;
 import com.github.leloxo.bankclient.service.BankAccountService;
+import com.github.leloxo.bankclient.service.SessionCache;
 import com.github.leloxo.bankclient.utils.TerminalColors;
 import com.github.leloxo.bankclient.utils.TerminalUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Scanner;
 
 @Component
 public class BankAccountMenu {
+    private static final int TRANSFER_HISTORY_PAGE_SIZE = 10;
+    private static final DateTimeFormatter TRANSFER_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final BankAccountService bankAccountService;
+    private final SessionCache sessionCache;
 
-    public BankAccountMenu(BankAccountService bankAccountService) {
+    public BankAccountMenu(BankAccountService bankAccountService, SessionCache sessionCache) {
         this.bankAccountService = bankAccountService;
+        this.sessionCache = sessionCache;
     }
 
     public void displayBankAccountCreationMenu(Scanner scanner, String email) {
@@ -29,6 +38,7 @@ public class BankAccountMenu {
         if (response.equalsIgnoreCase("y")) {
             try {
                 BankAccount createdBankAccount = bankAccountService.createBankAccount(email);
+                sessionCache.refreshBankAccounts();
                 System.out.println(TerminalUtils.colorizeSuccess("\nSuccess! A new bank account has been created."));
                 System.out.println("Your new account number: " + createdBankAccount.getAccountNumber() + "\n");
             } catch (WebClientResponseException e) {
@@ -45,20 +55,20 @@ public class BankAccountMenu {
         System.out.println(TerminalUtils.colorizeTitle("\n> Bank Account Information"));
 
         try {
-            List<BankAccountDto> bankAccounts = bankAccountService.getBankAccountsByEmail(email);
+            List<BankAccountDto> bankAccounts = sessionCache.getBankAccounts();
 
             if (bankAccounts.isEmpty()) {
                 System.out.println("No bank accounts found for the provided email: " + email + "\n");
                 return;
             }
 
-            double totalBalance = 0.0;
+            BigDecimal totalBalance = BigDecimal.ZERO;
             System.out.println("Bank Accounts for: " + email + "\n");
             for (BankAccountDto eachBankAccount : bankAccounts) {
                 System.out.println("Account Number: " + eachBankAccount.getAccountNumber());
                 System.out.println("Balance: " + eachBankAccount.getBalance() + " EUR\n");
 
-                totalBalance += eachBankAccount.getBalance().doubleValue();
+                totalBalance = totalBalance.add(eachBankAccount.getBalance());
             }
             String formattedTotalBalance = String.format("%.2f", totalBalance);
             System.out.println("Total Balance across all accounts: " + formattedTotalBalance + " EUR\n");
@@ -72,7 +82,7 @@ public class BankAccountMenu {
     public void displayMoneyTransferMenu(Scanner scanner, String email) {
         System.out.println(TerminalUtils.colorizeTitle("\n> Transfer Money"));
 
-        List<BankAccountDto> bankAccounts = bankAccountService.getBankAccountsByEmail(email);
+        List<BankAccountDto> bankAccounts = sessionCache.getBankAccounts();
 
         if (bankAccounts.isEmpty()) {
             System.out.println("No bank accounts available for money transfer. Returning to the customer menu...\n");
@@ -94,10 +104,10 @@ public class BankAccountMenu {
             return;
         }
 
-        double availableBalance = 0.0;
+        BigDecimal availableBalance = BigDecimal.ZERO;
         for (BankAccountDto eachAccount : bankAccounts) {
             if (eachAccount.getAccountNumber().equals(accountNumberFrom)) {
-                availableBalance += eachAccount.getBalance().doubleValue();
+                availableBalance = availableBalance.add(eachAccount.getBalance());
             }
         }
         System.out.println("\nAvailable balance on bank account (" + accountNumberFrom + "): " + String.format("%.2f", availableBalance) + " EUR");
@@ -123,6 +133,7 @@ public class BankAccountMenu {
             try {
                 boolean isSuccessful = bankAccountService.transferMoney(transferRequest);
                 if (isSuccessful) {
+                    sessionCache.refreshBankAccounts();
                     System.out.println(TerminalUtils.colorizeSuccess("Transfer successful!\n"));
                 }
             } catch (Exception e) {
@@ -132,4 +143,69 @@ public class BankAccountMenu {
             System.out.println("Aborting transaction. Returning to the customer menu...\n");
         }
     }
+
+    public void displayTransferHistory(Scanner scanner, String email) {
+        System.out.println(TerminalUtils.colorizeTitle("\n> Transfer History"));
+
+        try {
+            List<BankAccountDto> bankAccounts = sessionCache.getBankAccounts();
+
+            if (bankAccounts.isEmpty()) {
+                System.out.println("No bank accounts found for the provided email: " + email + "\n");
+                return;
+            }
+
+            String accountNumber;
+            if (bankAccounts.size() == 1) {
+                accountNumber = bankAccounts.get(0).getAccountNumber();
+            } else {
+                System.out.print("Enter the account number to show the transfer history of: ");
+                accountNumber = scanner.nextLine().trim();
+                if (bankAccounts.stream().noneMatch(bankAccount -> bankAccount.getAccountNumber().equals(accountNumber))) {
+                    System.out.println(TerminalUtils.colorizeError("You do not own a bank account with the number " + accountNumber + ".\n"));
+                    return;
+                }
+            }
+
+            System.out.println("Transfers of bank account: " + accountNumber + "\n");
+            String cursor = null;
+            do {
+                TransferHistoryPage page = bankAccountService.getTransfers(accountNumber, cursor, TRANSFER_HISTORY_PAGE_SIZE);
+                if (cursor == null && page.getTransfers().isEmpty()) {
+                    System.out.println("No transfers found.\n");
+                    return;
+                }
+                for (TransferDto transfer : page.getTransfers()) {
+                    displayTransfer(transfer, accountNumber);
+                }
+
+                cursor = page.getNextCursor();
+                if (cursor != null) {
+                    System.out.print("\nShow older transfers? (y/n): ");
+                    if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                        cursor = null;
+                    }
+                }
+            } while (cursor != null);
+            System.out.println();
+        } catch (WebClientResponseException.NotFound e) {
+            // The account is one of the customer's own, so only a server without the endpoint answers 404.
+            System.out.println(TerminalUtils.colorizeError("The transfer history is not available on this server.\n"));
+        } catch (WebClientResponseException e) {
+            System.out.println(TerminalUtils.colorizeError("An error occurred while fetching the transfer history: " + e.getResponseBodyAsString() + ". Please try again.\n"));
+        } catch (Exception e) {
+            System.out.println(TerminalUtils.colorizeError("An unexpected error occurred while fetching the transfer history: " + e.getMessage() + ". Please try again.\n"));
+        }
+    }
+
+    private void displayTransfer(TransferDto transfer, String accountNumber) {
+        String date = transfer.getTransferDate().format(TRANSFER_DATE_FORMAT);
+        if (transfer.getSenderAccountNumber().equals(accountNumber)) {
+            System.out.println(date + "  " + TerminalUtils.colorize("-" + transfer.getAmount() + " EUR", TerminalColors.RED)
+                    + "  to " + transfer.getReceiverAccountNumber());
+        } else {
+            System.out.println(date + "  " + TerminalUtils.colorize("+" + transfer.getAmount() + " EUR", TerminalColors.GREEN)
+                    + "  from " + transfer.getSenderAccountNumber());
+        }
+    }
 }
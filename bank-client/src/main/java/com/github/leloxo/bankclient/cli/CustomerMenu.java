@@ -2,6 +2,7 @@ package com.github.leloxo.bankclient.cli;
 
 import com.github.leloxo.bankclient.model.customer.CustomerDto;
 import com.github.leloxo.bankclient.service.CustomerService;
+import com.github.leloxo.bankclient.service.SessionCache;
 import com.github.leloxo.bankclient.utils.TerminalColors;
 import com.github.leloxo.bankclient.utils.TerminalUtils;
 import org.springframework.stereotype.Component;
@@ -14,15 +15,18 @@ public class CustomerMenu {
     private final BankAccountMenu bankAccountMenu;
     private final LoginMenu loginMenu;
     private final CustomerService customerService;
+    private final SessionCache sessionCache;
 
-    public CustomerMenu(LoginMenu loginMenu, BankAccountMenu bankAccountMenu, CustomerService customerService) {
+    public CustomerMenu(LoginMenu loginMenu, BankAccountMenu bankAccountMenu, CustomerService customerService,
+                        SessionCache sessionCache) {
         this.loginMenu = loginMenu;
         this.bankAccountMenu = bankAccountMenu;
         this.customerService = customerService;
+        this.sessionCache = sessionCache;
     }
 
     public boolean displayCustomerMenu(Scanner scanner) {
-        CustomerDto loggedInCustomer = loginMenu.getLoggedInCustomer();
+        CustomerDto loggedInCustomer = sessionCache.getCustomer();
 
         displayHomeScreen(loggedInCustomer.getFirstName(), loggedInCustomer.getLastName());
 
@@ -46,6 +50,9 @@ public class CustomerMenu {
                 case "transfer":
                     bankAccountMenu.displayMoneyTransferMenu(scanner, loggedInCustomer.getEmail());
                     break;
+                case "history":
+                    bankAccountMenu.displayTransferHistory(scanner, loggedInCustomer.getEmail());
+                    break;
                 case "edit":
                     loggedInCustomer = editCustomerInfo(scanner, loggedInCustomer);
                     break;
@@ -77,15 +84,15 @@ public class CustomerMenu {
             System.out.print("Please confirm your password to delete your account: ");
             String password = scanner.nextLine().trim();
 
-            if (loginMenu.confirmPassword(email, password)) {
-                try {
-                    customerService.deleteCustomer(email);
-                    System.out.println(TerminalUtils.colorizeSuccess("Your customer account has been successfully deleted!\n"));
-                } catch (WebClientResponseException e) {
-                    System.out.println(TerminalUtils.colorizeError("An error occurred while deleting your customer account: " + e.getResponseBodyAsString() + ". Please try again.\n"));
-                } catch (Exception e) {
-                    System.out.println(TerminalUtils.colorizeError("An unexpected error occurred while deleting your customer account: " + e.getMessage() + ". Please try again.\n"));
-                }
+            try {
+                customerService.deleteCustomer(email, password);
+                System.out.println(TerminalUtils.colorizeSuccess("Your customer account has been successfully deleted!\n"));
+            } catch (WebClientResponseException.Forbidden e) {
+                System.out.println(TerminalUtils.colorizeError("Invalid password. Your customer account was not deleted.\n"));
+            } catch (WebClientResponseException e) {
+                System.out.println(TerminalUtils.colorizeError("An error occurred while deleting your customer account: " + e.getResponseBodyAsString() + ". Please try again.\n"));
+            } catch (Exception e) {
+                System.out.println(TerminalUtils.colorizeError("An unexpected error occurred while deleting your customer account: " + e.getMessage() + ". Please try again.\n"));
             }
         } else {
             System.out.println("Aborting. Returning to the customer menu...\n");
@@ -130,8 +137,7 @@ public class CustomerMenu {
         System.out.print("\nWould you like to save these changes? (y/n): ");
         String confirmation = scanner.nextLine();
         if (confirmation.equalsIgnoreCase("y")) {
-            saveCustomerUpdates(loggedInCustomer.getEmail(), updatedCustomer);
-            return updatedCustomer;
+            return saveCustomerUpdates(loggedInCustomer, updatedCustomer);
         } else {
             System.out.println("No changes were saved.\n");
             return loggedInCustomer;
@@ -157,15 +163,21 @@ public class CustomerMenu {
         }
     }
 
-    private void saveCustomerUpdates(String email, CustomerDto updatedCustomer) {
+    /**
+     * @return The profile as reloaded from the server after the update, or the unchanged profile if the update failed.
+     */
+    private CustomerDto saveCustomerUpdates(CustomerDto loggedInCustomer, CustomerDto updatedCustomer) {
         try {
-            customerService.updateCustomer(email, updatedCustomer);
+            customerService.updateCustomer(loggedInCustomer.getEmail(), updatedCustomer);
+            sessionCache.refresh(updatedCustomer);
             System.out.println(TerminalUtils.colorizeSuccess("Your information has been successfully updated.\n"));
+            return sessionCache.getCustomer();
         } catch (WebClientResponseException e) {
             System.out.println(TerminalUtils.colorizeError("An error occurred while updating your information: " + e.getResponseBodyAsString() + ". Please try again.\n"));
         } catch (Exception e) {
             System.out.println(TerminalUtils.colorizeError("An unexpected error occurred while updating your information: " + e.getMessage() + ". Please try again.\n"));
         }
+        return loggedInCustomer;
     }
 
     private void displayHomeScreen(String firstName, String lastName) {
@@ -181,6 +193,7 @@ public class CustomerMenu {
         System.out.println("    home            Shows the home screen.");
         System.out.println("    info            Shows details of all owned bank accounts.");
         System.out.println("    transfer        Opens the money transfer menu.");
+        System.out.println("    history         Shows the transfer history of a bank account.");
         System.out.println("    edit            Edit personal information.");
         System.out.println("    open            Open up a new bank account.");
         System.out.println("    delete          Delete your customer account.");
@@ -190,6 +203,7 @@ public class CustomerMenu {
 
     private boolean logout() {
         System.out.println("Logging out...");
+        loginMenu.logout();
         return false;
     }
 }
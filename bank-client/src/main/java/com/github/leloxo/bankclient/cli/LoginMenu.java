@@ -4,6 +4,7 @@ import com.github.leloxo.bankclient.model.customer.Customer;
 import com.github.leloxo.bankclient.model.customer.CustomerDto;
 import com.github.leloxo.bankclient.model.customer.LoginRequestPayload;
 import com.github.leloxo.bankclient.service.CustomerService;
+import com.github.leloxo.bankclient.service.SessionCache;
 import com.github.leloxo.bankclient.utils.TerminalUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -13,10 +14,11 @@ import java.util.Scanner;
 @Component
 public class LoginMenu {
     private final CustomerService customerService;
-    private CustomerDto loggedInCustomer;
+    private final SessionCache sessionCache;
 
-    public LoginMenu(CustomerService customerService) {
+    public LoginMenu(CustomerService customerService, SessionCache sessionCache) {
         this.customerService = customerService;
+        this.sessionCache = sessionCache;
     }
 
     public boolean displayLoginMenu(Scanner scanner) {
@@ -28,12 +30,10 @@ public class LoginMenu {
 
         LoginRequestPayload loginRequestPayload = new LoginRequestPayload(loginEmail, password);
         try {
-            boolean isAuthenticated = customerService.login(loginRequestPayload);
-            if (isAuthenticated) {
-                loggedInCustomer = customerService.getCustomerByEmail(loginEmail);
-                System.out.println(TerminalUtils.colorizeSuccess("Login successful!"));
-                return true;
-            }
+            CustomerDto loggedInCustomer = customerService.login(loginRequestPayload);
+            sessionCache.warmUp(loggedInCustomer);
+            System.out.println(TerminalUtils.colorizeSuccess("Login successful!"));
+            return true;
         } catch (Exception e) {
             System.out.println(TerminalUtils.colorizeError("An error occurred during login: " + e.getMessage() + " Please try again.\n"));
         }
@@ -62,22 +62,12 @@ public class LoginMenu {
         }
     }
 
-    public boolean confirmPassword(String loginEmail, String password) {
-        LoginRequestPayload loginRequestPayload = new LoginRequestPayload(loginEmail, password);
+    public void logout() {
         try {
-            boolean isAuthenticated = customerService.login(loginRequestPayload);
-            if (isAuthenticated) {
-                loggedInCustomer = customerService.getCustomerByEmail(loginEmail);
-                System.out.println(TerminalUtils.colorizeSuccess("Password confirmed!\n"));
-                return true;
-            }
+            customerService.logout();
         } catch (Exception e) {
-            System.out.println(TerminalUtils.colorizeError("An error occurred during password confirmation: " + e.getMessage() + " Please try again.\n"));
+            // The session expires on its own if the server cannot be reached.
         }
-        return false;
-    }
-
-    public CustomerDto getLoggedInCustomer() {
-        return loggedInCustomer;
+        sessionCache.clear();
     }
 }
@@ -0,0 +1,99 @@
+package com.github.leloxo.bankclient.config;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the body and entity tag of GET responses that carry an {@code ETag}, and sends the tag as
+ * {@code If-None-Match} the next time the same URL is requested. If the server answers 304 Not Modified, the remembered
+ * body is passed on as a 200 response, so repeating a read costs a round trip without a body.
+ * <p>
+ * An entry is only used for requests with the same {@code Authorization} header it was stored with, so one customer is
+ * never served the response of another. Beyond {@code maxEntries}, the least recently used entries are dropped.
+ */
+final class ETagCache implements ExchangeFilterFunction {
+    private record Entry(String authorization, String eTag, MediaType contentType, byte[] body) {}
+
+    private final Map<URI, Entry> entries;
+
+    ETagCache(int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<URI, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method())) {
+            return next.exchange(request);
+        }
+        URI url = request.url();
+        String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+        Entry cached = entries.get(url);
+        if (cached == null || !Objects.equals(cached.authorization(), authorization)) {
+            return next.exchange(request).map(response -> store(url, authorization, response));
+        }
+
+        ClientRequest conditionalRequest = ClientRequest.from(request)
+                .header(HttpHeaders.IF_NONE_MATCH, cached.eTag())
+                .build();
+        return next.exchange(conditionalRequest).map(response -> {
+            if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return response.mutate()
+                        .statusCode(HttpStatus.OK)
+                        .headers(headers -> headers.setContentType(cached.contentType()))
+                        .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(cached.body())))
+                        .build();
+            }
+            return store(url, authorization, response);
+        });
+    }
+
+    /**
+     * Passes the response on, and remembers its body once it has been read if it is a 200 response with an entity tag.
+     */
+    private ClientResponse store(URI url, String authorization, ClientResponse response) {
+        String eTag = response.headers().asHttpHeaders().getETag();
+        if (!response.statusCode().isSameCodeAs(HttpStatus.OK) || eTag == null) {
+            entries.remove(url);
+            return response;
+        }
+        MediaType contentType = response.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+        return response.mutate()
+                .body(body -> DataBufferUtils.join(body)
+                        .map(buffer -> {
+                            entries.put(url, new Entry(authorization, eTag, contentType, copy(buffer)));
+                            return buffer;
+                        })
+                        .flux())
+                .build();
+    }
+
+    private static byte[] copy(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        int readPosition = buffer.readPosition();
+        buffer.read(bytes);
+        buffer.readPosition(readPosition);
+        return bytes;
+    }
+}
@@ -1,13 +1,63 @@
 package com.github.leloxo.bankclient.config;
 
+import com.github.leloxo.bankclient.service.SessionContext;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * Builds the single {@link WebClient} shared by all services. It keeps connections to the server open in a pool, so
+ * that consecutive commands reuse them instead of opening a new connection each, asks for gzip-compressed responses
+ * unless {@code bank.client.compression} is {@code false}, and sends the session token of the logged-in customer with
+ * every request. Reads are revalidated with the entity tag of their last response through an {@link ETagCache}.
+ */
 @Configuration
 public class WebConfig {
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(
+            @Value("${bank.client.max-connections:16}") int maxConnections,
+            @Value("${bank.client.max-idle-time-seconds:30}") long maxIdleTimeSeconds) {
+        return ConnectionProvider.builder("bank-server")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                .evictInBackground(Duration.ofSeconds(maxIdleTimeSeconds))
+                .build();
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient webClient(SessionContext sessionContext, ConnectionProvider connectionProvider,
+                               @Value("${bank.client.base-url:http://localhost:8080}") String baseUrl,
+                               @Value("${bank.client.connect-timeout-ms:3000}") int connectTimeoutMs,
+                               @Value("${bank.client.response-timeout-ms:10000}") long responseTimeoutMs,
+                               @Value("${bank.client.compression:true}") boolean compression,
+                               @Value("${bank.client.etag-cache-size:64}") int eTagCacheSize) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .compress(compression);
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter((request, next) -> {
+                    String token = sessionContext.getToken();
+                    if (token == null) {
+                        return next.exchange(request);
+                    }
+                    return next.exchange(ClientRequest.from(request)
+                            .headers(headers -> headers.setBearerAuth(token))
+                            .build());
+                })
+                .filter(new ETagCache(eTagCacheSize))
+                .build();
     }
 }
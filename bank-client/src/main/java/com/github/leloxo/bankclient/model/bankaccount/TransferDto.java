@@ -0,0 +1,67 @@
+package com.github.leloxo.bankclient.model.bankaccount;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TransferDto {
+    private Long id;
+    private String senderAccountNumber;
+    private String receiverAccountNumber;
+    private BigDecimal amount;
+    private LocalDateTime transferDate;
+
+    public TransferDto() {}
+
+    public TransferDto(Long id, String senderAccountNumber, String receiverAccountNumber, BigDecimal amount, LocalDateTime transferDate) {
+        this.id = id;
+        this.senderAccountNumber = senderAccountNumber;
+        this.receiverAccountNumber = receiverAccountNumber;
+        this.amount = amount;
+        this.transferDate = transferDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSenderAccountNumber() {
+        return senderAccountNumber;
+    }
+
+    public void setSenderAccountNumber(String senderAccountNumber) {
+        this.senderAccountNumber = senderAccountNumber;
+    }
+
+    public String getReceiverAccountNumber() {
+        return receiverAccountNumber;
+    }
+
+    public void setReceiverAccountNumber(String receiverAccountNumber) {
+        this.receiverAccountNumber = receiverAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getTransferDate() {
+        return transferDate;
+    }
+
+    public void setTransferDate(LocalDateTime transferDate) {
+        this.transferDate = transferDate;
+    }
+
+    @Override
+    public String toString() {
+        return "Transfer [id=" + id + ", sender=" + senderAccountNumber + ", receiver=" + receiverAccountNumber + ", amount=" + amount + ", transferDate=" + transferDate + "]";
+    }
+}
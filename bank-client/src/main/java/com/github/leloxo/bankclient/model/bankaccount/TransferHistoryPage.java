@@ -0,0 +1,24 @@
+package com.github.leloxo.bankclient.model.bankaccount;
+
+import java.util.List;
+
+public class TransferHistoryPage {
+    private final List<TransferDto> transfers;
+    private final String nextCursor;
+
+    public TransferHistoryPage(List<TransferDto> transfers, String nextCursor) {
+        this.transfers = transfers;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TransferDto> getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * @return The cursor of the next page, or {@code null} if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
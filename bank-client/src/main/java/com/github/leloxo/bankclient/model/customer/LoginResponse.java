@@ -0,0 +1,35 @@
+package com.github.leloxo.bankclient.model.customer;
+
+import java.time.Instant;
+
+public class LoginResponse {
+    private String token;
+    private Instant expiresAt;
+    private CustomerDto customer;
+
+    public LoginResponse() {}
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public CustomerDto getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(CustomerDto customer) {
+        this.customer = customer;
+    }
+}
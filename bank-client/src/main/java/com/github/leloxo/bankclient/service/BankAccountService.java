@@ -3,46 +3,71 @@ package com.github.leloxo.bankclient.service;
 import com.github.leloxo.bankclient.model.bankaccount.BankAccount;
 import com.github.leloxo.bankclient.model.bankaccount.BankAccountDto;
 import com.github.leloxo.bankclient.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankclient.model.bankaccount.TransferDto;
+import com.github.leloxo.bankclient.model.bankaccount.TransferHistoryPage;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class BankAccountService {
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
 
-    public BankAccountService(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public BankAccountService(WebClient webClient) {
+        this.webClient = webClient;
     }
 
-    private final String BASE_URL = "http://localhost:8080/accounts";
+    private final String BASE_PATH = "/accounts";
+    private final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     public BankAccount createBankAccount(String email) {
-        return webClientBuilder.build()
+        return webClient
                 .post()
-                .uri(BASE_URL + "/create/" + email)
+                .uri(BASE_PATH + "/create/" + email)
                 .retrieve()
                 .bodyToMono(BankAccount.class)
                 .block();
     }
 
     public List<BankAccountDto> getBankAccountsByEmail(String email) {
-        return webClientBuilder.build()
+        return fetchBankAccountsByEmail(email).block();
+    }
+
+    public Mono<List<BankAccountDto>> fetchBankAccountsByEmail(String email) {
+        return webClient
                 .get()
-                .uri(BASE_URL + "/get/" + email)
+                .uri(BASE_PATH + "/get/" + email)
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<List<BankAccountDto>>() {})
+                .defaultIfEmpty(List.of());
+    }
+
+    public TransferHistoryPage getTransfers(String accountNumber, String cursor, int limit) {
+        ResponseEntity<List<TransferDto>> response = webClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path(BASE_PATH + "/{accountNumber}/transfers")
+                        .queryParam("limit", limit)
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .build(accountNumber))
+                .retrieve()
+                .toEntityList(TransferDto.class)
                 .block();
+        if (response == null) {
+            return new TransferHistoryPage(List.of(), null);
+        }
+        return new TransferHistoryPage(response.getBody(), response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
     }
 
     public boolean transferMoney(MoneyTransferRequestPayload transferRequest) {
-        return Boolean.TRUE.equals(webClientBuilder.build()
+        return Boolean.TRUE.equals(webClient
                 .post()
-                .uri(BASE_URL + "/transfer")
+                .uri(BASE_PATH + "/transfer")
                 .bodyValue(transferRequest)
                 .exchangeToMono(response -> {
                     if (response.statusCode().equals(HttpStatus.OK)) {
@@ -2,86 +2,108 @@ package com.github.leloxo.bankclient.service;
 
 import com.github.leloxo.bankclient.model.customer.Customer;
 import com.github.leloxo.bankclient.model.customer.CustomerDto;
+import com.github.leloxo.bankclient.model.customer.DeleteCustomerRequestPayload;
 import com.github.leloxo.bankclient.model.customer.LoginRequestPayload;
-import org.springframework.core.ParameterizedTypeReference;
+import com.github.leloxo.bankclient.model.customer.LoginResponse;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 @Service
 public class CustomerService {
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+    private final SessionContext sessionContext;
 
-    public CustomerService(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    public CustomerService(WebClient webClient, SessionContext sessionContext) {
+        this.webClient = webClient;
+        this.sessionContext = sessionContext;
     }
 
-    private final String BASE_URL = "http://localhost:8080/customers";
-
-    public List<CustomerDto> getCustomers() {
-        return webClientBuilder.build()
-                .get()
-                .uri(BASE_URL + "/all")
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<CustomerDto>>() {})
-                .block();
-    }
+    private final String BASE_PATH = "/customers";
+    private final String SESSION_TOKEN_HEADER = "X-Session-Token";
 
     public void updateCustomer(String email, CustomerDto updatedCustomer) {
-        webClientBuilder.build()
+        ResponseEntity<CustomerDto> response = webClient
                 .put()
-                .uri(BASE_URL + "/update/" + email)
+                .uri(BASE_PATH + "/update/" + email)
                 .bodyValue(updatedCustomer)
                 .retrieve()
-                .bodyToMono(CustomerDto.class)
+                .toEntity(CustomerDto.class)
                 .block();
+        // The server replaces the session, as it is bound to the email of the customer.
+        if (response != null && response.getHeaders().containsKey(SESSION_TOKEN_HEADER)) {
+            sessionContext.setToken(response.getHeaders().getFirst(SESSION_TOKEN_HEADER));
+        }
     }
 
-    public void deleteCustomer(String email) {
-        webClientBuilder.build()
-                .delete()
-                .uri(BASE_URL + "/delete/" + email)
+    public void deleteCustomer(String email, String password) {
+        // The server checks the password again, a session alone does not allow the deletion.
+        webClient
+                .method(HttpMethod.DELETE)
+                .uri(BASE_PATH + "/delete/" + email)
+                .bodyValue(new DeleteCustomerRequestPayload(password))
                 .retrieve()
                 .bodyToMono(String.class)
                 .block();
     }
 
     public CustomerDto getCustomerByEmail(String email) {
-        return webClientBuilder.build()
+        return fetchCustomerByEmail(email).block();
+    }
+
+    public Mono<CustomerDto> fetchCustomerByEmail(String email) {
+        return webClient
                 .get()
-                .uri(BASE_URL + "/get/" + email)
+                .uri(BASE_PATH + "/get/" + email)
                 .retrieve()
-                .bodyToMono(CustomerDto.class)
-                .block();
+                .bodyToMono(CustomerDto.class);
     }
 
     public void register(Customer customerData) {
-        webClientBuilder.build()
+        webClient
                 .post()
-                .uri(BASE_URL + "/register")
+                .uri(BASE_PATH + "/register")
                 .bodyValue(customerData)
                 .retrieve()
                 .bodyToMono(Customer.class)
                 .block();
     }
 
-    public boolean login(LoginRequestPayload loginRequest) {
-        return Boolean.TRUE.equals(webClientBuilder.build()
+    public CustomerDto login(LoginRequestPayload loginRequest) {
+        LoginResponse loginResponse = webClient
                 .post()
-                .uri(BASE_URL + "/login")
+                .uri(BASE_PATH + "/login")
                 .bodyValue(loginRequest)
                 .exchangeToMono(response -> {
                     if (response.statusCode().equals(HttpStatus.OK)) {
-                        return Mono.just(true);
+                        return response.bodyToMono(LoginResponse.class);
                     } else {
                         return response.bodyToMono(String.class)
                                 .flatMap(errorMessage -> Mono.error(new RuntimeException(errorMessage)));
                     }
                 })
-                .block());
+                .block();
+        if (loginResponse == null) {
+            throw new RuntimeException("Empty login response.");
+        }
+        sessionContext.setToken(loginResponse.getToken());
+        return loginResponse.getCustomer();
+    }
+
+    public void logout() {
+        try {
+            webClient
+                    .post()
+                    .uri(BASE_PATH + "/logout")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block();
+        } finally {
+            sessionContext.clear();
+        }
     }
 
 }
@@ -0,0 +1,87 @@
+package com.github.leloxo.bankclient.service;
+
+import com.github.leloxo.bankclient.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankclient.model.customer.CustomerDto;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.List;
+
+/**
+ * Holds the profile and bank accounts of the logged-in customer, so interactive commands render from memory instead
+ * of asking the server again. The accounts are loaded right after login and reloaded after every change to them.
+ * A failed reload drops the cached accounts, which are then fetched again by the next command that needs them.
+ */
+@Component
+public class SessionCache {
+    private final CustomerService customerService;
+    private final BankAccountService bankAccountService;
+
+    private volatile CustomerDto customer;
+    private volatile List<BankAccountDto> bankAccounts;
+
+    public SessionCache(CustomerService customerService, BankAccountService bankAccountService) {
+        this.customerService = customerService;
+        this.bankAccountService = bankAccountService;
+    }
+
+    /**
+     * Starts a session for the customer returned by the login and loads their bank accounts.
+     */
+    public void warmUp(CustomerDto loggedInCustomer) {
+        customer = loggedInCustomer;
+        refreshBankAccounts();
+    }
+
+    /**
+     * Reloads the profile and the bank accounts of the customer after their profile was updated. Both requests are
+     * independent, so they are sent at the same time and only their combined result is waited for. If the reload
+     * fails, the updated profile is kept as sent to the server.
+     */
+    public void refresh(CustomerDto updatedCustomer) {
+        customer = updatedCustomer;
+        String email = updatedCustomer.getEmail();
+        try {
+            Tuple2<CustomerDto, List<BankAccountDto>> result = Mono.zip(
+                    customerService.fetchCustomerByEmail(email),
+                    bankAccountService.fetchBankAccountsByEmail(email)
+            ).block();
+            if (result != null) {
+                customer = result.getT1();
+                bankAccounts = result.getT2();
+            }
+        } catch (Exception e) {
+            bankAccounts = null;
+        }
+    }
+
+    public void refreshBankAccounts() {
+        try {
+            bankAccounts = bankAccountService.getBankAccountsByEmail(customer.getEmail());
+        } catch (Exception e) {
+            bankAccounts = null;
+        }
+    }
+
+    public CustomerDto getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Returns the cached bank accounts, loading them first if the last attempt failed.
+     */
+    public List<BankAccountDto> getBankAccounts() {
+        List<BankAccountDto> cached = bankAccounts;
+        if (cached == null) {
+            cached = bankAccountService.getBankAccountsByEmail(customer.getEmail());
+            bankAccounts = cached;
+        }
+        return cached;
+    }
+
+    public void clear() {
+        customer = null;
+        bankAccounts = null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.leloxo.bankclient.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the session token of the logged-in customer, which is sent with every request to the server.
+ */
+@Component
+public class SessionContext {
+    private volatile String token;
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public void clear() {
+        this.token = null;
+    }
+}
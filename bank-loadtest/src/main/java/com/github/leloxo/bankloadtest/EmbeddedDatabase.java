@@ -0,0 +1,148 @@
+package com.github.leloxo.bankloadtest;
+
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the schema of the in-memory database from the server's {@code sql/create_database.sql} and seeds it with
+ * customers and accounts, before the server starts and builds its caches from it.
+ */
+public class EmbeddedDatabase {
+    private static final String SCHEMA_SCRIPT = "sql/create_database.sql";
+    private static final int BATCH_SIZE = 1000;
+
+    private final Properties properties;
+
+    public EmbeddedDatabase(Properties properties) {
+        this.properties = properties;
+    }
+
+    public void createSchema() throws IOException, SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (String sql : readSchemaStatements()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Inserts the customers with the given password, each with the given number of accounts and a balance large
+     * enough to never run out during a test.
+     *
+     * @return The seeded customers in insertion order.
+     */
+    public List<SeededCustomer> seed(int customers, int accountsPerCustomer, String password) throws SQLException {
+        // One hash for all customers; hashing each password would take minutes at production cost factors.
+        String hashedPassword = PasswordHasher.hashPassword(password);
+        List<SeededCustomer> seededCustomers = new ArrayList<>(customers);
+
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO customer (first_name, last_name, email, password) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < customers; i++) {
+                    String email = "loadtest-" + i + "@example.com";
+                    statement.setString(1, "Load");
+                    statement.setString(2, "Test " + i);
+                    statement.setString(3, email);
+                    statement.setString(4, hashedPassword);
+                    statement.executeUpdate();
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        generatedKeys.next();
+                        seededCustomers.add(new SeededCustomer(generatedKeys.getLong(1), email));
+                    }
+                }
+            }
+
+            long[] sequence = {nextSequenceValue(connection)};
+            AccountNumberGenerator accountNumberGenerator = new AccountNumberGenerator(size -> {
+                long start = sequence[0];
+                sequence[0] += size;
+                return start;
+            }, BATCH_SIZE);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO bank_account (account_number, customer_id, balance) VALUES (?, ?, 1000000.00)")) {
+                int batched = 0;
+                for (SeededCustomer customer : seededCustomers) {
+                    for (int i = 0; i < accountsPerCustomer; i++) {
+                        String accountNumber = accountNumberGenerator.nextAccountNumber();
+                        customer.getAccountNumbers().add(accountNumber);
+                        statement.setString(1, accountNumber);
+                        statement.setLong(2, customer.getId());
+                        statement.addBatch();
+                        if (++batched % BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            // Accounts created by the server during the test continue after the seeded ones.
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE account_number_sequence SET next_value = ? WHERE id = 1")) {
+                statement.setLong(1, sequence[0]);
+                statement.executeUpdate();
+            }
+            connection.commit();
+        }
+        return seededCustomers;
+    }
+
+    private static long nextSequenceValue(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT next_value FROM account_number_sequence WHERE id = 1")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * @return The statements of the schema script, without the ones that select the MySQL database, which the
+     * in-memory database already is.
+     */
+    private static List<String> readSchemaStatements() throws IOException {
+        String script;
+        try (InputStream input = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(SCHEMA_SCRIPT)) {
+            if (input == null) {
+                throw new FileNotFoundException(SCHEMA_SCRIPT + " not found in classpath");
+            }
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        String withoutComments = script.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        List<String> statements = new ArrayList<>();
+        for (String sql : withoutComments.split(";")) {
+            String trimmed = sql.trim();
+            String upperCase = trimmed.toUpperCase(Locale.ROOT);
+            if (!trimmed.isEmpty() && !upperCase.startsWith("CREATE DATABASE") && !upperCase.startsWith("USE ")) {
+                statements.add(trimmed);
+            }
+        }
+        return statements;
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(properties.getProperty("db.url"),
+                properties.getProperty("db.user"), properties.getProperty("db.password"));
+    }
+}
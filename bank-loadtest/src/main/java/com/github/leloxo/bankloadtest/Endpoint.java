@@ -0,0 +1,35 @@
+package com.github.leloxo.bankloadtest;
+
+import java.util.Arrays;
+
+/**
+ * The server endpoints driven by the load test.
+ */
+public enum Endpoint {
+    LOGIN("login", "POST /customers/login"),
+    GET_ACCOUNTS("accounts", "GET /accounts/get/{email}"),
+    TRANSFER("transfer", "POST /accounts/transfer");
+
+    private final String name;
+    private final String description;
+
+    Endpoint(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    public static Endpoint fromName(String name) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + name + ", expected one of login, accounts, transfer."));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
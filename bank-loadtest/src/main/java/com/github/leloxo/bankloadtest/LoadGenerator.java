@@ -0,0 +1,266 @@
+package com.github.leloxo.bankloadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends a weighted mix of requests to the server and records their latencies per endpoint.
+ * <p>
+ * With an arrival rate the load is open-loop: requests are scheduled at fixed intervals whether or not earlier ones
+ * completed, up to the concurrency limit, and latency is measured from the scheduled start. A slow server therefore
+ * shows up as queueing in the percentiles instead of silently lowering the request rate. Without an arrival rate
+ * the load is closed-loop, with each of the concurrent workers sending its next request when the previous one
+ * completed.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final String password;
+    private final List<SeededCustomer> customers;
+    private final List<String> accountNumbers = new ArrayList<>();
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    private volatile long measurementStart;
+
+    public LoadGenerator(String baseUrl, LoadTestOptions options, String password, List<SeededCustomer> customers) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.password = password;
+        this.customers = customers;
+        for (SeededCustomer customer : customers) {
+            accountNumbers.addAll(customer.getAccountNumbers());
+        }
+
+        List<Map.Entry<Endpoint, Integer>> mix = options.getMix().entrySet().stream()
+                .filter(weight -> weight.getValue() > 0)
+                .toList();
+        endpoints = new Endpoint[mix.size()];
+        cumulativeWeights = new int[mix.size()];
+        int total = 0;
+        for (int i = 0; i < mix.size(); i++) {
+            endpoints[i] = mix.get(i).getKey();
+            total += mix.get(i).getValue();
+            cumulativeWeights[i] = total;
+            stats.put(endpoints[i], new EndpointStats(endpoints[i]));
+        }
+    }
+
+    /**
+     * Logs every customer in once, so that the measured requests all have a session token.
+     */
+    public void loginAll() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> logins = new ArrayList<>(customers.size());
+            for (SeededCustomer customer : customers) {
+                logins.add(executor.submit(() -> {
+                    HttpResponse<String> response = httpClient.send(loginRequest(customer), HttpResponse.BodyHandlers.ofString());
+                    // The password hashing executor rejects logins while it is saturated.
+                    while (response.statusCode() == 429) {
+                        Thread.sleep(50);
+                        response = httpClient.send(loginRequest(customer), HttpResponse.BodyHandlers.ofString());
+                    }
+                    if (!storeToken(customer, response)) {
+                        throw new IllegalStateException("Login of " + customer.getEmail() + " failed with status " + response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the warmup and then the measurement.
+     *
+     * @return The statistics of the requests scheduled after the warmup.
+     */
+    public Map<Endpoint, EndpointStats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        measurementStart = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        long end = measurementStart + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        if (options.getRate() > 0) {
+            runOpenLoop(start, end);
+        } else {
+            runClosedLoop(end);
+        }
+        return stats;
+    }
+
+    private void runOpenLoop(long start, long end) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(options.getConcurrency());
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long lagWarnings = 0;
+
+        for (long i = 0; ; i++) {
+            long scheduledStart = start + (long) (i * intervalNanos);
+            if (scheduledStart >= end) {
+                break;
+            }
+            long delay = scheduledStart - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            if (!inFlight.tryAcquire()) {
+                if (lagWarnings++ == 0) {
+                    logger.warn("All {} concurrent requests are in flight, requests start late and their latency includes the wait.",
+                            options.getConcurrency());
+                }
+                inFlight.acquire();
+            }
+            send(scheduledStart).whenComplete((ignored, e) -> inFlight.release());
+        }
+        inFlight.acquire(options.getConcurrency());
+    }
+
+    private void runClosedLoop(long end) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>(options.getConcurrency());
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            Thread worker = new Thread(() -> {
+                long scheduledStart;
+                while ((scheduledStart = System.nanoTime()) < end) {
+                    send(scheduledStart).join();
+                }
+            }, "load-worker-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Sends a request to a randomly picked endpoint and records it once it completes.
+     *
+     * @param scheduledStart The {@link System#nanoTime()} at which the request was due.
+     */
+    private CompletableFuture<Void> send(long scheduledStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Endpoint endpoint = pickEndpoint(random);
+        SeededCustomer customer = customers.get(random.nextInt(customers.size()));
+        HttpRequest request = switch (endpoint) {
+            case LOGIN -> loginRequest(customer);
+            case GET_ACCOUNTS -> HttpRequest.newBuilder(URI.create(baseUrl + "/accounts/get/" + customer.getEmail()))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + customer.getToken())
+                    .GET()
+                    .build();
+            case TRANSFER -> transferRequest(customer, random);
+        };
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, e) -> {
+                    long latency = System.nanoTime() - scheduledStart;
+                    if (endpoint == Endpoint.LOGIN && response != null) {
+                        storeToken(customer, response);
+                    }
+                    if (scheduledStart < measurementStart) {
+                        return null;
+                    }
+                    if (response != null) {
+                        stats.get(endpoint).record(latency, response.statusCode());
+                    } else {
+                        stats.get(endpoint).recordFailure(latency);
+                    }
+                    return null;
+                });
+    }
+
+    private Endpoint pickEndpoint(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + value + " is out of range.");
+    }
+
+    private HttpRequest loginRequest(SeededCustomer customer) {
+        return jsonRequest("/customers/login", Map.of("email", customer.getEmail(), "password", password)).build();
+    }
+
+    /**
+     * Moves up to one unit of money from an account of the customer to any other account, so that transfers
+     * between the same accounts contend with each other as in production.
+     */
+    private HttpRequest transferRequest(SeededCustomer customer, ThreadLocalRandom random) {
+        List<String> senderAccountNumbers = customer.getAccountNumbers();
+        String sender = senderAccountNumbers.get(random.nextInt(senderAccountNumbers.size()));
+        String receiver;
+        do {
+            receiver = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        } while (receiver.equals(sender));
+
+        Map<String, Object> transfer = Map.of(
+                "senderAccountNumber", sender,
+                "receiverAccountNumber", receiver,
+                "amount", BigDecimal.valueOf(random.nextInt(1, 101), 2));
+        return jsonRequest("/accounts/transfer", transfer)
+                .header("Authorization", "Bearer " + customer.getToken())
+                .build();
+    }
+
+    private HttpRequest.Builder jsonRequest(String path, Map<String, ?> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean storeToken(SeededCustomer customer, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        try {
+            customer.setToken(objectMapper.readTree(response.body()).get("token").asText());
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.leloxo.bankloadtest;
+
+import com.github.leloxo.bankserver.BankServerApplication;
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
+import com.github.leloxo.bankserver.repository.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the bank server in-process against a seeded in-memory database in MySQL mode and drives a mixed workload
+ * against it. See {@link LoadTestOptions} for the options.
+ */
+public class LoadTestApplication {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestApplication.class);
+    private static final String PASSWORD = "LoadTest123!";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // The seeded hashes use the same cost as the server, so logins do not rehash them.
+        PasswordHasher.setCost(options.getPasswordCost());
+        EmbeddedDatabase database = new EmbeddedDatabase(DatabaseConnection.loadProperties());
+        database.createSchema();
+        List<SeededCustomer> customers = database.seed(options.getCustomers(), options.getAccountsPerCustomer(), PASSWORD);
+        logger.info("Seeded {} customers with {} accounts each.", options.getCustomers(), options.getAccountsPerCustomer());
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(BankServerApplication.class, serverArgs(options))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator loadGenerator = new LoadGenerator("http://localhost:" + port, options, PASSWORD, customers);
+            loadGenerator.loginAll();
+            logger.info("Running {}s of warmup and {}s of measurement {}.", options.getWarmupSeconds(), options.getDurationSeconds(),
+                    options.getRate() > 0 ? "at " + options.getRate() + " requests/s" : "with " + options.getConcurrency() + " closed-loop workers");
+
+            Map<Endpoint, EndpointStats> stats = loadGenerator.run();
+            Report report = new Report(stats, options.getDurationSeconds());
+            System.out.println(report.format());
+            report.write(Path.of(options.getOutput()));
+            logger.info("Latency distributions written to {}.", Path.of(options.getOutput()).toAbsolutePath());
+        }
+    }
+
+    private static String[] serverArgs(LoadTestOptions options) {
+        List<String> serverArgs = new ArrayList<>(options.getServerArgs());
+        addDefault(serverArgs, "server.port", "0");
+        addDefault(serverArgs, "bank.password-hashing.cost", String.valueOf(options.getPasswordCost()));
+        // Every login and transfer is logged at INFO.
+        addDefault(serverArgs, "logging.level.com.github.leloxo.bankserver", "WARN");
+        return serverArgs.toArray(String[]::new);
+    }
+
+    private static void addDefault(List<String> serverArgs, String name, String value) {
+        if (serverArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+            serverArgs.add("--" + name + "=" + value);
+        }
+    }
+}
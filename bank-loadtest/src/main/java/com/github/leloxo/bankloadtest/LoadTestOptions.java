@@ -0,0 +1,127 @@
+package com.github.leloxo.bankloadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as {@code --name=value}. Arguments that are not load test options
+ * are passed on to the server, e.g. {@code --spring.profiles.active=reactive} or {@code --bank.transfer.engine=ledger}.
+ */
+public class LoadTestOptions {
+    private int customers = 1000;
+    private int accountsPerCustomer = 2;
+    private int concurrency = 64;
+    private double rate = 0;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private int passwordCost = 10;
+    private String output = "results";
+    private final Map<Endpoint, Integer> mix = new EnumMap<>(Map.of(
+            Endpoint.LOGIN, 5,
+            Endpoint.GET_ACCOUNTS, 60,
+            Endpoint.TRANSFER, 35
+    ));
+    private final List<String> serverArgs = new ArrayList<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "customers" -> options.customers = positive(name, Integer.parseInt(value));
+                case "accounts-per-customer" -> options.accountsPerCustomer = positive(name, Integer.parseInt(value));
+                case "concurrency" -> options.concurrency = positive(name, Integer.parseInt(value));
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = positive(name, Integer.parseInt(value));
+                case "password-cost" -> options.passwordCost = Integer.parseInt(value);
+                case "output" -> options.output = value;
+                case "mix" -> options.parseMix(value);
+                default -> options.serverArgs.add(arg);
+            }
+        }
+        if (options.customers * options.accountsPerCustomer < 2) {
+            throw new IllegalArgumentException("Transfers need at least two accounts.");
+        }
+        return options;
+    }
+
+    /**
+     * @param value Weights per endpoint, e.g. {@code login=5,accounts=60,transfer=35}. Endpoints that are left out
+     *              are not called.
+     */
+    private void parseMix(String value) {
+        mix.clear();
+        for (String entry : value.split(",")) {
+            String[] weight = entry.split(":|=", 2);
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight in --mix but got: " + entry);
+            }
+            mix.put(Endpoint.fromName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The weights in --mix must add up to more than zero.");
+        }
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive.");
+        }
+        return value;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getAccountsPerCustomer() {
+        return accountsPerCustomer;
+    }
+
+    /**
+     * @return The number of requests in flight at most.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return The arrival rate in requests per second, or 0 for a closed loop in which every one of the
+     * {@link #getConcurrency()} workers sends its next request as soon as the previous one completed.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getPasswordCost() {
+        return passwordCost;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public Map<Endpoint, Integer> getMix() {
+        return mix;
+    }
+
+    public List<String> getServerArgs() {
+        return serverArgs;
+    }
+}
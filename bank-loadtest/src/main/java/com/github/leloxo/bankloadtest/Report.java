@@ -0,0 +1,60 @@
+package com.github.leloxo.bankloadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint of a load test run.
+ */
+public class Report {
+    private static final String ROW_FORMAT = "%-28s %10s %8s %10s %9s %9s %9s %9s %9s%n";
+
+    private final Map<Endpoint, EndpointStats> stats;
+    private final int durationSeconds;
+
+    public Report(Map<Endpoint, EndpointStats> stats, int durationSeconds) {
+        this.stats = stats;
+        this.durationSeconds = durationSeconds;
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(ROW_FORMAT, "Endpoint", "Requests", "Errors", "Req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (EndpointStats endpointStats : stats.values()) {
+            report.append(String.format(ROW_FORMAT,
+                    endpointStats.getEndpoint().getDescription(),
+                    endpointStats.getRequests(),
+                    endpointStats.getErrors(),
+                    String.format("%.1f", (double) endpointStats.getRequests() / durationSeconds),
+                    millis(endpointStats.getPercentileMillis(50)),
+                    millis(endpointStats.getPercentileMillis(90)),
+                    millis(endpointStats.getPercentileMillis(99)),
+                    millis(endpointStats.getPercentileMillis(99.9)),
+                    millis(endpointStats.getMaxMillis())));
+        }
+        report.append(System.lineSeparator()).append("Response statuses:").append(System.lineSeparator());
+        for (EndpointStats endpointStats : stats.values()) {
+            report.append(String.format("%-28s %s%n", endpointStats.getEndpoint().getDescription(), endpointStats.getStatuses()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to {@code summary.txt} and the latency distribution of each endpoint to
+     * {@code <endpoint>.hgrm} in the given directory.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("summary.txt"), format());
+        for (EndpointStats endpointStats : stats.values()) {
+            endpointStats.writePercentileDistribution(directory.resolve(endpointStats.getEndpoint().getName() + ".hgrm"));
+        }
+    }
+
+    private static String millis(double value) {
+        return String.format("%.2f", value);
+    }
+}
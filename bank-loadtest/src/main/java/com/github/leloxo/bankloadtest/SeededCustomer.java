@@ -0,0 +1,39 @@
+package com.github.leloxo.bankloadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SeededCustomer {
+    private final long id;
+    private final String email;
+    private final List<String> accountNumbers = new ArrayList<>();
+    private volatile String token;
+
+    public SeededCustomer(long id, String email) {
+        this.id = id;
+        this.email = email;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<String> getAccountNumbers() {
+        return accountNumbers;
+    }
+
+    /**
+     * @return The session token of the latest login of this customer.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
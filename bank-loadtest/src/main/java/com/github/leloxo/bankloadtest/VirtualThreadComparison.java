@@ -0,0 +1,129 @@
+package com.github.leloxo.bankloadtest;
+
+import com.github.leloxo.bankserver.BankServerApplication;
+import com.github.leloxo.bankserver.repository.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compares the number of concurrent requests the server sustains with Tomcat's platform-thread pool and with virtual
+ * threads. Requests go to an extra endpoint that blocks for {@value #BLOCKING_MS} ms, standing in for a MySQL round
+ * trip. Concurrency is doubled until the p99 latency exceeds twice the p99 latency at a concurrency of
+ * {@value #BASELINE_CONCURRENCY}. Arguments are passed on to the server.
+ * <p>
+ * Requires Java 21 or newer, since older versions ignore {@code spring.threads.virtual.enabled}.
+ */
+public class VirtualThreadComparison {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadComparison.class);
+
+    private static final long BLOCKING_MS = 100;
+    private static final int BASELINE_CONCURRENCY = 10;
+    private static final int MIN_CONCURRENCY = 100;
+    private static final int MAX_CONCURRENCY = 3200;
+    private static final int ROUNDS = 5;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String[] serverArgs;
+
+    private VirtualThreadComparison(String[] serverArgs) {
+        this.serverArgs = serverArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require Java 21 or newer, but this is Java " + Runtime.version() + ".");
+        }
+        // The server builds its caches from the database on startup.
+        new EmbeddedDatabase(DatabaseConnection.loadProperties()).createSchema();
+
+        VirtualThreadComparison comparison = new VirtualThreadComparison(args);
+        int platformMax = comparison.maxSustainableConcurrency(false);
+        int virtualMax = comparison.maxSustainableConcurrency(true);
+        logger.info("Max sustainable concurrent requests with {} ms blocking: platform threads={}, virtual threads={}",
+                BLOCKING_MS, platformMax, virtualMax);
+    }
+
+    private int maxSustainableConcurrency(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankServerApplication.class)
+                .initializers((GenericApplicationContext applicationContext) ->
+                        applicationContext.registerBean("blockingRoute", RouterFunction.class, VirtualThreadComparison::blockingRoute))
+                .properties("server.port=0", "logging.level.com.github.leloxo.bankserver=WARN",
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run(serverArgs)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/benchmark/blocking");
+            measure(uri, MIN_CONCURRENCY);
+            long maxP99Ms = 2 * Math.max(BLOCKING_MS, measure(uri, BASELINE_CONCURRENCY).p99Ms);
+
+            int sustained = 0;
+            for (int concurrency = MIN_CONCURRENCY; concurrency <= MAX_CONCURRENCY; concurrency *= 2) {
+                Result result = measure(uri, concurrency);
+                logger.info("{} threads, {} concurrent requests: p99={} ms, {} requests/s", virtualThreads ? "Virtual" : "Platform",
+                        concurrency, result.p99Ms, String.format("%.0f", result.throughput));
+                if (result.p99Ms > maxP99Ms) {
+                    break;
+                }
+                sustained = concurrency;
+            }
+            return sustained;
+        }
+    }
+
+    private Result measure(URI uri, int concurrency) {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long[] latencies = new long[concurrency * ROUNDS];
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                long sent = System.nanoTime();
+                futures.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> {
+                            if (response.statusCode() != 200) {
+                                throw new IllegalStateException("Unexpected status " + response.statusCode() + " from " + uri);
+                            }
+                            return System.nanoTime() - sent;
+                        }));
+            }
+            for (int i = 0; i < concurrency; i++) {
+                latencies[round * concurrency + i] = futures.get(i).join();
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        long p99Ms = latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000;
+        return new Result(p99Ms, latencies.length / elapsedSeconds);
+    }
+
+    private static RouterFunction<ServerResponse> blockingRoute() {
+        return RouterFunctions.route()
+                .GET("/benchmark/blocking", request -> {
+                    Thread.sleep(BLOCKING_MS);
+                    return ServerResponse.ok().body("ok");
+                })
+                .build();
+    }
+
+    private record Result(long p99Ms, double throughput) {
+    }
+}
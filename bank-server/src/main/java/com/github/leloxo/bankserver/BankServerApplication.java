@@ -2,8 +2,10 @@ package com.github.leloxo.bankserver;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The R2DBC connection pool of the reactive profile is built from config.properties, like the JDBC one.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class BankServerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,83 @@
+package com.github.leloxo.bankserver.config;
+
+import com.github.leloxo.bankserver.service.cache.CustomerCache;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import com.github.leloxo.bankserver.service.transfer.TransferMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics, published at {@code /actuator/prometheus}. Besides Spring Boot's {@code http.server.requests}
+ * timer per endpoint there are:
+ * <ul>
+ *     <li>{@code bank.repository} - the calls of each repository method, tagged with class, method and exception</li>
+ *     <li>{@code bank.password.hashing} - BCrypt hashes and checks, tagged with the operation</li>
+ *     <li>{@code bank.password.hashing.pool} - the hashes and checks run by the {@link PasswordHashingExecutor}, with
+ *     its queued and active tasks and the rejected ones</li>
+ *     <li>{@code bank.customer.cache} - the lookups of the {@link CustomerCache}, tagged with hit or miss, its evictions
+ *     and its size</li>
+ *     <li>{@code bank.transfers} - money transfers, tagged with their outcome</li>
+ * </ul>
+ * The timers publish percentile histograms, except for {@code bank.password.hashing.pool}, which publishes the totals
+ * the executor also publishes over JMX. The defaults in {@code metrics.properties} can be overridden in
+ * {@code application.properties}.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public TransferMetrics transferMetrics(MeterRegistry meterRegistry) {
+        return new TransferMetrics(meterRegistry);
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public MeterBinder customerCacheMetrics(CustomerCache customerCache) {
+        return meterRegistry -> {
+            FunctionCounter.builder("bank.customer.cache.gets", customerCache, CustomerCache::getHitCount)
+                    .description("Customer cache lookups")
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bank.customer.cache.gets", customerCache, CustomerCache::getMissCount)
+                    .description("Customer cache lookups")
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bank.customer.cache.evictions", customerCache, CustomerCache::getEvictionCount)
+                    .description("Customers evicted from the cache")
+                    .register(meterRegistry);
+            Gauge.builder("bank.customer.cache.size", customerCache, CustomerCache::getSize)
+                    .description("Customers in the cache")
+                    .register(meterRegistry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingExecutorMetrics(PasswordHashingExecutor passwordHashingExecutor) {
+        return meterRegistry -> {
+            FunctionTimer.builder("bank.password.hashing.pool", passwordHashingExecutor,
+                            PasswordHashingExecutor::getCompletedCount,
+                            PasswordHashingExecutor::getTotalLatencyNanos, TimeUnit.NANOSECONDS)
+                    .description("Password hashes and checks run on the hashing pool")
+                    .register(meterRegistry);
+            Gauge.builder("bank.password.hashing.pool.queued", passwordHashingExecutor, PasswordHashingExecutor::getQueueDepth)
+                    .description("Password hashes and checks waiting for a thread")
+                    .register(meterRegistry);
+            Gauge.builder("bank.password.hashing.pool.active", passwordHashingExecutor, PasswordHashingExecutor::getActiveCount)
+                    .description("Password hashes and checks running")
+                    .register(meterRegistry);
+            FunctionCounter.builder("bank.password.hashing.pool.rejected", passwordHashingExecutor, PasswordHashingExecutor::getRejectedCount)
+                    .description("Password hashes and checks rejected because the hashing pool was saturated")
+                    .register(meterRegistry);
+        };
+    }
+}
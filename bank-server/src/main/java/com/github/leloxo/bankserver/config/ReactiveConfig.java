@@ -0,0 +1,73 @@
+package com.github.leloxo.bankserver.config;
+
+import com.github.leloxo.bankserver.controller.ReactiveAdminTokenFilter;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.repository.DatabaseConnection;
+import com.github.leloxo.bankserver.repository.ReactiveBankAccountRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.io.IOException;
+
+/**
+ * Beans of the reactive server profile ({@code --spring.profiles.active=reactive}), which serves the API with
+ * WebFlux on Netty and talks to the database through R2DBC instead of JDBC.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Netty rather than Tomcat, which would otherwise be picked because the servlet stack is on the classpath too.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Requires {@code bank.admin.token} for the listings of all customers and bank accounts.
+     */
+    @Bean
+    public ReactiveAdminTokenFilter adminTokenFilter(@Value("${bank.admin.token:}") String token) {
+        return new ReactiveAdminTokenFilter(token, "/customers/all", "/accounts/all");
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() throws IOException {
+        return DatabaseConnection.createConnectionPool(DatabaseConnection.loadProperties());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public ReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    /**
+     * Leasing a block waits for the database; callers run the generator on a scheduler that may block.
+     */
+    @Bean
+    public AccountNumberGenerator accountNumberGenerator(ReactiveBankAccountRepository bankAccountRepository,
+                                                        @Value("${bank.account-number.block-size:100}") int blockSize) {
+        return new AccountNumberGenerator(size -> bankAccountRepository.leaseAccountNumberBlock(size).block(), blockSize);
+    }
+}
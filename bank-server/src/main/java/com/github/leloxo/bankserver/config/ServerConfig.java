@@ -1,13 +1,172 @@
 package com.github.leloxo.bankserver.config;
 
+import com.github.leloxo.bankserver.controller.AdminTokenFilter;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.model.util.BloomFilter;
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
 import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import com.github.leloxo.bankserver.repository.DatabaseConnection;
+import com.github.leloxo.bankserver.repository.monitoring.QueryTimingDataSource;
+import com.github.leloxo.bankserver.repository.monitoring.SlowQueryLog;
+import com.github.leloxo.bankserver.service.cache.CustomerCache;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import com.github.leloxo.bankserver.service.session.LoginThrottle;
+import com.github.leloxo.bankserver.service.session.SessionTokenService;
+import com.github.leloxo.bankserver.service.transfer.JdbcTransferEngine;
+import com.github.leloxo.bankserver.service.transfer.LedgerTransferEngine;
+import com.github.leloxo.bankserver.service.transfer.TransferEngine;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
 
 @Configuration
 public class ServerConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ServerConfig.class);
+
     @Bean
     public ValidationManager validationManager() {
         return new ValidationManager();
     }
+
+    /**
+     * The connection pool, wrapped to time every statement for the {@link SlowQueryLog} unless
+     * {@code bank.slow-query.enabled} is {@code false}.
+     */
+    @Bean(destroyMethod = "close")
+    @Profile("!reactive")
+    public DataSource dataSource(SlowQueryLog slowQueryLog,
+                                 @Value("${bank.slow-query.enabled:true}") boolean slowQueryEnabled) throws IOException {
+        HikariDataSource dataSource = DatabaseConnection.createDataSource(DatabaseConnection.loadProperties());
+        return slowQueryEnabled ? new QueryTimingDataSource(dataSource, slowQueryLog) : dataSource;
+    }
+
+    /**
+     * The most recent statements slower than the threshold, listed at {@code /actuator/slowqueries}.
+     */
+    @Bean
+    @Profile("!reactive")
+    public SlowQueryLog slowQueryLog(@Value("${bank.slow-query.threshold-ms:100}") long thresholdMs,
+                                     @Value("${bank.slow-query.capacity:256}") int capacity) {
+        return new SlowQueryLog(Duration.ofMillis(thresholdMs), capacity);
+    }
+
+    /**
+     * Requires {@code bank.admin.token} for {@code /actuator/slowqueries}, which lists bound parameters and can clear the log,
+     * and for the listings of all customers and bank accounts.
+     */
+    @Bean
+    @Profile("!reactive")
+    public FilterRegistrationBean<AdminTokenFilter> adminTokenFilter(@Value("${bank.admin.token:}") String token) {
+        FilterRegistrationBean<AdminTokenFilter> registration = new FilterRegistrationBean<>(new AdminTokenFilter(token));
+        registration.addUrlPatterns("/actuator/slowqueries", "/actuator/slowqueries/*", "/customers/all", "/accounts/all");
+        return registration;
+    }
+
+    @Bean(destroyMethod = "close")
+    @Profile("!reactive")
+    public CustomerCache customerCache(@Value("${bank.customer-cache.max-size:10000}") long maxSize,
+                                       @Value("${bank.customer-cache.ttl-seconds:60}") long ttlSeconds) {
+        CustomerCache customerCache = new CustomerCache(maxSize, Duration.ofSeconds(ttlSeconds));
+        customerCache.registerMBean();
+        return customerCache;
+    }
+
+    /**
+     * Bloom filter of all allocated account numbers, built from a scan of the bank accounts at startup and kept
+     * up to date by {@link com.github.leloxo.bankserver.service.BankAccountService#createBankAccount(String)}.
+     */
+    @Bean
+    @Profile("!reactive")
+    public BloomFilter accountNumberFilter(BankAccountRepository bankAccountRepository,
+                                           @Value("${bank.account-number-filter.expected-accounts:1000000}") long expectedAccounts,
+                                           @Value("${bank.account-number-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        BloomFilter accountNumberFilter = new BloomFilter(expectedAccounts, falsePositiveProbability);
+        long accounts = bankAccountRepository.streamAccountNumbers(accountNumberFilter::put);
+        logger.info("Built account number filter of {} bits with {} hash functions from {} bank accounts.",
+                accountNumberFilter.getBitCount(), accountNumberFilter.getHashCount(), accounts);
+        if (accounts > expectedAccounts) {
+            logger.warn("There are more bank accounts ({}) than the account number filter was sized for ({}).", accounts, expectedAccounts);
+        }
+        return accountNumberFilter;
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public AccountNumberGenerator accountNumberGenerator(BankAccountRepository bankAccountRepository,
+                                                        @Value("${bank.account-number.block-size:100}") int blockSize) {
+        return new AccountNumberGenerator(bankAccountRepository::leaseAccountNumberBlock, blockSize);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PasswordHashingExecutor passwordHashingExecutor(@Value("${bank.password-hashing.threads:0}") int threads,
+                                                           @Value("${bank.password-hashing.queue-capacity:0}") int queueCapacity,
+                                                           @Value("${bank.password-hashing.cost:0}") int cost,
+                                                           @Value("${bank.password-hashing.target-latency-ms:250}") long targetLatencyMs,
+                                                           @Value("${bank.password-hashing.min-cost:10}") int minCost,
+                                                           @Value("${bank.password-hashing.max-cost:16}") int maxCost) {
+        // A fixed cost skips the calibration, e.g. to keep all instances of a cluster on the same cost.
+        PasswordHasher.setCost(cost > 0 ? cost : PasswordHasher.calibrate(Duration.ofMillis(targetLatencyMs), minCost, maxCost));
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(poolSize, queueCapacity > 0 ? queueCapacity : 2 * poolSize);
+        passwordHashingExecutor.registerMBean();
+        return passwordHashingExecutor;
+    }
+
+    @Bean
+    public SessionTokenService sessionTokenService(@Value("${bank.session.secret:}") String secret,
+                                                   @Value("${bank.session.ttl-minutes:30}") long ttlMinutes) {
+        byte[] key;
+        if (secret.isEmpty()) {
+            logger.warn("No bank.session.secret configured, using a random key. Sessions will not survive a restart.");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        return new SessionTokenService(key, Duration.ofMinutes(ttlMinutes), Clock.systemUTC());
+    }
+
+    @Bean
+    public LoginThrottle loginThrottle(@Value("${bank.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                                       @Value("${bank.login-throttle.max-failures-per-address:50}") int maxFailuresPerAddress,
+                                       @Value("${bank.login-throttle.window-minutes:15}") long windowMinutes) {
+        return new LoginThrottle(maxFailuresPerEmail, maxFailuresPerAddress, Duration.ofMinutes(windowMinutes), Clock.systemUTC());
+    }
+
+    @Bean
+    @Profile("!reactive")
+    @ConditionalOnProperty(name = "bank.transfer.engine", havingValue = "jdbc", matchIfMissing = true)
+    public TransferEngine jdbcTransferEngine(BankAccountRepository bankAccountRepository) {
+        return new JdbcTransferEngine(bankAccountRepository);
+    }
+
+    @Bean(destroyMethod = "close")
+    @Profile("!reactive")
+    @ConditionalOnProperty(name = "bank.transfer.engine", havingValue = "ledger")
+    public TransferEngine ledgerTransferEngine(BankAccountRepository bankAccountRepository,
+                                               @Value("${bank.ledger.wal-path:ledger.wal}") String walPath,
+                                               @Value("${bank.ledger.stripes:64}") int stripes,
+                                               @Value("${bank.ledger.fsync-interval-ms:10}") long fsyncIntervalMs,
+                                               @Value("${bank.ledger.max-pending:100000}") int maxPending,
+                                               @Value("${bank.ledger.segment-size-mb:16}") long segmentSizeMb) throws IOException {
+        LedgerTransferEngine ledgerTransferEngine = new LedgerTransferEngine(bankAccountRepository, Path.of(walPath), stripes, fsyncIntervalMs,
+                maxPending, segmentSizeMb * 1024 * 1024);
+        ledgerTransferEngine.start();
+        return ledgerTransferEngine;
+    }
 }
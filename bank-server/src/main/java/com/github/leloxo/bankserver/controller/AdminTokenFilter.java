@@ -0,0 +1,54 @@
+package com.github.leloxo.bankserver.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards admin endpoints, such as {@code /actuator/slowqueries} and the listings of all customers and bank
+ * accounts, with a static token that must be sent as
+ * {@code Authorization: Bearer <token>}. Requests without the token are answered with 401 Unauthorized. If no token is
+ * configured, the endpoints are answered with 404 Not Found, so they are never open by default.
+ */
+public class AdminTokenFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] token;
+
+    /**
+     * @param token The admin token, or an empty string to disable the guarded endpoints.
+     */
+    public AdminTokenFilter(String token) {
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (token == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!isAuthorized(token, request.getHeader(HttpHeaders.AUTHORIZATION))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * @return Whether the {@code Authorization} header carries the token, compared in constant time.
+     */
+    static boolean isAuthorized(byte[] token, String authorization) {
+        return authorization != null && authorization.startsWith(BEARER_PREFIX)
+                && MessageDigest.isEqual(token, authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+    }
+}
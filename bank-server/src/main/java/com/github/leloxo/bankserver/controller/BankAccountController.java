@@ -1,5 +1,6 @@
 package com.github.leloxo.bankserver.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
 import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
 import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
@@ -8,47 +9,126 @@ import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataExcept
 import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
 import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
 import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.model.bankaccount.TransferDto;
 import com.github.leloxo.bankserver.model.util.DataConverter;
 import com.github.leloxo.bankserver.service.BankAccountService;
+import com.github.leloxo.bankserver.service.session.Session;
+import com.github.leloxo.bankserver.service.session.SessionTokenService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/accounts")
 public class BankAccountController {
+    /**
+     * Separates the transfer date from the ID in the cursor of the transfer history, e.g. {@code 2024-09-01T12:30:05_42}.
+     */
+    private static final String TRANSFER_CURSOR_SEPARATOR = "_";
+
     private final BankAccountService bankAccountService;
+    private final ObjectMapper objectMapper;
+    private final SessionTokenService sessionTokenService;
 
-    public BankAccountController(BankAccountService bankAccountService) {
+    public BankAccountController(BankAccountService bankAccountService, ObjectMapper objectMapper, SessionTokenService sessionTokenService) {
         this.bankAccountService = bankAccountService;
+        this.objectMapper = objectMapper;
+        this.sessionTokenService = sessionTokenService;
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BankAccountDto>> getBankAccounts(@RequestParam(defaultValue = "0") long after,
+                                                                @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        if (!Pagination.isValidLimit(limit)) {
+            throw new InvalidBankAccountDataException("Limit must be between 1 and " + Pagination.MAX_LIMIT + ".");
+        }
+        List<BankAccountDto> bankAccounts = bankAccountService.getBankAccounts(after, limit);
+        return Pagination.page(bankAccounts, limit, BankAccountDto::getId);
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<List<BankAccountDto>> getBankAccounts() throws CustomerNotFoundException {
-        List<BankAccountDto> bankAccounts = bankAccountService.getBankAccounts();
-        return ResponseEntity.ok(bankAccounts);
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBankAccounts() {
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                bankAccountService.streamBankAccounts(writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/{accountNumber}/transfers")
+    public ResponseEntity<List<TransferDto>> getTransfers(@PathVariable String accountNumber,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit,
+                                                          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws BankAccountNotFoundException {
+        Session session = sessionTokenService.authenticate(authorization);
+        if (!Pagination.isValidLimit(limit)) {
+            throw new InvalidBankAccountDataException("Limit must be between 1 and " + Pagination.MAX_LIMIT + ".");
+        }
+        LocalDateTime beforeDate = null;
+        long beforeId = 0;
+        if (cursor != null) {
+            int separator = cursor.lastIndexOf(TRANSFER_CURSOR_SEPARATOR);
+            try {
+                beforeDate = LocalDateTime.parse(cursor.substring(0, separator));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new InvalidBankAccountDataException("Invalid transfer history cursor: " + cursor);
+            }
+        }
+        bankAccountService.checkAccountOwner(session.getCustomerId(), accountNumber);
+        List<TransferDto> transfers = bankAccountService.getTransfers(accountNumber, from, to, beforeDate, beforeId, limit);
+        return Pagination.page(transfers, limit, transfer -> transfer.getTransferDate() + TRANSFER_CURSOR_SEPARATOR + transfer.getId());
     }
 
     @GetMapping("/get/{email}")
-    public ResponseEntity<List<BankAccountDto>> getBankAccountsByEmail(@PathVariable String email) throws CustomerNotFoundException {
+    public ResponseEntity<List<BankAccountDto>> getBankAccountsByEmail(@PathVariable String email,
+                                                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws CustomerNotFoundException {
+        sessionTokenService.authorize(authorization, email);
         List<BankAccountDto> bankAccounts = bankAccountService.getBankAccountsByEmail(email);
-        return ResponseEntity.ok(bankAccounts);
+        return ResponseEntity.ok().eTag(ETags.of(bankAccounts)).body(bankAccounts);
     }
 
     @PostMapping("/create/{email}")
-    public ResponseEntity<BankAccountDto> createBankAccount(@PathVariable String email) throws CustomerNotFoundException {
+    public ResponseEntity<BankAccountDto> createBankAccount(@PathVariable String email,
+                                                            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws CustomerNotFoundException {
+        sessionTokenService.authorize(authorization, email);
         BankAccount bankAccount = bankAccountService.createBankAccount(email);
         return ResponseEntity.status(HttpStatus.CREATED).body(DataConverter.toBankAccountDto(bankAccount));
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<String> transferMoney(@RequestBody MoneyTransferRequestPayload transferRequest) throws BankAccountNotFoundException, InsufficientBalanceException, CustomerNotFoundException {
+    public ResponseEntity<String> transferMoney(@RequestBody MoneyTransferRequestPayload transferRequest,
+                                                @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws BankAccountNotFoundException, InsufficientBalanceException {
+        Session session = sessionTokenService.authenticate(authorization);
         if (transferRequest == null) {
             throw new InvalidBankAccountDataException("Money transfer request data cannot be null.");
         }
-        bankAccountService.transferMoney(transferRequest.getSenderAccountNumber(), transferRequest.getReceiverAccountNumber(), transferRequest.getAmount());
+        bankAccountService.transferMoney(session.getCustomerId(), transferRequest.getSenderAccountNumber(), transferRequest.getReceiverAccountNumber(), transferRequest.getAmount());
         return ResponseEntity.ok("Money has been successfully transferred.");
     }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<List<MoneyTransferResult>> transferMoneyBatch(@RequestBody List<MoneyTransferRequestPayload> transferRequests,
+                                                                        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Session session = sessionTokenService.authenticate(authorization);
+        if (transferRequests == null) {
+            throw new InvalidBankAccountDataException("Money transfer batch cannot be null.");
+        }
+        List<MoneyTransferResult> results = bankAccountService.transferMoneyBatch(session.getCustomerId(), transferRequests);
+        return ResponseEntity.ok(results);
+    }
 }
@@ -1,43 +1,83 @@
 package com.github.leloxo.bankserver.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
 import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.exception.session.InvalidSessionException;
 import com.github.leloxo.bankserver.model.customer.Customer;
 import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import com.github.leloxo.bankserver.model.customer.DeleteCustomerRequestPayload;
 import com.github.leloxo.bankserver.model.customer.LoginRequestPayload;
+import com.github.leloxo.bankserver.model.customer.LoginResponse;
 import com.github.leloxo.bankserver.model.util.DataConverter;
 import com.github.leloxo.bankserver.service.CustomerService;
+import com.github.leloxo.bankserver.service.session.LoginThrottle;
+import com.github.leloxo.bankserver.service.session.Session;
+import com.github.leloxo.bankserver.service.session.SessionTokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/customers")
 public class CustomerController {
     private static final Logger logger = LoggerFactory.getLogger(CustomerController.class);
+    static final String SESSION_TOKEN_HEADER = "X-Session-Token";
+
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final SessionTokenService sessionTokenService;
+    private final LoginThrottle loginThrottle;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ObjectMapper objectMapper, SessionTokenService sessionTokenService,
+                              LoginThrottle loginThrottle) {
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.sessionTokenService = sessionTokenService;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<CustomerDto>> getCustomers(@RequestParam(defaultValue = "0") long after,
+                                                          @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        if (!Pagination.isValidLimit(limit)) {
+            throw new InvalidCustomerDataException("Limit must be between 1 and " + Pagination.MAX_LIMIT + ".");
+        }
+        List<CustomerDto> customers = customerService.getCustomers(after, limit);
+        return Pagination.page(customers, limit, CustomerDto::getId);
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<List<CustomerDto>> getCustomers() {
-        List<CustomerDto> customers = customerService.getCustomers();
-        return ResponseEntity.status(HttpStatus.OK).body(customers);
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers() {
+        StreamingResponseBody body = outputStream -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+                customerService.streamCustomers(writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("get/{email}")
-    public ResponseEntity<CustomerDto> getCustomerByEmail(@PathVariable String email) throws CustomerNotFoundException {
+    public ResponseEntity<CustomerDto> getCustomerByEmail(@PathVariable String email,
+                                                          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws CustomerNotFoundException {
         if (email == null || email.isEmpty()) {
             throw new InvalidCustomerDataException("Email cannot be null or empty.");
         }
-        Customer customer = customerService.getCustomerByEmail(email);
-        return ResponseEntity.ok(DataConverter.toCustomerDto(customer));
+        sessionTokenService.authorize(authorization, email);
+        CustomerDto customerDto = DataConverter.toCustomerDto(customerService.getCustomerByEmail(email));
+        return ResponseEntity.ok().eTag(ETags.of(customerDto)).body(customerDto);
     }
 
     @PostMapping("/register")
@@ -55,36 +95,91 @@ public class CustomerController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> loginAsCustomer(@RequestBody LoginRequestPayload loginRequest) throws CustomerNotFoundException {
+    public ResponseEntity<LoginResponse> loginAsCustomer(@RequestBody LoginRequestPayload loginRequest,
+                                                         HttpServletRequest request) throws CustomerNotFoundException {
         if (loginRequest == null) {
             throw new InvalidCustomerDataException("Login request data cannot be null.");
         }
-        boolean isAuthenticated = customerService.authenticateCustomer(loginRequest.getEmail(), loginRequest.getPassword());
-        if (isAuthenticated) {
-            logger.info("Login for customer with email {} successful.", loginRequest.getEmail());
-            return ResponseEntity.ok("Login successful");
-        } else {
+        String address = request.getRemoteAddr();
+        // Rejects brute-force attempts before they cost a password check. The attempt counts as failed unless it succeeds.
+        LoginThrottle.Attempt attempt = loginThrottle.reserve(loginRequest.getEmail(), address);
+
+        Customer customer;
+        try {
+            customer = customerService.authenticateCustomer(loginRequest.getEmail(), loginRequest.getPassword()).orElse(null);
+        } catch (CustomerNotFoundException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Invalid input or a busy server; no password was checked.
+            loginThrottle.release(attempt);
+            throw e;
+        }
+        if (customer == null) {
             logger.info("Login for customer with email {} failed.", loginRequest.getEmail());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password.");
+            throw new InvalidSessionException("Invalid password.");
         }
+        loginThrottle.recordSuccess(attempt);
+        logger.info("Login for customer with email {} successful.", loginRequest.getEmail());
+        Session session = sessionTokenService.issue(customer);
+        return ResponseEntity.ok(new LoginResponse(session.getToken(), session.getExpiresAt(), DataConverter.toCustomerDto(customer)));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logoutCustomer(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Session session = sessionTokenService.authenticate(authorization);
+        sessionTokenService.revoke(session);
+        logger.info("Logout for customer with email {} successful.", session.getEmail());
+        return ResponseEntity.ok("Logout successful");
     }
 
     @PutMapping("/update/{email}")
     public ResponseEntity<CustomerDto> updateCustomer(@PathVariable String email,
-                                                      @RequestBody CustomerDto updatedCustomerDto) throws CustomerNotFoundException {
+                                                      @RequestBody CustomerDto updatedCustomerDto,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) throws CustomerNotFoundException {
         if (updatedCustomerDto == null) {
             throw new InvalidCustomerDataException("Customer data cannot be null.");
         }
+        Session session = sessionTokenService.authorize(authorization, email);
         Customer updatedCustomer = customerService.updateCustomer(email, updatedCustomerDto);
-        return ResponseEntity.status(HttpStatus.OK).body(DataConverter.toCustomerDto(updatedCustomer));
+
+        // The session is bound to the email, so it is replaced by one for the updated customer.
+        sessionTokenService.revoke(session);
+        Session updatedSession = sessionTokenService.issue(updatedCustomer);
+        return ResponseEntity.status(HttpStatus.OK)
+                .header(SESSION_TOKEN_HEADER, updatedSession.getToken())
+                .body(DataConverter.toCustomerDto(updatedCustomer));
     }
 
     @DeleteMapping("/delete/{email}")
-    public ResponseEntity<String> deleteCustomer(@PathVariable String email) throws CustomerNotFoundException {
+    public ResponseEntity<String> deleteCustomer(@PathVariable String email,
+                                                 @RequestBody(required = false) DeleteCustomerRequestPayload deleteRequest,
+                                                 @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                 HttpServletRequest request) throws CustomerNotFoundException {
         if (email == null || email.isEmpty()) {
             throw new InvalidCustomerDataException("Email cannot be null or empty.");
         }
+        if (deleteRequest == null || deleteRequest.getPassword() == null || deleteRequest.getPassword().isEmpty()) {
+            throw new InvalidCustomerDataException("Password is required to delete the customer.");
+        }
+        Session session = sessionTokenService.authorize(authorization, email);
+        // A session token alone does not allow the deletion. Wrong passwords count as failed logins.
+        LoginThrottle.Attempt attempt = loginThrottle.reserve(email, request.getRemoteAddr());
+        Optional<Customer> customer;
+        try {
+            customer = customerService.authenticateCustomer(email, deleteRequest.getPassword());
+        } catch (CustomerNotFoundException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            loginThrottle.release(attempt);
+            throw e;
+        }
+        if (customer.isEmpty()) {
+            logger.info("Deletion of customer with email {} rejected: invalid password.", email);
+            throw new ForbiddenOperationException("Invalid password.");
+        }
+        loginThrottle.recordSuccess(attempt);
         customerService.deleteCustomer(email);
+        sessionTokenService.revoke(session);
         return ResponseEntity.ok("Successfully deleted customer with email: " + email);
     }
 
@@ -0,0 +1,78 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Strong entity tags for the read endpoints of a customer and their bank accounts.
+ * <p>
+ * A tag is a 64-bit hash over every field that is written to the JSON body, taken from the objects the endpoint has
+ * already read. It therefore changes with the response, whichever write path changed the rows, and costs a few
+ * multiplications per field instead of serializing the body. Set on a {@link org.springframework.http.ResponseEntity},
+ * it lets Spring answer a matching {@code If-None-Match} with 304 Not Modified without writing the body.
+ */
+final class ETags {
+    private static final long SEED = 0xCBF29CE484222325L;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private ETags() {}
+
+    static String of(CustomerDto customer) {
+        return format(hash(SEED, customer));
+    }
+
+    static String of(List<BankAccountDto> bankAccounts) {
+        long hash = mix(SEED, bankAccounts.size());
+        for (BankAccountDto bankAccount : bankAccounts) {
+            hash = mix(hash, bankAccount.getId());
+            hash = mix(hash, bankAccount.getAccountNumber());
+            hash = mix(hash, bankAccount.getBalance().getCents());
+            hash = mix(hash, bankAccount.getCreatedAt());
+            hash = hash(hash, bankAccount.getCustomerDto());
+        }
+        return format(hash);
+    }
+
+    private static long hash(long hash, CustomerDto customer) {
+        hash = mix(hash, customer.getId());
+        hash = mix(hash, customer.getFirstName());
+        hash = mix(hash, customer.getLastName());
+        hash = mix(hash, customer.getEmail());
+        return mix(hash, customer.getCreatedAt());
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * MULTIPLIER;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static long mix(long hash, Long value) {
+        return value == null ? mix(hash, -1L) : mix(hash, value.longValue());
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        hash = mix(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = mix(hash, value.charAt(i));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, LocalDateTime value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        hash = mix(hash, value.toLocalDate().toEpochDay());
+        return mix(hash, value.toLocalTime().toNanoOfDay());
+    }
+
+    private static String format(long hash) {
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+}
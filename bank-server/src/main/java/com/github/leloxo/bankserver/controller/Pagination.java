@@ -0,0 +1,34 @@
+package com.github.leloxo.bankserver.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers shared by the listing endpoints.
+ * <p>
+ * A page is requested with {@code ?after=<id>&limit=<n>}. If the page is full, the ID of its last
+ * element is returned in the {@value #NEXT_CURSOR_HEADER} header and can be passed as {@code after}
+ * to fetch the next page. Listings that are not ordered by ID use their own cursor format.
+ */
+final class Pagination {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String DEFAULT_LIMIT = "100";
+    static final int MAX_LIMIT = 1000;
+
+    private Pagination() {}
+
+    static boolean isValidLimit(int limit) {
+        return limit > 0 && limit <= MAX_LIMIT;
+    }
+
+    static <T> ResponseEntity<List<T>> page(List<T> elements, int limit, Function<T, ?> cursorExtractor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (elements.size() == limit) {
+            Object nextCursor = cursorExtractor.apply(elements.get(elements.size() - 1));
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor));
+        }
+        return response.body(elements);
+    }
+}
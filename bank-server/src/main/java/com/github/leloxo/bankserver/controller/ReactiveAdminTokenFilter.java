@@ -0,0 +1,47 @@
+package com.github.leloxo.bankserver.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * WebFlux version of {@link AdminTokenFilter} for the reactive server profile, applied to a fixed set of paths.
+ */
+public class ReactiveAdminTokenFilter implements WebFilter {
+    private final byte[] token;
+    private final Set<String> paths;
+
+    /**
+     * @param token The admin token, or an empty string to disable the guarded endpoints.
+     * @param paths The exact paths of the guarded endpoints.
+     */
+    public ReactiveAdminTokenFilter(String token, String... paths) {
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+        this.paths = Set.of(paths);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!paths.contains(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        if (token == null) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return response.setComplete();
+        }
+        if (!AdminTokenFilter.isAuthorized(token, exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))) {
+            response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return response.setComplete();
+        }
+        return chain.filter(exchange);
+    }
+}
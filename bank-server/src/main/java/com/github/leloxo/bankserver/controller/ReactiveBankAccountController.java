@@ -0,0 +1,80 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.util.DataConverter;
+import com.github.leloxo.bankserver.service.ReactiveBankAccountService;
+import com.github.leloxo.bankserver.service.session.Session;
+import com.github.leloxo.bankserver.service.session.SessionTokenService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux version of {@link BankAccountController} for the reactive server profile, with the same paths and responses.
+ * The transfer history and batch transfers are only served by the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/accounts")
+public class ReactiveBankAccountController {
+    private final ReactiveBankAccountService bankAccountService;
+    private final SessionTokenService sessionTokenService;
+
+    public ReactiveBankAccountController(ReactiveBankAccountService bankAccountService, SessionTokenService sessionTokenService) {
+        this.bankAccountService = bankAccountService;
+        this.sessionTokenService = sessionTokenService;
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<BankAccountDto>>> getBankAccounts(@RequestParam(defaultValue = "0") long after,
+                                                                      @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        if (!Pagination.isValidLimit(limit)) {
+            throw new InvalidBankAccountDataException("Limit must be between 1 and " + Pagination.MAX_LIMIT + ".");
+        }
+        return bankAccountService.getBankAccounts(after, limit)
+                .collectList()
+                .map(bankAccounts -> Pagination.page(bankAccounts, limit, BankAccountDto::getId));
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BankAccountDto> streamBankAccounts() {
+        return bankAccountService.streamBankAccounts();
+    }
+
+    @GetMapping("/get/{email}")
+    public Mono<ResponseEntity<List<BankAccountDto>>> getBankAccountsByEmail(@PathVariable String email,
+                                                                             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        sessionTokenService.authorize(authorization, email);
+        return bankAccountService.getBankAccountsByEmail(email)
+                .collectList()
+                .map(bankAccounts -> ResponseEntity.ok().eTag(ETags.of(bankAccounts)).body(bankAccounts));
+    }
+
+    @PostMapping("/create/{email}")
+    public Mono<ResponseEntity<BankAccountDto>> createBankAccount(@PathVariable String email,
+                                                                  @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        sessionTokenService.authorize(authorization, email);
+        return bankAccountService.createBankAccount(email)
+                .map(bankAccount -> ResponseEntity.status(HttpStatus.CREATED).body(DataConverter.toBankAccountDto(bankAccount)));
+    }
+
+    @PostMapping("/transfer")
+    public Mono<ResponseEntity<String>> transferMoney(@RequestBody MoneyTransferRequestPayload transferRequest,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Session session = sessionTokenService.authenticate(authorization);
+        if (transferRequest == null) {
+            throw new InvalidBankAccountDataException("Money transfer request data cannot be null.");
+        }
+        return bankAccountService.transferMoney(session.getCustomerId(), transferRequest.getSenderAccountNumber(), transferRequest.getReceiverAccountNumber(), transferRequest.getAmount())
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok("Money has been successfully transferred.")));
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
+import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.exception.session.InvalidSessionException;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import com.github.leloxo.bankserver.model.customer.DeleteCustomerRequestPayload;
+import com.github.leloxo.bankserver.model.customer.LoginRequestPayload;
+import com.github.leloxo.bankserver.model.customer.LoginResponse;
+import com.github.leloxo.bankserver.model.util.DataConverter;
+import com.github.leloxo.bankserver.service.ReactiveCustomerService;
+import com.github.leloxo.bankserver.service.session.LoginThrottle;
+import com.github.leloxo.bankserver.service.session.Session;
+import com.github.leloxo.bankserver.service.session.SessionTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * WebFlux version of {@link CustomerController} for the reactive server profile, with the same paths and responses.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/customers")
+public class ReactiveCustomerController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCustomerController.class);
+
+    private final ReactiveCustomerService customerService;
+    private final SessionTokenService sessionTokenService;
+    private final LoginThrottle loginThrottle;
+
+    public ReactiveCustomerController(ReactiveCustomerService customerService, SessionTokenService sessionTokenService, LoginThrottle loginThrottle) {
+        this.customerService = customerService;
+        this.sessionTokenService = sessionTokenService;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<CustomerDto>>> getCustomers(@RequestParam(defaultValue = "0") long after,
+                                                                @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        if (!Pagination.isValidLimit(limit)) {
+            throw new InvalidCustomerDataException("Limit must be between 1 and " + Pagination.MAX_LIMIT + ".");
+        }
+        return customerService.getCustomers(after, limit)
+                .collectList()
+                .map(customers -> Pagination.page(customers, limit, CustomerDto::getId));
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerDto> streamCustomers() {
+        return customerService.streamCustomers();
+    }
+
+    @GetMapping("get/{email}")
+    public Mono<ResponseEntity<CustomerDto>> getCustomerByEmail(@PathVariable String email,
+                                                                @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (email == null || email.isEmpty()) {
+            throw new InvalidCustomerDataException("Email cannot be null or empty.");
+        }
+        sessionTokenService.authorize(authorization, email);
+        return customerService.getCustomerByEmail(email)
+                .map(DataConverter::toCustomerDto)
+                .map(customerDto -> ResponseEntity.ok().eTag(ETags.of(customerDto)).body(customerDto));
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<CustomerDto>> registerCustomer(@RequestBody Customer customer) {
+        if (customer == null) {
+            throw new InvalidCustomerDataException("Customer data cannot be null.");
+        }
+        return customerService.createCustomer(customer.getFirstName(), customer.getLastName(), customer.getEmail(), customer.getPassword())
+                .map(createdCustomer -> ResponseEntity.status(HttpStatus.CREATED).body(DataConverter.toCustomerDto(createdCustomer)));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<LoginResponse>> loginAsCustomer(@RequestBody LoginRequestPayload loginRequest, ServerHttpRequest request) {
+        if (loginRequest == null) {
+            throw new InvalidCustomerDataException("Login request data cannot be null.");
+        }
+        String email = loginRequest.getEmail();
+        String address = remoteAddress(request);
+        // Rejects brute-force attempts before they cost a password check. The attempt counts as failed unless it succeeds.
+        LoginThrottle.Attempt attempt = loginThrottle.reserve(email, address);
+
+        return customerService.authenticateCustomer(email, loginRequest.getPassword())
+                // Invalid input or a busy server; no password was checked.
+                .doOnError(e -> !(e instanceof CustomerNotFoundException), e -> loginThrottle.release(attempt))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.info("Login for customer with email {} failed.", email);
+                    return Mono.error(new InvalidSessionException("Invalid password."));
+                }))
+                .map(customer -> {
+                    loginThrottle.recordSuccess(attempt);
+                    logger.info("Login for customer with email {} successful.", email);
+                    Session session = sessionTokenService.issue(customer);
+                    return ResponseEntity.ok(new LoginResponse(session.getToken(), session.getExpiresAt(), DataConverter.toCustomerDto(customer)));
+                });
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logoutCustomer(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Session session = sessionTokenService.authenticate(authorization);
+        sessionTokenService.revoke(session);
+        logger.info("Logout for customer with email {} successful.", session.getEmail());
+        return ResponseEntity.ok("Logout successful");
+    }
+
+    @PutMapping("/update/{email}")
+    public Mono<ResponseEntity<CustomerDto>> updateCustomer(@PathVariable String email,
+                                                            @RequestBody CustomerDto updatedCustomerDto,
+                                                            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (updatedCustomerDto == null) {
+            throw new InvalidCustomerDataException("Customer data cannot be null.");
+        }
+        Session session = sessionTokenService.authorize(authorization, email);
+        return customerService.updateCustomer(email, updatedCustomerDto)
+                .map(updatedCustomer -> {
+                    // The session is bound to the email, so it is replaced by one for the updated customer.
+                    sessionTokenService.revoke(session);
+                    Session updatedSession = sessionTokenService.issue(updatedCustomer);
+                    return ResponseEntity.status(HttpStatus.OK)
+                            .header(CustomerController.SESSION_TOKEN_HEADER, updatedSession.getToken())
+                            .body(DataConverter.toCustomerDto(updatedCustomer));
+                });
+    }
+
+    @DeleteMapping("/delete/{email}")
+    public Mono<ResponseEntity<String>> deleteCustomer(@PathVariable String email,
+                                                       @RequestBody(required = false) DeleteCustomerRequestPayload deleteRequest,
+                                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                       ServerHttpRequest request) {
+        if (email == null || email.isEmpty()) {
+            throw new InvalidCustomerDataException("Email cannot be null or empty.");
+        }
+        if (deleteRequest == null || deleteRequest.getPassword() == null || deleteRequest.getPassword().isEmpty()) {
+            throw new InvalidCustomerDataException("Password is required to delete the customer.");
+        }
+        Session session = sessionTokenService.authorize(authorization, email);
+        // A session token alone does not allow the deletion. Wrong passwords count as failed logins.
+        LoginThrottle.Attempt attempt = loginThrottle.reserve(email, remoteAddress(request));
+
+        return customerService.authenticateCustomer(email, deleteRequest.getPassword())
+                .doOnError(e -> !(e instanceof CustomerNotFoundException), e -> loginThrottle.release(attempt))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.info("Deletion of customer with email {} rejected: invalid password.", email);
+                    return Mono.error(new ForbiddenOperationException("Invalid password."));
+                }))
+                .flatMap(customer -> {
+                    loginThrottle.recordSuccess(attempt);
+                    return customerService.deleteCustomer(email);
+                })
+                .then(Mono.fromSupplier(() -> {
+                    sessionTokenService.revoke(session);
+                    return ResponseEntity.ok("Successfully deleted customer with email: " + email);
+                }));
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "";
+        }
+        return remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+    }
+}
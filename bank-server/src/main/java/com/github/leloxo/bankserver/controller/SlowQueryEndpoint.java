@@ -0,0 +1,46 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.repository.monitoring.SlowQuery;
+import com.github.leloxo.bankserver.repository.monitoring.SlowQueryLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin endpoint at {@code /actuator/slowqueries} listing the most recent statements recorded by the
+ * {@link SlowQueryLog} or, with {@code ?order=slowest}, the slowest ones since startup. A {@code DELETE} clears the log.
+ * Requests must carry the admin token checked by {@link AdminTokenFilter}.
+ */
+@Component
+@Profile("!reactive")
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries(@Nullable String order) {
+        List<SlowQuery> queries = "slowest".equals(order) ? slowQueryLog.getSlowest() : slowQueryLog.getRecent();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("thresholdMillis", slowQueryLog.getThreshold().toMillis());
+        report.put("capacity", slowQueryLog.getCapacity());
+        report.put("recorded", slowQueryLog.getRecordedCount());
+        report.put("queries", queries);
+        return report;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -7,13 +7,20 @@ import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountData
 import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
 import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
 import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.exception.customer.PasswordHashingBusyException;
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.exception.session.InvalidSessionException;
+import com.github.leloxo.bankserver.exception.session.LoginThrottledException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.sql.SQLTransientConnectionException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
@@ -47,10 +54,14 @@ public class GlobalExceptionHandler {
     /**
      * Handles CustomerRepositoryException.
      * @param ex The exception.
-     * @return A ResponseEntity with an error message and HTTP status INTERNAL_SERVER_ERROR.
+     * @return A ResponseEntity with an error message and HTTP status INTERNAL_SERVER_ERROR,
+     * or SERVICE_UNAVAILABLE if no database connection could be acquired in time.
      */
     @ExceptionHandler(CustomerRepositoryException.class)
     public ResponseEntity<String> handleCustomerRepositoryException(CustomerRepositoryException ex) {
+        if (isConnectionPoolExhausted(ex)) {
+            return connectionPoolExhausted(ex);
+        }
         logger.error("Customer repository error: " + ex.getMessage(), ex);
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -60,10 +71,14 @@ public class GlobalExceptionHandler {
     /**
      * Handles BankAccountRepositoryException.
      * @param ex The exception.
-     * @return A ResponseEntity with an error message and HTTP status INTERNAL_SERVER_ERROR.
+     * @return A ResponseEntity with an error message and HTTP status INTERNAL_SERVER_ERROR,
+     * or SERVICE_UNAVAILABLE if no database connection could be acquired in time.
      */
     @ExceptionHandler(BankAccountRepositoryException.class)
     public ResponseEntity<String> handleBankAccountRepositoryException(BankAccountRepositoryException ex) {
+        if (isConnectionPoolExhausted(ex)) {
+            return connectionPoolExhausted(ex);
+        }
         logger.error("Bank Account repository error: " + ex.getMessage(), ex);
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -109,6 +124,60 @@ public class GlobalExceptionHandler {
                 .body(ex.getMessage());
     }
 
+    /**
+     * Handles PasswordHashingBusyException.
+     * @param ex The exception.
+     * @return A ResponseEntity with an error message and HTTP status TOO_MANY_REQUESTS.
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusyException(PasswordHashingBusyException ex) {
+        logger.warn("Password hashing rejected: " + ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles InvalidSessionException.
+     * @param ex The exception.
+     * @return A ResponseEntity with an error message and HTTP status UNAUTHORIZED.
+     */
+    @ExceptionHandler(InvalidSessionException.class)
+    public ResponseEntity<String> handleInvalidSessionException(InvalidSessionException ex) {
+        logger.warn("Invalid session: " + ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles LoginThrottledException.
+     * @param ex The exception.
+     * @return A ResponseEntity with an error message and HTTP status TOO_MANY_REQUESTS.
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<String> handleLoginThrottledException(LoginThrottledException ex) {
+        logger.warn("Login throttled: " + ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles ForbiddenOperationException.
+     * @param ex The exception.
+     * @return A ResponseEntity with an error message and HTTP status FORBIDDEN.
+     */
+    @ExceptionHandler(ForbiddenOperationException.class)
+    public ResponseEntity<String> handleForbiddenOperationException(ForbiddenOperationException ex) {
+        logger.warn("Forbidden operation: " + ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(ex.getMessage());
+    }
+
     /**
      * Handles all other exceptions.
      * @param ex The exception.
@@ -122,4 +191,20 @@ public class GlobalExceptionHandler {
                 .body("An unexpected error occurred.");
     }
 
+    /**
+     * Builds the response for requests that timed out waiting for a pooled database connection.
+     * @param ex The exception.
+     * @return A ResponseEntity with an error message and HTTP status SERVICE_UNAVAILABLE.
+     */
+    private ResponseEntity<String> connectionPoolExhausted(RuntimeException ex) {
+        logger.warn("Database connection pool exhausted: " + ex.getCause().getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("The server is busy, please try again later.");
+    }
+
+    private static boolean isConnectionPoolExhausted(RuntimeException ex) {
+        return ex.getCause() instanceof SQLTransientConnectionException;
+    }
+
 }
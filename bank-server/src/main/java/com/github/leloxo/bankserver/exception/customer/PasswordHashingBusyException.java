@@ -0,0 +1,7 @@
+package com.github.leloxo.bankserver.exception.customer;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.leloxo.bankserver.exception.session;
+
+public class ForbiddenOperationException extends RuntimeException {
+    public ForbiddenOperationException(String message) {
+        super(message);
+    }
+}
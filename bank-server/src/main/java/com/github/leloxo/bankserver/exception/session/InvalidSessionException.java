@@ -0,0 +1,7 @@
+package com.github.leloxo.bankserver.exception.session;
+
+public class InvalidSessionException extends RuntimeException {
+    public InvalidSessionException(String message) {
+        super(message);
+    }
+}
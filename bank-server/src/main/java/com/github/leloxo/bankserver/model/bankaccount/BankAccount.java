@@ -2,31 +2,29 @@ package com.github.leloxo.bankserver.model.bankaccount;
 
 import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
 import com.github.leloxo.bankserver.model.customer.Customer;
-import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class BankAccount {
     private Long id;
     private String accountNumber;
     private Customer customer;
-    private BigDecimal balance;
+    private Money balance;
     private LocalDateTime createdAt;
 
     public BankAccount() {}
 
-    public BankAccount(Customer customer) {
+    public BankAccount(Customer customer, String accountNumber) {
         if (customer == null) {
             throw new InvalidCustomerDataException("Customer cannot be null.");
         }
-        this.accountNumber = AccountNumberGenerator.generateRandomAccountNumber();
+        this.accountNumber = accountNumber;
         this.customer = customer;
-        this.balance = BigDecimal.ZERO;
+        this.balance = Money.ZERO;
         this.createdAt = LocalDateTime.now();
     }
 
-    public BankAccount(Long id, String accountNumber, Customer customer, BigDecimal balance, LocalDateTime createdAt) {
+    public BankAccount(Long id, String accountNumber, Customer customer, Money balance, LocalDateTime createdAt) {
         this.id = id;
         this.accountNumber = accountNumber;
         this.customer = customer;
@@ -58,11 +56,11 @@ public class BankAccount {
         this.customer = customer;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
@@ -2,19 +2,18 @@ package com.github.leloxo.bankserver.model.bankaccount;
 
 import com.github.leloxo.bankserver.model.customer.CustomerDto;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class BankAccountDto {
     private Long id;
     private String accountNumber;
     private CustomerDto customerDto;
-    private BigDecimal balance;
+    private Money balance;
     private LocalDateTime createdAt;
 
     public BankAccountDto() {}
 
-    public BankAccountDto(Long id, String accountNumber, CustomerDto customerDto, BigDecimal balance, LocalDateTime createdAt) {
+    public BankAccountDto(Long id, String accountNumber, CustomerDto customerDto, Money balance, LocalDateTime createdAt) {
         this.id = id;
         this.accountNumber = accountNumber;
         this.customerDto = customerDto;
@@ -46,11 +45,11 @@ public class BankAccountDto {
         this.customerDto = customerDto;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
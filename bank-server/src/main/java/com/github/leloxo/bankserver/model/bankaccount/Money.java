@@ -0,0 +1,210 @@
+package com.github.leloxo.bankserver.model.bankaccount;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money in cents.
+ * <p>
+ * Arithmetic works on a {@code long} and throws an {@link ArithmeticException} on overflow instead of wrapping
+ * around. In JSON an amount is written as a number with two decimal places, as {@link BigDecimal} balances were,
+ * and read from a number or a string with at most two non-zero decimal places. An exponent is accepted within
+ * {@value #MAX_EXPONENT} either way, as larger ones cannot describe an amount that fits and are expensive to expand.
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+public final class Money implements Comparable<Money> {
+    /** Number of decimal places of an amount. */
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    /** Largest absolute exponent accepted when parsing, e.g. {@code 1e20}. */
+    public static final int MAX_EXPONENT = 20;
+
+    private static final int CENTS_PER_UNIT = 100;
+    /** Digits before the decimal point of the largest amount, {@code 92233720368547758.07}. */
+    private static final int MAX_INTEGER_DIGITS = 17;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @throws ArithmeticException If the amount has non-zero digits after the second decimal place or does not fit
+     * into a {@code long} of cents.
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount.signum() == 0) {
+            return ZERO;
+        }
+        // Checked before rescaling, which would otherwise expand a large exponent digit by digit.
+        if (amount.precision() - amount.scale() > MAX_INTEGER_DIGITS) {
+            throw new ArithmeticException("Amount " + amount + " does not fit into a long of cents.");
+        }
+        if (amount.scale() > SCALE) {
+            amount = amount.stripTrailingZeros();
+            if (amount.scale() > SCALE) {
+                throw new ArithmeticException("Amount " + amount + " has more than " + SCALE + " decimal places.");
+            }
+        }
+        return ofCents(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses a decimal number such as {@code -12.5}.
+     *
+     * @throws NumberFormatException If {@code text} is not a decimal number.
+     * @throws ArithmeticException   If the amount has non-zero digits after the second decimal place or does not fit
+     *                               into a {@code long} of cents.
+     */
+    public static Money parse(CharSequence text) {
+        char[] chars = text.toString().toCharArray();
+        return parse(chars, 0, chars.length);
+    }
+
+    /**
+     * Parses a decimal number from {@code length} characters of {@code chars} starting at {@code offset}, without
+     * creating a {@link BigDecimal} unless it has an exponent.
+     *
+     * @throws NumberFormatException If the characters are not a decimal number.
+     * @throws ArithmeticException   If the amount has non-zero digits after the second decimal place once the exponent
+     *                               is applied, its exponent is beyond {@value #MAX_EXPONENT} or it does not fit into a
+     *                               {@code long} of cents.
+     */
+    public static Money parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long units = 0;
+        int integerDigits = 0;
+        for (; i < end && isDigit(chars[i]); i++, integerDigits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), chars[i] - '0');
+        }
+        long cents = 0;
+        int fractionDigits = 0;
+        boolean beyondScale = false;
+        if (i < end && chars[i] == '.') {
+            for (i++; i < end && isDigit(chars[i]); i++, fractionDigits++) {
+                int digit = chars[i] - '0';
+                if (fractionDigits < SCALE) {
+                    cents = cents * 10 + digit;
+                } else if (digit != 0) {
+                    beyondScale = true;
+                }
+            }
+        }
+        if (integerDigits + fractionDigits == 0) {
+            throw new NumberFormatException("Amount " + new String(chars, offset, length) + " is not a decimal number.");
+        }
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            checkExponent(chars, i + 1, end, offset, length);
+            return of(new BigDecimal(chars, offset, length));
+        }
+        if (i != end) {
+            throw new NumberFormatException("Amount " + new String(chars, offset, length) + " is not a decimal number.");
+        }
+        if (beyondScale) {
+            throw new ArithmeticException("Amount " + new String(chars, offset, length) + " has more than " + SCALE + " decimal places.");
+        }
+        for (; fractionDigits < SCALE; fractionDigits++) {
+            cents *= 10;
+        }
+
+        long total = Math.addExact(Math.multiplyExact(units, CENTS_PER_UNIT), cents);
+        return ofCents(negative ? -total : total);
+    }
+
+    /**
+     * Checks that the characters from {@code start} to {@code end} are an exponent within {@value #MAX_EXPONENT}.
+     */
+    private static void checkExponent(char[] chars, int start, int end, int offset, int length) {
+        int i = start;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("Amount " + new String(chars, offset, length) + " is not a decimal number.");
+        }
+        int exponent = 0;
+        for (; i < end; i++) {
+            if (!isDigit(chars[i])) {
+                throw new NumberFormatException("Amount " + new String(chars, offset, length) + " is not a decimal number.");
+            }
+            exponent = Math.min(exponent * 10 + chars[i] - '0', MAX_EXPONENT + 1);
+        }
+        if (exponent > MAX_EXPONENT) {
+            throw new ArithmeticException("Amount " + new String(chars, offset, length) + " has an exponent beyond " + MAX_EXPONENT + ".");
+        }
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * @return The amount with two decimal places, e.g. {@code -0.50}.
+     */
+    @Override
+    public String toString() {
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        int fraction = (int) Math.abs(cents % CENTS_PER_UNIT);
+        return (cents < 0 ? "-" : "") + units + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
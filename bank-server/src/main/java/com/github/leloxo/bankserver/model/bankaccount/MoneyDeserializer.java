@@ -0,0 +1,34 @@
+package com.github.leloxo.bankserver.model.bankaccount;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link Money} from a JSON number or string. Decimal numbers are parsed from the parser's text buffer, so no
+ * intermediate {@code String} or {@link java.math.BigDecimal} is created.
+ */
+public class MoneyDeserializer extends StdScalarDeserializer<Money> {
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return Money.ofCents(Math.multiplyExact(p.getLongValue(), 100));
+            }
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+                return Money.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+        }
+        return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+    }
+}
@@ -1,15 +1,13 @@
 package com.github.leloxo.bankserver.model.bankaccount;
 
-import java.math.BigDecimal;
-
 public class MoneyTransferRequestPayload {
     private String senderAccountNumber;
     private String receiverAccountNumber;
-    private BigDecimal amount;
+    private Money amount;
 
     public MoneyTransferRequestPayload() {}
 
-    public MoneyTransferRequestPayload(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
+    public MoneyTransferRequestPayload(String senderAccountNumber, String receiverAccountNumber, Money amount) {
         this.senderAccountNumber = senderAccountNumber;
         this.receiverAccountNumber = receiverAccountNumber;
         this.amount = amount;
@@ -31,11 +29,11 @@ public class MoneyTransferRequestPayload {
         this.receiverAccountNumber = receiverAccountNumber;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 }
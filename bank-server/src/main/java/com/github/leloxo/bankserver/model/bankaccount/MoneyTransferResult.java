@@ -0,0 +1,56 @@
+package com.github.leloxo.bankserver.model.bankaccount;
+
+public class MoneyTransferResult {
+    public enum Status {
+        COMPLETED,
+        INVALID,
+        FORBIDDEN,
+        ACCOUNT_NOT_FOUND,
+        INSUFFICIENT_BALANCE,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private String message;
+
+    public MoneyTransferResult() {}
+
+    public MoneyTransferResult(Status status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    public static MoneyTransferResult completed() {
+        return new MoneyTransferResult(Status.COMPLETED, "Money has been successfully transferred.");
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "MoneyTransferResult [index=" + index + ", status=" + status + ", message=" + message + "]";
+    }
+}
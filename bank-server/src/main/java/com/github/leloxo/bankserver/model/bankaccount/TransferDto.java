@@ -0,0 +1,66 @@
+package com.github.leloxo.bankserver.model.bankaccount;
+
+import java.time.LocalDateTime;
+
+public class TransferDto {
+    private Long id;
+    private String senderAccountNumber;
+    private String receiverAccountNumber;
+    private Money amount;
+    private LocalDateTime transferDate;
+
+    public TransferDto() {}
+
+    public TransferDto(Long id, String senderAccountNumber, String receiverAccountNumber, Money amount, LocalDateTime transferDate) {
+        this.id = id;
+        this.senderAccountNumber = senderAccountNumber;
+        this.receiverAccountNumber = receiverAccountNumber;
+        this.amount = amount;
+        this.transferDate = transferDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSenderAccountNumber() {
+        return senderAccountNumber;
+    }
+
+    public void setSenderAccountNumber(String senderAccountNumber) {
+        this.senderAccountNumber = senderAccountNumber;
+    }
+
+    public String getReceiverAccountNumber() {
+        return receiverAccountNumber;
+    }
+
+    public void setReceiverAccountNumber(String receiverAccountNumber) {
+        this.receiverAccountNumber = receiverAccountNumber;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getTransferDate() {
+        return transferDate;
+    }
+
+    public void setTransferDate(LocalDateTime transferDate) {
+        this.transferDate = transferDate;
+    }
+
+    @Override
+    public String toString() {
+        return "Transfer [id=" + id + ", sender=" + senderAccountNumber + ", receiver=" + receiverAccountNumber + ", amount=" + amount + ", transferDate=" + transferDate + "]";
+    }
+}
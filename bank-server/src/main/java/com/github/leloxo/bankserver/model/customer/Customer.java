@@ -35,6 +35,14 @@ public class Customer {
         return PasswordHasher.checkPassword(rawPassword, this.password);
     }
 
+    /**
+     * @return {@code true} if the stored hash was created with a lower cost than new hashes get, so it should be
+     * replaced the next time the raw password is known.
+     */
+    public boolean needsPasswordRehash() {
+        return PasswordHasher.needsRehash(this.password);
+    }
+
     public Long getId() {
         return id;
     }
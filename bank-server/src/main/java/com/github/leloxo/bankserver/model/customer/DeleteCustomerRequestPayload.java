@@ -0,0 +1,19 @@
+package com.github.leloxo.bankserver.model.customer;
+
+public class DeleteCustomerRequestPayload {
+    private String password;
+
+    public DeleteCustomerRequestPayload() {}
+
+    public DeleteCustomerRequestPayload(String password) {
+        this.password = password;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
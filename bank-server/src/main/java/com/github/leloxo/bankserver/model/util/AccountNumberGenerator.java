@@ -1,20 +1,169 @@
 package com.github.leloxo.bankserver.model.util;
 
-import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntToLongFunction;
 
+/**
+ * Generates unique account numbers from a database-backed sequence.
+ * <p>
+ * Sequence values are leased in blocks and handed out from memory without locking; a lock is only taken to lease
+ * the next block once the current one is used up. Each sequence value is mapped to a 9-digit account number body by
+ * a fixed permutation of {@code [0, 10^9)}, so consecutive accounts do not get consecutive numbers, and a Luhn check
+ * digit is appended. Because the permutation is a bijection, distinct sequence values always give distinct numbers.
+ */
 public class AccountNumberGenerator {
     private static final int ACCOUNT_NUMBER_LENGTH = 10;
+    private static final int BODY_LENGTH = ACCOUNT_NUMBER_LENGTH - 1;
+    private static final long BODY_SPACE = 1_000_000_000L;
 
-    public static String generateRandomAccountNumber() {
-        Random random = new Random();
-        StringBuilder accountNumber = new StringBuilder(ACCOUNT_NUMBER_LENGTH);
-        for (int i = 0; i < ACCOUNT_NUMBER_LENGTH; i++) {
-            accountNumber.append(random.nextInt(10));
+    /**
+     * The permutation is a 4-round Feistel network over 30 bits, restricted to {@code [0, 10^9)} by cycle walking.
+     * Changing the keys changes every number that will be generated and may collide with existing accounts.
+     */
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final long[] ROUND_KEYS = {0x5851f42d4c957f2dL, 0x14057b7ef767814fL, 0x2545f4914f6cdd1dL, 0x9e3779b97f4a7c15L};
+
+    private final IntToLongFunction blockLeaser;
+    private final int blockSize;
+    /** Not a monitor: it is held across a database call, which would pin the carrier of a virtual thread. */
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    /**
+     * @param blockLeaser Reserves the given number of sequence values and returns the first one.
+     * @param blockSize   The number of sequence values leased at once.
+     */
+    public AccountNumberGenerator(IntToLongFunction blockLeaser, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        this.blockLeaser = blockLeaser;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return A new account number that was never returned before.
+     * @throws IllegalStateException If all account numbers are allocated.
+     */
+    public String nextAccountNumber() {
+        return toAccountNumber(nextSequenceValue());
+    }
+
+    private long nextSequenceValue() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            leaseLock.lock();
+            try {
+                if (block == current) {
+                    long start = blockLeaser.applyAsLong(blockSize);
+                    if (start + blockSize > BODY_SPACE) {
+                        throw new IllegalStateException("All account numbers are allocated.");
+                    }
+                    block = new Block(start, start + blockSize);
+                }
+            } finally {
+                leaseLock.unlock();
+            }
         }
-        return accountNumber.toString();
+    }
+
+    /**
+     * Maps a sequence value to its account number.
+     *
+     * @param sequenceValue A value in {@code [0, 10^9)}.
+     * @return The 10-digit account number, including its check digit.
+     */
+    static String toAccountNumber(long sequenceValue) {
+        long permuted = sequenceValue;
+        do {
+            permuted = feistel(permuted);
+        } while (permuted >= BODY_SPACE);
+
+        String body = String.format("%0" + BODY_LENGTH + "d", permuted);
+        return body + checkDigit(body);
+    }
+
+    private static long feistel(long value) {
+        int left = (int) (value >>> HALF_BITS) & HALF_MASK;
+        int right = (int) value & HALF_MASK;
+        for (long roundKey : ROUND_KEYS) {
+            int next = left ^ round(right, roundKey);
+            left = right;
+            right = next;
+        }
+        return ((long) left << HALF_BITS) | right;
+    }
+
+    private static int round(int half, long roundKey) {
+        long hash = (half + roundKey) * 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 31;
+        return (int) hash & HALF_MASK;
+    }
+
+    /**
+     * Computes the Luhn check digit of the digits in {@code body}.
+     *
+     * @param body The account number without its check digit.
+     * @return The check digit.
+     */
+    public static char checkDigit(CharSequence body) {
+        return checkDigit(body, body.length());
+    }
+
+    /**
+     * Computes the Luhn check digit of the first {@code length} digits of {@code digits}, without copying them.
+     */
+    private static char checkDigit(CharSequence digits, int length) {
+        int sum = 0;
+        boolean doubleDigit = true;
+        for (int i = length - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubleDigit) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleDigit = !doubleDigit;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+
+    /**
+     * Checks that {@code accountNumber} consists of digits only and ends with a valid Luhn check digit.
+     * This detects every single-digit typo and most transpositions of adjacent digits.
+     *
+     * @param accountNumber The account number to check.
+     * @return {@code true} if the check digit is valid.
+     */
+    public static boolean hasValidCheckDigit(String accountNumber) {
+        for (int i = 0; i < accountNumber.length(); i++) {
+            if (accountNumber.charAt(i) < '0' || accountNumber.charAt(i) > '9') {
+                return false;
+            }
+        }
+        int last = accountNumber.length() - 1;
+        return last > 0 && checkDigit(accountNumber, last) == accountNumber.charAt(last);
     }
 
     public static int getAccountNumberLength() {
         return ACCOUNT_NUMBER_LENGTH;
     }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
 }
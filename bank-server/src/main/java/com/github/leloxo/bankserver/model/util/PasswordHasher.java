@@ -1,15 +1,123 @@
 package com.github.leloxo.bankserver.model.util;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Hashes and checks passwords with BCrypt.
+ * <p>
+ * The cost factor defaults to {@value #DEFAULT_COST} and can be set with {@link #setCost(int)}, usually to the result of
+ * {@link #calibrate(Duration, int, int)} at startup. Existing hashes stay valid when the cost changes; hashes created
+ * with a lower cost are reported by {@link #needsRehash(String)} so they can be replaced after the next successful login.
+ * <p>
+ * Hashes and checks are timed in {@code bank.password.hashing}, registered with the global Micrometer registry because
+ * this class is static; Spring Boot adds its registries to it.
+ */
 public class PasswordHasher {
-    private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    public static final int DEFAULT_COST = 10;
+    public static final int MIN_COST = 4;
+    public static final int MAX_COST = 31;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_RUNS = 3;
+
+    private static final Timer hashTimer = hashingTimer("hash");
+    private static final Timer checkTimer = hashingTimer("check");
+
+    private static volatile BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(DEFAULT_COST);
+    private static volatile int cost = DEFAULT_COST;
 
     public static String hashPassword(String password) {
-        return encoder.encode(password);
+        return hashTimer.record(() -> encoder.encode(password));
     }
 
     public static boolean checkPassword(String rawPassword, String hashedPassword) {
-        return encoder.matches(rawPassword, hashedPassword);
+        return checkTimer.record(() -> encoder.matches(rawPassword, hashedPassword));
+    }
+
+    /**
+     * @param hashedPassword A stored password hash.
+     * @return {@code true} if the hash was created with a lower cost than the current one.
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        return encoder.upgradeEncoding(hashedPassword);
+    }
+
+    /**
+     * Sets the cost factor of new hashes.
+     *
+     * @param newCost The BCrypt cost factor, the base-2 logarithm of the number of key expansion rounds.
+     */
+    public static synchronized void setCost(int newCost) {
+        if (newCost < MIN_COST || newCost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST + ".");
+        }
+        encoder = new BCryptPasswordEncoder(newCost);
+        cost = newCost;
+    }
+
+    public static int getCost() {
+        return cost;
+    }
+
+    /**
+     * Finds the highest cost factor whose hash time on this machine stays within {@code latencyBudget}.
+     * Every step doubles the hash time, so the cost is raised until the next step would exceed the budget.
+     *
+     * @param latencyBudget The maximum time one hash may take.
+     * @param minCost       The lowest cost returned, even if it exceeds the budget.
+     * @param maxCost       The highest cost returned.
+     * @return The calibrated cost factor.
+     */
+    public static int calibrate(Duration latencyBudget, int minCost, int maxCost) {
+        if (minCost < MIN_COST || maxCost > MAX_COST || minCost > maxCost) {
+            throw new IllegalArgumentException("Invalid BCrypt cost range [" + minCost + ", " + maxCost + "].");
+        }
+        long budgetNanos = latencyBudget.toNanos();
+        // Warms up the JIT so the first measurement is not inflated.
+        measureHashNanos(MIN_COST);
+
+        int calibrated = minCost;
+        long nanos = measureHashNanos(minCost);
+        logger.info("BCrypt cost {} takes {} ms per hash.", minCost, nanos / 1_000_000);
+        while (calibrated < maxCost && nanos * 2 <= budgetNanos) {
+            calibrated++;
+            nanos = measureHashNanos(calibrated);
+            logger.info("BCrypt cost {} takes {} ms per hash.", calibrated, nanos / 1_000_000);
+            if (nanos > budgetNanos) {
+                calibrated--;
+                break;
+            }
+        }
+        logger.info("Calibrated BCrypt cost {} for a budget of {} ms per hash.", calibrated, latencyBudget.toMillis());
+        return calibrated;
+    }
+
+    private static Timer hashingTimer(String operation) {
+        return Timer.builder("bank.password.hashing")
+                .description("BCrypt password hashing")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private static long measureHashNanos(int cost) {
+        BCryptPasswordEncoder calibrationEncoder = new BCryptPasswordEncoder(cost);
+        long[] samples = new long[CALIBRATION_RUNS];
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            calibrationEncoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[CALIBRATION_RUNS / 2];
     }
 }
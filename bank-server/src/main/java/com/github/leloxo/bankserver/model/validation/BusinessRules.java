@@ -1,6 +1,11 @@
 package com.github.leloxo.bankserver.model.validation;
 
+/**
+ * The validation rule of one {@link ValidationType}.
+ */
 public interface BusinessRules {
-    boolean supports(ValidationType field);
-    void validate(String value);
+    /**
+     * @return {@code null} if the value is valid, otherwise the reason why it is not.
+     */
+    ValidationError check(String value);
 }
@@ -0,0 +1,52 @@
+package com.github.leloxo.bankserver.model.validation;
+
+import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.model.validation.customer.PasswordValidator;
+
+/**
+ * The reasons a value can fail validation. Validators return these constants instead of building an exception and
+ * its message, so checking a value never allocates; the exception is only created by {@link #toException()} when
+ * the caller rejects the value.
+ */
+public enum ValidationError {
+    EMAIL_EMPTY(Kind.CUSTOMER, "Email cannot be null or empty."),
+    EMAIL_INVALID(Kind.CUSTOMER, "Email is not valid."),
+    PASSWORD_EMPTY(Kind.CUSTOMER, "Password cannot be null or empty."),
+    PASSWORD_TOO_SHORT(Kind.CUSTOMER, "Password must be at least " + PasswordValidator.MIN_LENGTH + " characters long."),
+    NAME_EMPTY(Kind.CUSTOMER, "Name cannot be null or empty."),
+    ACCOUNT_NUMBER_EMPTY(Kind.BANK_ACCOUNT, "Account number can not be null or empty"),
+    ACCOUNT_NUMBER_LENGTH(Kind.BANK_ACCOUNT, "Account number has to be " + AccountNumberGenerator.getAccountNumberLength() + " characters long."),
+    ACCOUNT_NUMBER_CHECK_DIGIT(Kind.BANK_ACCOUNT, "Account number is not valid, please check it for typos."),
+    AMOUNT_EMPTY(Kind.BANK_ACCOUNT, "Transfer amount cannot be null."),
+    AMOUNT_FORMAT(Kind.BANK_ACCOUNT, "Invalid amount format."),
+    AMOUNT_NOT_POSITIVE(Kind.BANK_ACCOUNT, "Transfer amount must be greater than zero."),
+    AMOUNT_SCALE(Kind.BANK_ACCOUNT, "Transfer amount cannot have more than 2 decimal places."),
+    AMOUNT_TOO_LARGE(Kind.BANK_ACCOUNT, "Amount exceeds the maximum allowed value.");
+
+    private enum Kind {
+        CUSTOMER,
+        BANK_ACCOUNT
+    }
+
+    private final Kind kind;
+    private final String message;
+
+    ValidationError(Kind kind, String message) {
+        this.kind = kind;
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return The exception the controllers map to {@code 400 Bad Request}: an {@link InvalidCustomerDataException}
+     * for customer data, an {@link InvalidBankAccountDataException} for bank account data.
+     */
+    public RuntimeException toException() {
+        return kind == Kind.CUSTOMER ? new InvalidCustomerDataException(message) : new InvalidBankAccountDataException(message);
+    }
+}
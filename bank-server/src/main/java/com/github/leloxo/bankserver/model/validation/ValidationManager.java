@@ -1,29 +1,60 @@
 package com.github.leloxo.bankserver.model.validation;
 
-import com.github.leloxo.bankserver.model.validation.bankaccount.TransferAmountValidator;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
 import com.github.leloxo.bankserver.model.validation.bankaccount.BankAccountNumberValidator;
+import com.github.leloxo.bankserver.model.validation.bankaccount.TransferAmountValidator;
 import com.github.leloxo.bankserver.model.validation.customer.EmailValidator;
 import com.github.leloxo.bankserver.model.validation.customer.NameValidator;
 import com.github.leloxo.bankserver.model.validation.customer.PasswordValidator;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 
+/**
+ * Validates input by {@link ValidationType}, looking up the rule of each type in an {@link EnumMap}.
+ * The {@code check} methods return the {@link ValidationError} of invalid input, the {@code validate} methods throw
+ * it as an exception.
+ */
 public class ValidationManager {
-    private final List<BusinessRules> businessRules = Arrays.asList(
-            new EmailValidator(),
-            new PasswordValidator(),
-            new NameValidator(),
-            new BankAccountNumberValidator(),
-            new TransferAmountValidator()
-    );
+    private final Map<ValidationType, BusinessRules> businessRules = new EnumMap<>(ValidationType.class);
+    private final TransferAmountValidator transferAmountValidator = new TransferAmountValidator();
+
+    public ValidationManager() {
+        businessRules.put(ValidationType.EMAIL, new EmailValidator());
+        businessRules.put(ValidationType.PASSWORD, new PasswordValidator());
+        businessRules.put(ValidationType.NAME, new NameValidator());
+        businessRules.put(ValidationType.BANK_ACCOUNT_NUMBER, new BankAccountNumberValidator());
+        businessRules.put(ValidationType.TRANSFER_AMOUNT, transferAmountValidator);
+    }
 
+    /**
+     * @throws RuntimeException The exception of the {@link ValidationError} if the input is invalid.
+     */
     public void validate(ValidationType field, String input) {
-        for (BusinessRules eachBusinessRule : this.businessRules) {
-            if (eachBusinessRule.supports(field)) {
-                eachBusinessRule.validate(input);
-                return;
-            }
+        throwIfInvalid(check(field, input));
+    }
+
+    /**
+     * @return {@code null} if the input is valid, otherwise the reason why it is not.
+     */
+    public ValidationError check(ValidationType field, String input) {
+        return businessRules.get(field).check(input);
+    }
+
+    public void validateTransferAmount(Money amount) {
+        throwIfInvalid(transferAmountValidator.check(amount));
+    }
+
+    /**
+     * @param cents The amount in cents.
+     */
+    public void validateTransferAmount(long cents) {
+        throwIfInvalid(transferAmountValidator.check(cents));
+    }
+
+    private static void throwIfInvalid(ValidationError error) {
+        if (error != null) {
+            throw error.toException();
         }
     }
 }
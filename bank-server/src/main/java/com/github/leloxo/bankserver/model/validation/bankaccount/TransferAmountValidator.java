@@ -1,38 +1,67 @@
 package com.github.leloxo.bankserver.model.validation.bankaccount;
 
-import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
 import com.github.leloxo.bankserver.model.validation.BusinessRules;
-import com.github.leloxo.bankserver.model.validation.ValidationType;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
 
 import java.math.BigDecimal;
 
+/**
+ * Checks transfer amounts: positive, at most two decimal places and at most {@code 9999999.99}. The typed checks
+ * take the amount as {@link Money}, a {@link BigDecimal} or in cents; the {@code String} check parses it first.
+ */
 public class TransferAmountValidator implements BusinessRules {
     private static final BigDecimal MAX_TRANSFER_AMOUNT = new BigDecimal("9999999.99");
+    private static final long MAX_TRANSFER_AMOUNT_CENTS = 999_999_999L;
+    private static final int MAX_SCALE = 2;
 
     @Override
-    public boolean supports(ValidationType field) {
-        return ValidationType.TRANSFER_AMOUNT.equals(field);
-    }
-
-    @Override
-    public void validate(String amountString) throws InvalidBankAccountDataException {
+    public ValidationError check(String amountString) {
+        if (amountString == null) {
+            return ValidationError.AMOUNT_EMPTY;
+        }
         BigDecimal amount;
         try {
             amount = new BigDecimal(amountString);
         } catch (NumberFormatException e) {
-            throw new InvalidBankAccountDataException("Invalid amount format.");
+            return ValidationError.AMOUNT_FORMAT;
         }
+        return check(amount);
+    }
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidBankAccountDataException("Transfer amount must be greater than zero.");
+    public ValidationError check(BigDecimal amount) {
+        if (amount == null) {
+            return ValidationError.AMOUNT_EMPTY;
+        }
+        if (amount.signum() <= 0) {
+            return ValidationError.AMOUNT_NOT_POSITIVE;
+        }
+        if (amount.scale() > MAX_SCALE) {
+            return ValidationError.AMOUNT_SCALE;
         }
+        if (amount.compareTo(MAX_TRANSFER_AMOUNT) > 0) {
+            return ValidationError.AMOUNT_TOO_LARGE;
+        }
+        return null;
+    }
 
-        if (amount.scale() > 2) {
-            throw new InvalidBankAccountDataException("Transfer amount cannot have more than 2 decimal places.");
+    public ValidationError check(Money amount) {
+        if (amount == null) {
+            return ValidationError.AMOUNT_EMPTY;
         }
+        return check(amount.getCents());
+    }
 
-        if (amount.compareTo(MAX_TRANSFER_AMOUNT) > 0) {
-            throw new InvalidBankAccountDataException("Amount exceeds the maximum allowed value.");
+    /**
+     * @param cents The amount in cents, so it cannot have more than two decimal places.
+     */
+    public ValidationError check(long cents) {
+        if (cents <= 0) {
+            return ValidationError.AMOUNT_NOT_POSITIVE;
+        }
+        if (cents > MAX_TRANSFER_AMOUNT_CENTS) {
+            return ValidationError.AMOUNT_TOO_LARGE;
         }
+        return null;
     }
 }
@@ -1,22 +1,61 @@
 package com.github.leloxo.bankserver.model.validation.customer;
 
-import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
 import com.github.leloxo.bankserver.model.validation.BusinessRules;
-import com.github.leloxo.bankserver.model.validation.ValidationType;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
 
+/**
+ * Accepts the same emails as {@code ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$} in a single pass without a
+ * regex: a non-empty local part, an {@code @}, a non-empty domain and a top-level domain of at least two letters after
+ * the last dot.
+ */
 public class EmailValidator implements BusinessRules {
-    @Override
-    public boolean supports(ValidationType field) {
-        return ValidationType.EMAIL.equals(field);
-    }
+    private static final int MIN_TOP_LEVEL_DOMAIN_LENGTH = 2;
 
     @Override
-    public void validate(String email) throws InvalidCustomerDataException {
+    public ValidationError check(String email) {
         if (email == null || email.isEmpty()) {
-            throw new InvalidCustomerDataException("Email cannot be null or empty.");
+            return ValidationError.EMAIL_EMPTY;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return ValidationError.EMAIL_INVALID;
+        }
+        for (int i = 0; i < at; i++) {
+            if (!isLocalPartChar(email.charAt(i))) {
+                return ValidationError.EMAIL_INVALID;
+            }
         }
-        if (!email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$")) {
-            throw new InvalidCustomerDataException("Email is not valid.");
+
+        int lastDot = email.lastIndexOf('.');
+        if (lastDot <= at + 1 || email.length() - lastDot - 1 < MIN_TOP_LEVEL_DOMAIN_LENGTH) {
+            return ValidationError.EMAIL_INVALID;
+        }
+        for (int i = at + 1; i < lastDot; i++) {
+            if (!isDomainChar(email.charAt(i))) {
+                return ValidationError.EMAIL_INVALID;
+            }
         }
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isLetter(email.charAt(i))) {
+                return ValidationError.EMAIL_INVALID;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
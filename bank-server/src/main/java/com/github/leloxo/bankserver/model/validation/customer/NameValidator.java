@@ -1,19 +1,14 @@
 package com.github.leloxo.bankserver.model.validation.customer;
 
-import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
 import com.github.leloxo.bankserver.model.validation.BusinessRules;
-import com.github.leloxo.bankserver.model.validation.ValidationType;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
 
 public class NameValidator implements BusinessRules {
     @Override
-    public boolean supports(ValidationType field) {
-        return ValidationType.NAME.equals(field);
-    }
-
-    @Override
-    public void validate(String name) throws InvalidCustomerDataException {
+    public ValidationError check(String name) {
         if (name == null || name.isEmpty()) {
-            throw new InvalidCustomerDataException("Name cannot be null or empty.");
+            return ValidationError.NAME_EMPTY;
         }
+        return null;
     }
 }
@@ -1,24 +1,19 @@
 package com.github.leloxo.bankserver.model.validation.customer;
 
-import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
 import com.github.leloxo.bankserver.model.validation.BusinessRules;
-import com.github.leloxo.bankserver.model.validation.ValidationType;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
 
 public class PasswordValidator implements BusinessRules {
-    private static final int PASSWORD_LENGTH = 8;
+    public static final int MIN_LENGTH = 8;
 
     @Override
-    public boolean supports(ValidationType field) {
-        return ValidationType.PASSWORD.equals(field);
-    }
-
-    @Override
-    public void validate(String password) throws InvalidCustomerDataException {
+    public ValidationError check(String password) {
         if (password == null || password.isEmpty()) {
-            throw new InvalidCustomerDataException("Password cannot be null or empty.");
+            return ValidationError.PASSWORD_EMPTY;
         }
-        if (password.length() < PASSWORD_LENGTH) {
-            throw new InvalidCustomerDataException("Password must be at least " + PASSWORD_LENGTH + " characters long.");
+        if (password.length() < MIN_LENGTH) {
+            return ValidationError.PASSWORD_TOO_SHORT;
         }
+        return null;
     }
 }
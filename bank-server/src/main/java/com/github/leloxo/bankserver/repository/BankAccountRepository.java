@@ -1,69 +1,152 @@
 package com.github.leloxo.bankserver.repository;
 
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
 import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
-import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
 import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
 import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
 import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
-import com.github.leloxo.bankserver.model.customer.Customer;
-import com.github.leloxo.bankserver.model.util.DataConverter;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.model.bankaccount.TransferDto;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
 
 @Repository
+@Profile("!reactive")
+@Timed(value = "bank.repository", description = "Repository method calls", histogram = true)
 public class BankAccountRepository {
     private static final Logger logger = LoggerFactory.getLogger(BankAccountRepository.class);
 
+    private static final String SELECT_BANK_ACCOUNT_WITH_CUSTOMER =
+            "SELECT b.id, b.account_number, b.balance, b.created_at, " +
+            "c.id AS customer_id, c.first_name, c.last_name, c.email, c.created_at AS customer_created_at " +
+            "FROM bank_account b JOIN customer c ON c.id = b.customer_id";
+
+    private final DataSource dataSource;
+
+    public BankAccountRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
     /**
-     * Retrieves a list of all customers from the database.
+     * Retrieves one page of bank accounts, together with their customers, ordered by ID.
      *
-     * @return A list of all {@link BankAccountDto} objects.
-     * @throws CustomerNotFoundException If the customer of the bank account is not found.
-     * @throws CustomerRepositoryException If a database error occurs.
+     * @param afterId The ID of the last bank account of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of bank accounts to return.
+     * @return A list of at most {@code limit} {@link BankAccountDto} objects with an ID greater than {@code afterId}.
+     * @throws BankAccountRepositoryException If a database error occurs.
      */
-    public List<BankAccountDto> getBankAccounts() throws CustomerNotFoundException {
-        String query = "SELECT * FROM bank_account";
-        List<BankAccountDto> bankAccounts = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             ResultSet rs = stmt.executeQuery()) {
+    public List<BankAccountDto> getBankAccounts(long afterId, int limit) {
+        String query = SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " WHERE b.id > ? ORDER BY b.id LIMIT ?";
+        List<BankAccountDto> bankAccounts = new ArrayList<>(limit);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            while (rs.next()) {
-                bankAccounts.add(getBankAccountDtoOfCustomerWithId(rs));
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<Long, CustomerDto> customers = new HashMap<>();
+                while (rs.next()) {
+                    bankAccounts.add(mapBankAccountDto(rs, customers));
+                }
+                logger.info("Successfully retrieved {} bank accounts after id {} from the database.", bankAccounts.size(), afterId);
             }
-            logger.info("Successfully retrieved {} bank accounts from the database.", bankAccounts.size());
         } catch (SQLException e) {
-            logger.error("Database error while fetching all bank accounts: {}", e.getMessage(), e);
-            throw new BankAccountRepositoryException("Failed to fetch all bank accounts", e);
+            logger.error("Database error while fetching bank accounts after id {}: {}", afterId, e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to fetch bank accounts", e);
         }
         return bankAccounts;
     }
 
+    /**
+     * Passes every bank account, together with its customer, to {@code consumer} in ID order while the rows
+     * are read from a forward-only result set, so that the table is never held in memory as a whole.
+     *
+     * @param consumer The consumer receiving each {@link BankAccountDto}.
+     * @return The number of bank accounts passed to the consumer.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public long streamBankAccounts(Consumer<BankAccountDto> consumer) {
+        String query = SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " ORDER BY b.id";
+        long count = 0;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DatabaseConnection.STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapBankAccountDto(rs, null));
+                    count++;
+                }
+                logger.info("Successfully streamed {} bank accounts from the database.", count);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while streaming bank accounts: {}", e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to stream bank accounts", e);
+        }
+        return count;
+    }
+
+    /**
+     * Passes the account number of every bank account to {@code consumer} while the rows are read from a
+     * forward-only result set.
+     *
+     * @param consumer The consumer receiving each account number.
+     * @return The number of account numbers passed to the consumer.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public long streamAccountNumbers(Consumer<String> consumer) {
+        String query = "SELECT account_number FROM bank_account";
+        long count = 0;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DatabaseConnection.STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getString(1));
+                    count++;
+                }
+                logger.info("Successfully streamed {} account numbers from the database.", count);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while streaming account numbers: {}", e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to stream account numbers", e);
+        }
+        return count;
+    }
+
     /**
      * Retrieves bank accounts by the customer ID from the database.
      *
      * @param id The ID of the customer.
      * @return A list of {@link BankAccountDto} objects associated with the customer ID.
-     * @throws CustomerNotFoundException If the customer with the given ID is not found.
      * @throws CustomerRepositoryException If a database error occurs.
      */
-    public List<BankAccountDto> getBankAccountsByCustomerId(Long id) throws CustomerNotFoundException {
-        String query = "SELECT * FROM bank_account WHERE customer_id = ?";
+    public List<BankAccountDto> getBankAccountsByCustomerId(Long id) {
+        String query = SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " WHERE b.customer_id = ?";
         List<BankAccountDto> bankAccounts = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setLong(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
+                Map<Long, CustomerDto> customers = new HashMap<>();
                 while (rs.next()) {
-                    bankAccounts.add(getBankAccountDtoOfCustomerWithId(rs));
+                    bankAccounts.add(mapBankAccountDto(rs, customers));
                 }
                 logger.info("Successfully retrieved {} bank accounts from the database.", bankAccounts.size());
             }
@@ -74,23 +157,48 @@ public class BankAccountRepository {
         return bankAccounts;
     }
 
+    /**
+     * Retrieves the account numbers of the bank accounts of a customer, without reading the rows.
+     *
+     * @param customerId The ID of the customer.
+     * @return The account numbers of the customer's bank accounts.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Set<String> getAccountNumbersByCustomerId(Long customerId) {
+        String query = "SELECT account_number FROM bank_account WHERE customer_id = ?";
+        Set<String> accountNumbers = new HashSet<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accountNumbers.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while searching for account numbers of customer_id {}: {}", customerId, e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to find account numbers of customer_id: " + customerId, e);
+        }
+        return accountNumbers;
+    }
+
     /**
      * Retrieves a bank account by the account number from the database.
      *
      * @param accountNumber The account number of the bank account.
      * @return An {@link Optional} containing the {@link BankAccountDto} if found.
-     * @throws CustomerNotFoundException If the customer associated with the account is not found.
      * @throws CustomerRepositoryException If a database error occurs.
      */
-    public Optional<BankAccountDto> getBankAccountByAccountNumber(String accountNumber) throws CustomerNotFoundException {
-        String query = "SELECT * FROM bank_account WHERE account_number = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+    public Optional<BankAccountDto> getBankAccountByAccountNumber(String accountNumber) {
+        String query = SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " WHERE b.account_number = ?";
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, accountNumber);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    BankAccountDto bankAccountDto = getBankAccountDtoOfCustomerWithId(rs);
+                    BankAccountDto bankAccountDto = mapBankAccountDto(rs, new HashMap<>());
                     logger.info("Bank account with account number {} found.", accountNumber);
                     return Optional.of(bankAccountDto);
                 } else {
@@ -105,24 +213,52 @@ public class BankAccountRepository {
     }
 
     /**
-     * Converts a ResultSet into a {@link BankAccountDto} object, retrieving the customer details.
+     * Checks whether a bank account with the account number exists, without reading the row.
      *
-     * @param rs The {@link ResultSet} containing the bank account data.
+     * @param accountNumber The account number of the bank account.
+     * @return {@code true} if the bank account exists.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public boolean existsByAccountNumber(String accountNumber) {
+        try (Connection conn = dataSource.getConnection()) {
+            return existsByAccountNumber(conn, accountNumber);
+        } catch (SQLException e) {
+            logger.error("Database error while checking bank account with account_number {}: {}", accountNumber, e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to check bank account with account_number: " + accountNumber, e);
+        }
+    }
+
+    /**
+     * Converts a row of {@link #SELECT_BANK_ACCOUNT_WITH_CUSTOMER} into a {@link BankAccountDto} object.
+     * Customers that were already mapped for a previous row are reused from {@code customers}.
+     *
+     * @param rs        The {@link ResultSet} containing the bank account and customer data.
+     * @param customers The customers already mapped while reading the current result set, by ID,
+     *                  or {@code null} to map the customer of every row separately.
      * @return A {@link BankAccountDto} object.
-     * @throws CustomerNotFoundException If the customer associated with the bank account is not found.
-     * @throws SQLException If there is a SQL error while retrieving the customer details.
+     * @throws SQLException If there is a SQL error while reading the row.
      */
-    private BankAccountDto getBankAccountDtoOfCustomerWithId(ResultSet rs) throws CustomerNotFoundException, SQLException {
-        Long customerId = rs.getLong("customer_id");
-        Optional<Customer> optionalCustomer = CustomerRepository.getCustomerById(customerId);
-        Customer customer = optionalCustomer
-                .orElseThrow(() -> new CustomerNotFoundException("No customer with id " + customerId + " was found"));
+    private BankAccountDto mapBankAccountDto(ResultSet rs, Map<Long, CustomerDto> customers) throws SQLException {
+        long customerId = rs.getLong("customer_id");
+        CustomerDto customerDto = customers != null ? customers.get(customerId) : null;
+        if (customerDto == null) {
+            customerDto = new CustomerDto(
+                    customerId,
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getString("email"),
+                    rs.getTimestamp("customer_created_at").toLocalDateTime()
+            );
+            if (customers != null) {
+                customers.put(customerId, customerDto);
+            }
+        }
 
         return new BankAccountDto(
                 rs.getLong("id"),
                 rs.getString("account_number"),
-                DataConverter.toCustomerDto(customer),
-                rs.getBigDecimal("balance"),
+                customerDto,
+                Money.of(rs.getBigDecimal("balance")),
                 rs.getTimestamp("created_at").toLocalDateTime()
         );
     }
@@ -136,12 +272,12 @@ public class BankAccountRepository {
      */
     public BankAccount saveBankAccount(BankAccount bankAccount) {
         String query = "INSERT INTO bank_account (account_number, customer_id, balance, created_at) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query, PreparedStatement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, bankAccount.getAccountNumber());
             stmt.setLong(2, bankAccount.getCustomer().getId());
-            stmt.setBigDecimal(3, bankAccount.getBalance());
+            stmt.setBigDecimal(3, bankAccount.getBalance().toBigDecimal());
             stmt.setTimestamp(4, Timestamp.valueOf(bankAccount.getCreatedAt()));
 
             int rowsAffected = stmt.executeUpdate();
@@ -163,48 +299,41 @@ public class BankAccountRepository {
     }
 
     /**
-     * Transfers money between two bank accounts.
+     * Transfers money between two bank accounts in a single transaction.
+     * <p>
+     * The sender is only debited if its balance covers the amount, so concurrent transfers cannot overdraw
+     * an account. Both rows are updated in account number order so that opposing transfers cannot deadlock.
      *
      * @param senderAccountNumber   The account number of the sender.
      * @param receiverAccountNumber The account number of the receiver.
      * @param amount                The amount to be transferred.
-     * @throws CustomerRepositoryException If a database error occurs during the transaction.
+     * @throws BankAccountNotFoundException   If the sender or receiver account does not exist.
+     * @throws InsufficientBalanceException   If the sender's balance is lower than the amount.
+     * @throws BankAccountRepositoryException If a database error occurs during the transaction.
      */
-    public void transferMoney(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) {
-        String removeMoneyQuery = "UPDATE bank_account SET balance = balance - ? WHERE account_number = ?";
-        String addMoneyQuery = "UPDATE bank_account SET balance = balance + ? WHERE account_number = ?";
+    public void transferMoney(String senderAccountNumber, String receiverAccountNumber, Money amount)
+            throws BankAccountNotFoundException, InsufficientBalanceException {
         String insertTransferQuery = "INSERT INTO transfer (sender_account_number, receiver_account_number, amount) VALUES (?, ?, ?)";
 
         Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
+            conn = dataSource.getConnection();
             conn.setAutoCommit(false);
 
-            // Remove money from sender
-            try (PreparedStatement removeStmt = conn.prepareStatement(removeMoneyQuery)) {
-                removeStmt.setBigDecimal(1, amount);
-                removeStmt.setString(2, senderAccountNumber);
-                int senderRowsAffected = removeStmt.executeUpdate();
-                if (senderRowsAffected == 0) {
-                    throw new SQLException("No rows affected, failed to remove money from sender's account.");
-                }
-            }
-
-            // Add money to receiver
-            try (PreparedStatement addStmt = conn.prepareStatement(addMoneyQuery)) {
-                addStmt.setBigDecimal(1, amount);
-                addStmt.setString(2, receiverAccountNumber);
-                int receiverRowsAffected = addStmt.executeUpdate();
-                if (receiverRowsAffected == 0) {
-                    throw new SQLException("No rows affected, failed to add money to receiver's account.");
-                }
+            BigDecimal value = amount.toBigDecimal();
+            if (senderAccountNumber.compareTo(receiverAccountNumber) < 0) {
+                debit(conn, senderAccountNumber, value);
+                credit(conn, receiverAccountNumber, value);
+            } else {
+                credit(conn, receiverAccountNumber, value);
+                debit(conn, senderAccountNumber, value);
             }
 
             // Insert transfer into transfer table
             try (PreparedStatement insertTransferStmt = conn.prepareStatement(insertTransferQuery)) {
                 insertTransferStmt.setString(1, senderAccountNumber);
                 insertTransferStmt.setString(2, receiverAccountNumber);
-                insertTransferStmt.setBigDecimal(3, amount);
+                insertTransferStmt.setBigDecimal(3, value);
                 int transferRowsAffected = insertTransferStmt.executeUpdate();
                 if (transferRowsAffected == 0) {
                     throw new SQLException("No rows affected, failed to insert transfer record.");
@@ -213,16 +342,274 @@ public class BankAccountRepository {
 
             conn.commit();
             logger.info("Successfully transferred {}€ from {} to {}", amount, senderAccountNumber, receiverAccountNumber);
+        } catch (BankAccountNotFoundException | InsufficientBalanceException e) {
+            rollback(conn);
+            logger.warn("Money transfer from {} to {} rejected: {}", senderAccountNumber, receiverAccountNumber, e.getMessage());
+            throw e;
         } catch (SQLException e) {
+            rollback(conn);
+            logger.error("Error during money transfer from {} to {}: {}", senderAccountNumber, receiverAccountNumber, e.getMessage());
+            throw new BankAccountRepositoryException("Failed to transfer money.", e);
+        } finally {
             if (conn != null) {
                 try {
-                    conn.rollback();
-                } catch (SQLException rollbackEx) {
-                    logger.error("Error during transaction rollback: {}", rollbackEx.getMessage());
+                    conn.close();
+                } catch (SQLException closeEx) {
+                    logger.error("Error closing connection: {}", closeEx.getMessage());
                 }
             }
-            logger.error("Error during money transfer from {} to {}: {}", senderAccountNumber, receiverAccountNumber, e.getMessage());
-            throw new CustomerRepositoryException("Failed to transfer money.", e);
+        }
+    }
+
+    /**
+     * Applies independent transfers in a single transaction and reports the outcome of each.
+     * <p>
+     * All involved accounts are locked up front with one {@code SELECT ... FOR UPDATE} in account number
+     * order, so concurrent batches and single transfers always acquire row locks in the same order and cannot
+     * deadlock. The transfers are then checked in order against the locked balances, and the net balance
+     * changes and transfer records of the accepted transfers are written with JDBC batches.
+     *
+     * @param transfers The validated transfers to apply.
+     * @return One result per transfer, in the same order.
+     * @throws BankAccountRepositoryException If a database error occurs; no transfer of the batch is applied then.
+     */
+    public List<MoneyTransferResult> transferMoneyBatch(List<MoneyTransferRequestPayload> transfers) {
+        return transferMoneyBatch(transfers, null);
+    }
+
+    /**
+     * Applies transfers that were already accepted by the ledger engine and recorded in its write-ahead log, like
+     * {@link #transferMoneyBatch(List)}. The ledger sequence number of each applied transfer is stored with its
+     * transfer record, in the same transaction as the balance updates, so that {@link #getLastLedgerSequence()}
+     * always reflects what the database has applied.
+     *
+     * @param transfers       The transfers to apply, in ledger order.
+     * @param ledgerSequences The sequence number of each transfer in the write-ahead log.
+     * @return One result per transfer, in the same order.
+     * @throws BankAccountRepositoryException If a database error occurs; no transfer of the batch is applied then.
+     */
+    public List<MoneyTransferResult> applyLedgerTransfers(List<MoneyTransferRequestPayload> transfers, long[] ledgerSequences) {
+        return transferMoneyBatch(transfers, ledgerSequences);
+    }
+
+    private List<MoneyTransferResult> transferMoneyBatch(List<MoneyTransferRequestPayload> transfers, long[] ledgerSequences) {
+        String updateBalanceQuery = "UPDATE bank_account SET balance = balance + ? WHERE account_number = ?";
+        String insertTransferQuery = "INSERT INTO transfer (sender_account_number, receiver_account_number, amount, ledger_sequence) VALUES (?, ?, ?, ?)";
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            SortedSet<String> accountNumbers = new TreeSet<>();
+            for (MoneyTransferRequestPayload transfer : transfers) {
+                accountNumbers.add(transfer.getSenderAccountNumber());
+                accountNumbers.add(transfer.getReceiverAccountNumber());
+            }
+            Map<String, Money> balances = lockBalances(conn, accountNumbers);
+
+            List<MoneyTransferResult> results = new ArrayList<>(transfers.size());
+            SortedMap<String, Money> balanceChanges = new TreeMap<>();
+            List<Integer> acceptedTransfers = new ArrayList<>(transfers.size());
+            for (int i = 0; i < transfers.size(); i++) {
+                MoneyTransferRequestPayload transfer = transfers.get(i);
+                Money senderBalance = balances.get(transfer.getSenderAccountNumber());
+                if (senderBalance == null || !balances.containsKey(transfer.getReceiverAccountNumber())) {
+                    results.add(new MoneyTransferResult(MoneyTransferResult.Status.ACCOUNT_NOT_FOUND, "Bank account does not exist."));
+                } else if (senderBalance.isLessThan(transfer.getAmount())) {
+                    results.add(new MoneyTransferResult(MoneyTransferResult.Status.INSUFFICIENT_BALANCE, "Your balance is insufficient for this transaction."));
+                } else {
+                    Money amount = transfer.getAmount();
+                    balances.put(transfer.getSenderAccountNumber(), senderBalance.minus(amount));
+                    balances.merge(transfer.getReceiverAccountNumber(), amount, Money::plus);
+                    balanceChanges.merge(transfer.getSenderAccountNumber(), amount.negate(), Money::plus);
+                    balanceChanges.merge(transfer.getReceiverAccountNumber(), amount, Money::plus);
+                    acceptedTransfers.add(i);
+                    results.add(MoneyTransferResult.completed());
+                }
+            }
+
+            try (PreparedStatement updateStmt = conn.prepareStatement(updateBalanceQuery)) {
+                for (Map.Entry<String, Money> balanceChange : balanceChanges.entrySet()) {
+                    if (balanceChange.getValue().signum() != 0) {
+                        updateStmt.setBigDecimal(1, balanceChange.getValue().toBigDecimal());
+                        updateStmt.setString(2, balanceChange.getKey());
+                        updateStmt.addBatch();
+                    }
+                }
+                updateStmt.executeBatch();
+            }
+
+            try (PreparedStatement insertStmt = conn.prepareStatement(insertTransferQuery)) {
+                for (int i : acceptedTransfers) {
+                    MoneyTransferRequestPayload transfer = transfers.get(i);
+                    insertStmt.setString(1, transfer.getSenderAccountNumber());
+                    insertStmt.setString(2, transfer.getReceiverAccountNumber());
+                    insertStmt.setBigDecimal(3, transfer.getAmount().toBigDecimal());
+                    if (ledgerSequences != null) {
+                        insertStmt.setLong(4, ledgerSequences[i]);
+                    } else {
+                        insertStmt.setNull(4, Types.BIGINT);
+                    }
+                    insertStmt.addBatch();
+                }
+                insertStmt.executeBatch();
+            }
+
+            conn.commit();
+            logger.info("Successfully applied {} of {} transfers in a batch.", acceptedTransfers.size(), transfers.size());
+            return results;
+        } catch (SQLException e) {
+            rollback(conn);
+            logger.error("Error during batch of {} money transfers: {}", transfers.size(), e.getMessage());
+            throw new BankAccountRepositoryException("Failed to transfer money.", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException closeEx) {
+                    logger.error("Error closing connection: {}", closeEx.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Locks the given accounts, in account number order, for the rest of the transaction.
+     *
+     * @return The balances of the accounts that exist, by account number.
+     */
+    private Map<String, Money> lockBalances(Connection conn, SortedSet<String> accountNumbers) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(accountNumbers.size(), "?"));
+        String query = "SELECT account_number, balance FROM bank_account WHERE account_number IN (" + placeholders + ") "
+                + "ORDER BY account_number FOR UPDATE";
+        Map<String, Money> balances = new HashMap<>(accountNumbers.size() * 2);
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            for (String accountNumber : accountNumbers) {
+                stmt.setString(index++, accountNumber);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    balances.put(rs.getString("account_number"), Money.of(rs.getBigDecimal("balance")));
+                }
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Retrieves one page of the transfers sent or received by a bank account, newest first, ordered by
+     * {@code (transfer_date, id)}.
+     * <p>
+     * The sent and received transfers are read as two range scans of the covering indexes
+     * {@code idx_transfer_sender_history} and {@code idx_transfer_receiver_history}, each limited to one page,
+     * and merged, so the cost of a page does not depend on the size of the table or on how deep the page is.
+     *
+     * @param accountNumber The account number of the bank account.
+     * @param from          The inclusive lower bound of the transfer date, or {@code null} for no bound.
+     * @param to            The exclusive upper bound of the transfer date, or {@code null} for no bound.
+     * @param beforeDate    The transfer date of the last transfer of the previous page, or {@code null} for the first page.
+     * @param beforeId      The ID of the last transfer of the previous page, ignored if {@code beforeDate} is {@code null}.
+     * @param limit         The maximum number of transfers to return.
+     * @return A list of at most {@code limit} {@link TransferDto} objects.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public List<TransferDto> getTransfersByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                                         LocalDateTime beforeDate, long beforeId, int limit) {
+        StringBuilder conditions = new StringBuilder();
+        if (from != null) {
+            conditions.append(" AND transfer_date >= ?");
+        }
+        if (to != null) {
+            conditions.append(" AND transfer_date < ?");
+        }
+        if (beforeDate != null) {
+            conditions.append(" AND (transfer_date < ? OR (transfer_date = ? AND id < ?))");
+        }
+        String select = "SELECT id, sender_account_number, receiver_account_number, amount, transfer_date FROM transfer" +
+                " WHERE %s = ?" + conditions + " ORDER BY transfer_date DESC, id DESC LIMIT ?";
+        String query = "(" + select.formatted("sender_account_number") + ") UNION ALL (" +
+                select.formatted("receiver_account_number") + ") ORDER BY transfer_date DESC, id DESC LIMIT ?";
+
+        List<TransferDto> transfers = new ArrayList<>(limit);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            for (int i = 0; i < 2; i++) {
+                stmt.setString(index++, accountNumber);
+                if (from != null) {
+                    stmt.setTimestamp(index++, Timestamp.valueOf(from));
+                }
+                if (to != null) {
+                    stmt.setTimestamp(index++, Timestamp.valueOf(to));
+                }
+                if (beforeDate != null) {
+                    stmt.setTimestamp(index++, Timestamp.valueOf(beforeDate));
+                    stmt.setTimestamp(index++, Timestamp.valueOf(beforeDate));
+                    stmt.setLong(index++, beforeId);
+                }
+                stmt.setInt(index++, limit);
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transfers.add(new TransferDto(
+                            rs.getLong("id"),
+                            rs.getString("sender_account_number"),
+                            rs.getString("receiver_account_number"),
+                            Money.of(rs.getBigDecimal("amount")),
+                            rs.getTimestamp("transfer_date").toLocalDateTime()
+                    ));
+                }
+                logger.info("Successfully retrieved {} transfers of bank account {} from the database.", transfers.size(), accountNumber);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while fetching transfers of bank account {}: {}", accountNumber, e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to fetch transfers of bank account: " + accountNumber, e);
+        }
+        return transfers;
+    }
+
+    /**
+     * Reserves a block of account number sequence values. The block is committed right away, so values of a
+     * block that is never used up are skipped rather than handed out twice.
+     *
+     * @param size The number of values to reserve.
+     * @return The first value of the reserved block.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public long leaseAccountNumberBlock(int size) {
+        String updateQuery = "UPDATE account_number_sequence SET next_value = next_value + ? WHERE id = 1";
+        String selectQuery = "SELECT next_value FROM account_number_sequence WHERE id = 1";
+
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement updateStmt = conn.prepareStatement(updateQuery)) {
+                updateStmt.setInt(1, size);
+                if (updateStmt.executeUpdate() == 0) {
+                    throw new SQLException("The account number sequence is not initialized.");
+                }
+            }
+            long nextValue;
+            try (PreparedStatement selectStmt = conn.prepareStatement(selectQuery);
+                 ResultSet rs = selectStmt.executeQuery()) {
+                rs.next();
+                nextValue = rs.getLong(1);
+            }
+
+            conn.commit();
+            logger.info("Leased account number block [{}, {}).", nextValue - size, nextValue);
+            return nextValue - size;
+        } catch (SQLException e) {
+            rollback(conn);
+            logger.error("Database error while leasing an account number block: {}", e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to lease an account number block", e);
         } finally {
             if (conn != null) {
                 try {
@@ -234,4 +621,78 @@ public class BankAccountRepository {
         }
     }
 
+    /**
+     * Retrieves the highest ledger sequence number applied to the database.
+     *
+     * @return The last applied ledger sequence number, or {@code 0} if no ledger transfer was applied yet.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public long getLastLedgerSequence() {
+        String query = "SELECT COALESCE(MAX(ledger_sequence), 0) FROM transfer";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            logger.error("Database error while fetching the last ledger sequence: {}", e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to fetch the last ledger sequence", e);
+        }
+    }
+
+    /**
+     * Removes money from an account, provided its balance covers the amount.
+     */
+    private void debit(Connection conn, String accountNumber, BigDecimal amount)
+            throws SQLException, BankAccountNotFoundException, InsufficientBalanceException {
+        String debitQuery = "UPDATE bank_account SET balance = balance - ? WHERE account_number = ? AND balance >= ?";
+        try (PreparedStatement debitStmt = conn.prepareStatement(debitQuery)) {
+            debitStmt.setBigDecimal(1, amount);
+            debitStmt.setString(2, accountNumber);
+            debitStmt.setBigDecimal(3, amount);
+            if (debitStmt.executeUpdate() == 0) {
+                // Only a rejected debit needs another look to tell a missing account from a low balance.
+                if (!existsByAccountNumber(conn, accountNumber)) {
+                    throw new BankAccountNotFoundException("Bank account does not exist.");
+                }
+                throw new InsufficientBalanceException("Your balance is insufficient for this transaction.");
+            }
+        }
+    }
+
+    /**
+     * Adds money to an account.
+     */
+    private void credit(Connection conn, String accountNumber, BigDecimal amount)
+            throws SQLException, BankAccountNotFoundException {
+        String creditQuery = "UPDATE bank_account SET balance = balance + ? WHERE account_number = ?";
+        try (PreparedStatement creditStmt = conn.prepareStatement(creditQuery)) {
+            creditStmt.setBigDecimal(1, amount);
+            creditStmt.setString(2, accountNumber);
+            if (creditStmt.executeUpdate() == 0) {
+                throw new BankAccountNotFoundException("Bank account does not exist.");
+            }
+        }
+    }
+
+    private boolean existsByAccountNumber(Connection conn, String accountNumber) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM bank_account WHERE account_number = ?")) {
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                logger.error("Error during transaction rollback: {}", rollbackEx.getMessage());
+            }
+        }
+    }
+
 }
@@ -3,50 +3,99 @@ package com.github.leloxo.bankserver.repository;
 import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
 import com.github.leloxo.bankserver.model.customer.Customer;
 import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
+@Profile("!reactive")
+@Timed(value = "bank.repository", description = "Repository method calls", histogram = true)
 public class CustomerRepository {
     private static final Logger logger = LoggerFactory.getLogger(CustomerRepository.class);
 
+    private final DataSource dataSource;
+
+    public CustomerRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
     /**
-     * Retrieves a list of all customers from the database.
+     * Retrieves one page of customers ordered by ID.
      *
-     * @return A list of all customers.
+     * @param afterId The ID of the last customer of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of customers to return.
+     * @return A list of at most {@code limit} customers with an ID greater than {@code afterId}.
      * @throws CustomerRepositoryException If a database error occurs.
      */
-    public List<CustomerDto> getCustomers() {
-        String query = "SELECT id, first_name, last_name, email, created_at FROM customer";
-        List<CustomerDto> customers = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                CustomerDto customer = new CustomerDto(
-                        rs.getLong("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getTimestamp("created_at").toLocalDateTime()
-                );
-                customers.add(customer);
+    public List<CustomerDto> getCustomers(long afterId, int limit) {
+        String query = "SELECT id, first_name, last_name, email, created_at FROM customer WHERE id > ? ORDER BY id LIMIT ?";
+        List<CustomerDto> customers = new ArrayList<>(limit);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    customers.add(mapCustomerDto(rs));
+                }
+                logger.info("Successfully retrieved {} customers after id {} from the database.", customers.size(), afterId);
             }
-            logger.info("Successfully retrieved {} customers from the database.", customers.size());
         } catch (SQLException e) {
-            logger.error("Database error while fetching all customers: {}", e.getMessage(), e);
-            throw new CustomerRepositoryException("Failed to fetch all customers", e);
+            logger.error("Database error while fetching customers after id {}: {}", afterId, e.getMessage(), e);
+            throw new CustomerRepositoryException("Failed to fetch customers", e);
         }
         return customers;
     }
 
+    /**
+     * Passes every customer to {@code consumer} in ID order while the rows are read from a forward-only
+     * result set, so that the table is never held in memory as a whole.
+     *
+     * @param consumer The consumer receiving each {@link CustomerDto}.
+     * @return The number of customers passed to the consumer.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public long streamCustomers(Consumer<CustomerDto> consumer) {
+        String query = "SELECT id, first_name, last_name, email, created_at FROM customer ORDER BY id";
+        long count = 0;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DatabaseConnection.STREAM_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapCustomerDto(rs));
+                    count++;
+                }
+                logger.info("Successfully streamed {} customers from the database.", count);
+            }
+        } catch (SQLException e) {
+            logger.error("Database error while streaming customers: {}", e.getMessage(), e);
+            throw new CustomerRepositoryException("Failed to stream customers", e);
+        }
+        return count;
+    }
+
+    private CustomerDto mapCustomerDto(ResultSet rs) throws SQLException {
+        return new CustomerDto(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        );
+    }
+
     /**
      * Saves a new customer to the database.
      *
@@ -56,7 +105,7 @@ public class CustomerRepository {
      */
     public Customer saveCustomer(Customer customer) {
         String query = "INSERT INTO customer (first_name, last_name, email, password, created_at) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
             PreparedStatement stmt = conn.prepareStatement(query, PreparedStatement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, customer.getFirstName());
@@ -93,7 +142,7 @@ public class CustomerRepository {
      */
     public Optional<Customer> getCustomerByEmail(String email) {
         String query = "SELECT * FROM customer WHERE email = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
             PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, email);
@@ -127,9 +176,9 @@ public class CustomerRepository {
      * @return An Optional containing the customer if found, or empty if not found.
      * @throws CustomerRepositoryException If a database error occurs.
      */
-    public static Optional<Customer> getCustomerById(Long id) {
+    public Optional<Customer> getCustomerById(Long id) {
         String query = "SELECT * FROM customer WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
             PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setLong(1, id);
@@ -164,7 +213,7 @@ public class CustomerRepository {
      */
     public void updateCustomer(String email, CustomerDto updatedCustomer) {
         String query = "UPDATE customer SET first_name = ?, last_name = ?, email = ? WHERE email = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
             PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, updatedCustomer.getFirstName());
@@ -184,6 +233,35 @@ public class CustomerRepository {
         }
     }
 
+    /**
+     * Replaces the password hash of a customer, unless it was changed since {@code oldHashedPassword} was read.
+     *
+     * @param id                The ID of the customer.
+     * @param oldHashedPassword The password hash that is replaced.
+     * @param newHashedPassword The new password hash.
+     * @return {@code true} if the hash was replaced.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public boolean updatePassword(Long id, String oldHashedPassword, String newHashedPassword) {
+        String query = "UPDATE customer SET password = ? WHERE id = ? AND password = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, newHashedPassword);
+            stmt.setLong(2, id);
+            stmt.setString(3, oldHashedPassword);
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                logger.info("Successfully updated password hash of customer with ID: {}", id);
+            }
+            return updated;
+        } catch (SQLException e) {
+            logger.error("Database error while updating password hash of customer with ID {}: {}", id, e.getMessage(), e);
+            throw new CustomerRepositoryException("Failed to update password hash of customer with ID: " + id, e);
+        }
+    }
+
     /**
      * Deletes a customer by their email.
      *
@@ -192,7 +270,7 @@ public class CustomerRepository {
      */
     public void deleteCustomer(String email) {
         String query = "DELETE FROM customer WHERE email = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = dataSource.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, email);
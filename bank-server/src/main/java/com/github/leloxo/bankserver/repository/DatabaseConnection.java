@@ -1,57 +1,148 @@
 package com.github.leloxo.bankserver.repository;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Properties;
 
+/**
+ * Builds the pooled {@link javax.sql.DataSource} used by the repositories.
+ * <p>
+ * Connection settings are read from {@code config.properties}. Besides {@code db.url}, {@code db.user}
+ * and {@code db.password} the following optional pool settings are supported:
+ * <ul>
+ *     <li>{@code db.pool.maxSize} - maximum number of connections (default 10)</li>
+ *     <li>{@code db.pool.minIdle} - minimum number of idle connections (default 2)</li>
+ *     <li>{@code db.pool.idleTimeoutMs} - idle time after which surplus connections are evicted (default 600000)</li>
+ *     <li>{@code db.pool.maxLifetimeMs} - maximum lifetime of a connection (default 1800000)</li>
+ *     <li>{@code db.pool.connectionTimeoutMs} - maximum time to wait for a free connection (default 3000)</li>
+ *     <li>{@code db.pool.validationTimeoutMs} - maximum time for a connection validity check (default 1000)</li>
+ *     <li>{@code db.pool.leakDetectionThresholdMs} - time after which a borrowed connection is reported as leaked (default 10000)</li>
+ * </ul>
+ * The pool registers its MBean ({@code com.zaxxer.hikari:type=Pool (bank-db-pool)}), which exposes
+ * active, idle, total and waiting connection gauges.
+ * <p>
+ * The reactive server profile connects through the non-blocking R2DBC pool built by
+ * {@link #createConnectionPool(Properties)} instead. It reads the R2DBC URL from {@code r2dbc.url}, e.g.
+ * {@code r2dbc:mysql://localhost:3306/bank_db}, and uses the same credentials and pool settings.
+ */
 public class DatabaseConnection {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseConnection.class);
 
-    private static String URL;
-    private static String USER;
-    private static String PASSWORD;
+    public static final String POOL_NAME = "bank-db-pool";
+    /** Number of rows fetched per round trip when streaming large result sets. */
+    public static final int STREAM_FETCH_SIZE = 500;
+    private static final String CONFIG_FILE = "config.properties";
 
-    static {
-        try {
-            loadProperties();
-        } catch (Exception e) {
-            logger.error("Failed to load database properties: {}", e.getMessage());
-            throw new RuntimeException("Unable to initialize DatabaseConnection", e);
-        }
-    }
-
-    public static void loadProperties() throws Exception {
+    public static Properties loadProperties() throws IOException {
         Properties properties = new Properties();
 
-        try (InputStream input = DatabaseConnection.class.getClassLoader().getResourceAsStream("config.properties")) {
+        try (InputStream input = DatabaseConnection.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
             if (input == null) {
-                throw new FileNotFoundException("config.properties not found in classpath");
+                throw new FileNotFoundException(CONFIG_FILE + " not found in classpath");
             }
             properties.load(input);
         }
 
-        URL = properties.getProperty("db.url");
-        USER = properties.getProperty("db.user");
-        PASSWORD = properties.getProperty("db.password");
-
         logger.info("Database properties loaded successfully.");
+        return properties;
     }
 
-    public static Connection getConnection() throws SQLException {
-        try {
-            Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            logger.info("Database connection established successfully.");
-            return connection;
-        } catch (SQLException e) {
-            logger.error("Failed to establish database connection: {}", e.getMessage());
-            throw e;
+    public static HikariDataSource createDataSource(Properties properties) {
+        String url = properties.getProperty("db.url");
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(POOL_NAME);
+        config.setJdbcUrl(url);
+        config.setUsername(properties.getProperty("db.user"));
+        config.setPassword(properties.getProperty("db.password"));
+
+        config.setMaximumPoolSize(getInt(properties, "db.pool.maxSize", 10));
+        config.setMinimumIdle(getInt(properties, "db.pool.minIdle", 2));
+        config.setIdleTimeout(getLong(properties, "db.pool.idleTimeoutMs", 600_000L));
+        config.setMaxLifetime(getLong(properties, "db.pool.maxLifetimeMs", 1_800_000L));
+        config.setConnectionTimeout(getLong(properties, "db.pool.connectionTimeoutMs", 3_000L));
+        config.setValidationTimeout(getLong(properties, "db.pool.validationTimeoutMs", 1_000L));
+        config.setLeakDetectionThreshold(getLong(properties, "db.pool.leakDetectionThresholdMs", 10_000L));
+        config.setRegisterMbeans(true);
+
+        if (url != null && url.startsWith("jdbc:mysql:")) {
+            // Let the driver cache prepared statements per connection now that connections are reused.
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            // Send JDBC batches as multi-row statements instead of one round trip per row.
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            // Honour Statement.setFetchSize so streamed result sets are read in chunks instead of all at once.
+            config.addDataSourceProperty("useCursorFetch", "true");
         }
+
+        HikariDataSource dataSource = new HikariDataSource(config);
+        logger.info("Database connection pool {} started with a maximum of {} connections.",
+                POOL_NAME, config.getMaximumPoolSize());
+        return dataSource;
     }
 
-}
\ No newline at end of file
+    /**
+     * Builds the R2DBC connection pool used by the reactive repositories. Its statistics are published over JMX
+     * under {@code io.r2dbc.pool:type=ConnectionPool,name=bank-db-pool}.
+     */
+    public static ConnectionPool createConnectionPool(Properties properties) {
+        String url = properties.getProperty("r2dbc.url");
+        if (url == null) {
+            throw new IllegalArgumentException("r2dbc.url is required for the reactive server profile.");
+        }
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getProperty("db.user"));
+        String password = properties.getProperty("db.password");
+        if (password != null && !password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        if (url.startsWith("r2dbc:mysql:")) {
+            // Same as useServerPrepStmts/cachePrepStmts of the JDBC pool.
+            options.option(Option.valueOf("useServerPrepareStatement"), "true");
+            options.option(Option.valueOf("prepareCacheSize"), "250");
+        }
+
+        int maxSize = getInt(properties, "db.pool.maxSize", 10);
+        int minIdle = Math.min(getInt(properties, "db.pool.minIdle", 2), maxSize);
+        ConnectionPoolConfiguration config = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name(POOL_NAME)
+                .initialSize(minIdle)
+                .minIdle(minIdle)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMillis(getLong(properties, "db.pool.idleTimeoutMs", 600_000L)))
+                .maxLifeTime(Duration.ofMillis(getLong(properties, "db.pool.maxLifetimeMs", 1_800_000L)))
+                .maxAcquireTime(Duration.ofMillis(getLong(properties, "db.pool.connectionTimeoutMs", 3_000L)))
+                .maxValidationTime(Duration.ofMillis(getLong(properties, "db.pool.validationTimeoutMs", 1_000L)))
+                .registerJmx(true)
+                .build();
+
+        ConnectionPool connectionPool = new ConnectionPool(config);
+        logger.info("R2DBC connection pool {} started with a maximum of {} connections.", POOL_NAME, maxSize);
+        return connectionPool;
+    }
+
+    private static int getInt(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long getLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+}
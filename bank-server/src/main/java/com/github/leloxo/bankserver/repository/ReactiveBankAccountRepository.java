@@ -0,0 +1,308 @@
+package com.github.leloxo.bankserver.repository;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link BankAccountRepository} for the reactive server profile.
+ * Statements of one transaction run on the same connection, which is bound to the subscription by the
+ * {@link TransactionalOperator}, so no thread is held while waiting for the database.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveBankAccountRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBankAccountRepository.class);
+
+    private static final String SELECT_BANK_ACCOUNT_WITH_CUSTOMER =
+            "SELECT b.id, b.account_number, b.balance, b.created_at, " +
+            "c.id AS customer_id, c.first_name, c.last_name, c.email, c.created_at AS customer_created_at " +
+            "FROM bank_account b JOIN customer c ON c.id = b.customer_id";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveBankAccountRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Retrieves one page of bank accounts, together with their customers, ordered by ID.
+     *
+     * @param afterId The ID of the last bank account of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of bank accounts to return.
+     * @return At most {@code limit} bank accounts with an ID greater than {@code afterId}.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Flux<BankAccountDto> getBankAccounts(long afterId, int limit) {
+        return Flux.defer(() -> {
+                    Map<Long, CustomerDto> customers = new HashMap<>();
+                    return databaseClient.sql(SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " WHERE b.id > :afterId ORDER BY b.id LIMIT :limit")
+                            .bind("afterId", afterId)
+                            .bind("limit", limit)
+                            .map(row -> mapBankAccountDto(row, customers))
+                            .all();
+                })
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while fetching bank accounts after id {}: {}", afterId, e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to fetch bank accounts", e);
+                });
+    }
+
+    /**
+     * Emits every bank account, together with its customer, in ID order as the rows arrive, so that the table is
+     * never held in memory as a whole. Rows are only requested as fast as the subscriber consumes them.
+     *
+     * @return All bank accounts.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Flux<BankAccountDto> streamBankAccounts() {
+        return databaseClient.sql(SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " ORDER BY b.id")
+                .map(row -> mapBankAccountDto(row, null))
+                .all()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while streaming bank accounts: {}", e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to stream bank accounts", e);
+                });
+    }
+
+    /**
+     * Retrieves the bank accounts of a customer.
+     *
+     * @param id The ID of the customer.
+     * @return The bank accounts of the customer.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Flux<BankAccountDto> getBankAccountsByCustomerId(Long id) {
+        return Flux.defer(() -> {
+                    Map<Long, CustomerDto> customers = new HashMap<>();
+                    return databaseClient.sql(SELECT_BANK_ACCOUNT_WITH_CUSTOMER + " WHERE b.customer_id = :customerId")
+                            .bind("customerId", id)
+                            .map(row -> mapBankAccountDto(row, customers))
+                            .all();
+                })
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while searching for bank account with customer_id {}: {}", id, e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to find bank account with customer_id: " + id, e);
+                });
+    }
+
+    /**
+     * Retrieves the account numbers of the bank accounts of a customer, without reading the rows.
+     *
+     * @param customerId The ID of the customer.
+     * @return The account numbers of the customer's bank accounts.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Flux<String> getAccountNumbersByCustomerId(Long customerId) {
+        return databaseClient.sql("SELECT account_number FROM bank_account WHERE customer_id = :customerId")
+                .bind("customerId", customerId)
+                .map(row -> row.get("account_number", String.class))
+                .all()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while searching for account numbers of customer_id {}: {}", customerId, e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to find account numbers of customer_id: " + customerId, e);
+                });
+    }
+
+    /**
+     * Checks whether a bank account with the account number exists, without reading the row.
+     *
+     * @param accountNumber The account number of the bank account.
+     * @return {@code true} if the bank account exists.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Mono<Boolean> existsByAccountNumber(String accountNumber) {
+        return databaseClient.sql("SELECT 1 FROM bank_account WHERE account_number = :accountNumber")
+                .bind("accountNumber", accountNumber)
+                .fetch()
+                .first()
+                .hasElement()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while checking bank account with account_number {}: {}", accountNumber, e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to check bank account with account_number: " + accountNumber, e);
+                });
+    }
+
+    /**
+     * Saves a new bank account to the database.
+     *
+     * @param bankAccount The bank account to be saved.
+     * @return The saved bank account with a generated ID.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Mono<BankAccount> saveBankAccount(BankAccount bankAccount) {
+        String query = "INSERT INTO bank_account (account_number, customer_id, balance, created_at) " +
+                "VALUES (:accountNumber, :customerId, :balance, :createdAt)";
+        return databaseClient.sql(query)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("accountNumber", bankAccount.getAccountNumber())
+                .bind("customerId", bankAccount.getCustomer().getId())
+                .bind("balance", bankAccount.getBalance().toBigDecimal())
+                .bind("createdAt", bankAccount.getCreatedAt())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    bankAccount.setId(id);
+                    logger.info("Successfully saved bank account with number: {}", bankAccount.getAccountNumber());
+                    return bankAccount;
+                })
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while saving bank account with number {}: {}", bankAccount.getAccountNumber(), e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to save bank account with account number: " + bankAccount.getAccountNumber(), e);
+                });
+    }
+
+    /**
+     * Transfers money between two bank accounts in a single transaction.
+     * <p>
+     * The sender is only debited if its balance covers the amount, so concurrent transfers cannot overdraw
+     * an account. Both rows are updated in account number order so that opposing transfers cannot deadlock.
+     *
+     * @param senderAccountNumber   The account number of the sender.
+     * @param receiverAccountNumber The account number of the receiver.
+     * @param amount                The amount to be transferred.
+     * @return A {@link Mono} completing once the transaction is committed, or failing with a
+     * {@link BankAccountNotFoundException} if the sender or receiver account does not exist, an
+     * {@link InsufficientBalanceException} if the sender's balance is lower than the amount, or a
+     * {@link BankAccountRepositoryException} if a database error occurs. The transaction is rolled back on failure.
+     */
+    public Mono<Void> transferMoney(String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        BigDecimal value = amount.toBigDecimal();
+        Mono<Void> balanceUpdates = senderAccountNumber.compareTo(receiverAccountNumber) < 0
+                ? debit(senderAccountNumber, value).then(credit(receiverAccountNumber, value))
+                : credit(receiverAccountNumber, value).then(debit(senderAccountNumber, value));
+        Mono<Void> insertTransfer = databaseClient.sql("INSERT INTO transfer (sender_account_number, receiver_account_number, amount) " +
+                        "VALUES (:sender, :receiver, :amount)")
+                .bind("sender", senderAccountNumber)
+                .bind("receiver", receiverAccountNumber)
+                .bind("amount", value)
+                .then();
+
+        return balanceUpdates
+                .then(insertTransfer)
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> logger.info("Successfully transferred {}€ from {} to {}", amount, senderAccountNumber, receiverAccountNumber))
+                .doOnError(e -> e instanceof BankAccountNotFoundException || e instanceof InsufficientBalanceException,
+                        e -> logger.warn("Money transfer from {} to {} rejected: {}", senderAccountNumber, receiverAccountNumber, e.getMessage()))
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Error during money transfer from {} to {}: {}", senderAccountNumber, receiverAccountNumber, e.getMessage());
+                    return new BankAccountRepositoryException("Failed to transfer money.", e);
+                });
+    }
+
+    /**
+     * Reserves a block of account number sequence values. The block is committed right away, so values of a
+     * block that is never used up are skipped rather than handed out twice.
+     *
+     * @param size The number of values to reserve.
+     * @return The first value of the reserved block.
+     * @throws BankAccountRepositoryException If a database error occurs.
+     */
+    public Mono<Long> leaseAccountNumberBlock(int size) {
+        Mono<Long> update = databaseClient.sql("UPDATE account_number_sequence SET next_value = next_value + :size WHERE id = 1")
+                .bind("size", size)
+                .fetch()
+                .rowsUpdated();
+        Mono<Long> select = databaseClient.sql("SELECT next_value FROM account_number_sequence WHERE id = 1")
+                .map(row -> row.get("next_value", Long.class))
+                .one();
+
+        return update
+                .flatMap(rowsUpdated -> rowsUpdated == 0
+                        ? Mono.<Long>error(new BankAccountRepositoryException("The account number sequence is not initialized.", null))
+                        : select)
+                .as(transactionalOperator::transactional)
+                .map(nextValue -> {
+                    logger.info("Leased account number block [{}, {}).", nextValue - size, nextValue);
+                    return nextValue - size;
+                })
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while leasing an account number block: {}", e.getMessage(), e);
+                    return new BankAccountRepositoryException("Failed to lease an account number block", e);
+                });
+    }
+
+    /**
+     * Removes money from an account, provided its balance covers the amount.
+     */
+    private Mono<Void> debit(String accountNumber, BigDecimal amount) {
+        return databaseClient.sql("UPDATE bank_account SET balance = balance - :amount WHERE account_number = :accountNumber AND balance >= :amount")
+                .bind("amount", amount)
+                .bind("accountNumber", accountNumber)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(rowsUpdated -> {
+                    if (rowsUpdated > 0) {
+                        return Mono.empty();
+                    }
+                    // Only a rejected debit needs another look to tell a missing account from a low balance.
+                    return existsByAccountNumber(accountNumber).flatMap(exists -> Mono.error(exists
+                            ? new InsufficientBalanceException("Your balance is insufficient for this transaction.")
+                            : new BankAccountNotFoundException("Bank account does not exist.")));
+                });
+    }
+
+    /**
+     * Adds money to an account.
+     */
+    private Mono<Void> credit(String accountNumber, BigDecimal amount) {
+        return databaseClient.sql("UPDATE bank_account SET balance = balance + :amount WHERE account_number = :accountNumber")
+                .bind("amount", amount)
+                .bind("accountNumber", accountNumber)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(rowsUpdated -> rowsUpdated > 0
+                        ? Mono.empty()
+                        : Mono.error(new BankAccountNotFoundException("Bank account does not exist.")));
+    }
+
+    /**
+     * Converts a row of {@link #SELECT_BANK_ACCOUNT_WITH_CUSTOMER} into a {@link BankAccountDto} object.
+     * Customers that were already mapped for a previous row are reused from {@code customers}.
+     */
+    private static BankAccountDto mapBankAccountDto(Readable row, Map<Long, CustomerDto> customers) {
+        Long customerId = row.get("customer_id", Long.class);
+        CustomerDto customerDto = customers != null ? customers.get(customerId) : null;
+        if (customerDto == null) {
+            customerDto = new CustomerDto(
+                    customerId,
+                    row.get("first_name", String.class),
+                    row.get("last_name", String.class),
+                    row.get("email", String.class),
+                    row.get("customer_created_at", LocalDateTime.class)
+            );
+            if (customers != null) {
+                customers.put(customerId, customerDto);
+            }
+        }
+
+        return new BankAccountDto(
+                row.get("id", Long.class),
+                row.get("account_number", String.class),
+                customerDto,
+                Money.of(row.get("balance", BigDecimal.class)),
+                row.get("created_at", LocalDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.leloxo.bankserver.repository;
+
+import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link CustomerRepository} for the reactive server profile.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveCustomerRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCustomerRepository.class);
+
+    private static final String SELECT_CUSTOMER_DTO = "SELECT id, first_name, last_name, email, created_at FROM customer";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCustomerRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Retrieves one page of customers ordered by ID.
+     *
+     * @param afterId The ID of the last customer of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of customers to return.
+     * @return At most {@code limit} customers with an ID greater than {@code afterId}.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public Flux<CustomerDto> getCustomers(long afterId, int limit) {
+        return databaseClient.sql(SELECT_CUSTOMER_DTO + " WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveCustomerRepository::mapCustomerDto)
+                .all()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while fetching customers after id {}: {}", afterId, e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to fetch customers", e);
+                });
+    }
+
+    /**
+     * Emits every customer in ID order as the rows arrive, so that the table is never held in memory as a whole.
+     * Rows are only requested as fast as the subscriber consumes them.
+     *
+     * @return All customers.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public Flux<CustomerDto> streamCustomers() {
+        return databaseClient.sql(SELECT_CUSTOMER_DTO + " ORDER BY id")
+                .map(ReactiveCustomerRepository::mapCustomerDto)
+                .all()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while streaming customers: {}", e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to stream customers", e);
+                });
+    }
+
+    /**
+     * Saves a new customer to the database.
+     *
+     * @param customer The customer to be saved.
+     * @return The saved customer with a generated ID.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public Mono<Customer> saveCustomer(Customer customer) {
+        String query = "INSERT INTO customer (first_name, last_name, email, password, created_at) " +
+                "VALUES (:firstName, :lastName, :email, :password, :createdAt)";
+        return databaseClient.sql(query)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("firstName", customer.getFirstName())
+                .bind("lastName", customer.getLastName())
+                .bind("email", customer.getEmail())
+                .bind("password", customer.getPassword())
+                .bind("createdAt", customer.getCreatedAt())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    customer.setId(id);
+                    logger.info("Successfully saved customer with email: {}", customer.getEmail());
+                    return customer;
+                })
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while saving customer with email {}: {}", customer.getEmail(), e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to save customer with email: " + customer.getEmail(), e);
+                });
+    }
+
+    /**
+     * Finds a customer by their email.
+     *
+     * @param email The email of the customer to be found.
+     * @return The customer, or an empty {@link Mono} if not found.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public Mono<Customer> getCustomerByEmail(String email) {
+        return databaseClient.sql("SELECT * FROM customer WHERE email = :email")
+                .bind("email", email)
+                .map(row -> new Customer(
+                        row.get("id", Long.class),
+                        row.get("first_name", String.class),
+                        row.get("last_name", String.class),
+                        row.get("email", String.class),
+                        row.get("password", String.class),
+                        row.get("created_at", LocalDateTime.class)
+                ))
+                .one()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while finding customer with email {}: {}", email, e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to find customer with email: " + email, e);
+                });
+    }
+
+    /**
+     * Updates an existing customer in the database.
+     *
+     * @param email           The current email of the customer.
+     * @param updatedCustomer The customer object containing updated details.
+     * @throws CustomerRepositoryException If a database error occurs or no customer was updated.
+     */
+    public Mono<Void> updateCustomer(String email, CustomerDto updatedCustomer) {
+        String query = "UPDATE customer SET first_name = :firstName, last_name = :lastName, email = :newEmail WHERE email = :email";
+        return databaseClient.sql(query)
+                .bind("firstName", updatedCustomer.getFirstName())
+                .bind("lastName", updatedCustomer.getLastName())
+                .bind("newEmail", updatedCustomer.getEmail())
+                .bind("email", email)
+                .fetch()
+                .rowsUpdated()
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while updating customer with email {}: {}", email, e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to update customer with email: " + email, e);
+                })
+                .flatMap(rowsUpdated -> {
+                    if (rowsUpdated == 0) {
+                        return Mono.error(new CustomerRepositoryException("No rows affected, failed to update customer with email: " + email, null));
+                    }
+                    logger.info("Successfully updated customer with email: {}", email);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Replaces the password hash of a customer, unless it was changed since {@code oldHashedPassword} was read.
+     *
+     * @param id                The ID of the customer.
+     * @param oldHashedPassword The password hash that is replaced.
+     * @param newHashedPassword The new password hash.
+     * @return {@code true} if the hash was replaced.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public Mono<Boolean> updatePassword(Long id, String oldHashedPassword, String newHashedPassword) {
+        return databaseClient.sql("UPDATE customer SET password = :newPassword WHERE id = :id AND password = :oldPassword")
+                .bind("newPassword", newHashedPassword)
+                .bind("id", id)
+                .bind("oldPassword", oldHashedPassword)
+                .fetch()
+                .rowsUpdated()
+                .map(rowsUpdated -> rowsUpdated > 0)
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while updating password hash of customer with ID {}: {}", id, e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to update password hash of customer with ID: " + id, e);
+                });
+    }
+
+    /**
+     * Deletes a customer by their email.
+     *
+     * @param email The email of the customer to be deleted.
+     * @throws CustomerRepositoryException If a database error occurs.
+     */
+    public Mono<Void> deleteCustomer(String email) {
+        return databaseClient.sql("DELETE FROM customer WHERE email = :email")
+                .bind("email", email)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(rowsUpdated -> {
+                    if (rowsUpdated > 0) {
+                        logger.info("Successfully deleted customer with email {}", email);
+                    } else {
+                        logger.warn("No customer with email {} found for deletion.", email);
+                    }
+                })
+                .onErrorMap(DataAccessException.class, e -> {
+                    logger.error("Database error while deleting customer with email {}: {}", email, e.getMessage(), e);
+                    return new CustomerRepositoryException("Failed to delete customer with email: " + email, e);
+                })
+                .then();
+    }
+
+    private static CustomerDto mapCustomerDto(Readable row) {
+        return new CustomerDto(
+                row.get("id", Long.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("created_at", LocalDateTime.class)
+        );
+    }
+}
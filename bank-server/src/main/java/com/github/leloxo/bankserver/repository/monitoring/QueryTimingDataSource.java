@@ -0,0 +1,283 @@
+package com.github.leloxo.bankserver.repository.monitoring;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Wraps the connections of a {@link DataSource} so that every statement is timed, and records the ones slower than
+ * the threshold of the {@link SlowQueryLog}.
+ * <p>
+ * The duration of a statement is the time spent in the database: executing it and, for queries, fetching the rows
+ * of its result. Time the caller spends processing the rows between fetches is not included. A query is recorded
+ * when its result set or statement is closed, or when the statement is executed again.
+ */
+public class QueryTimingDataSource implements DataSource, AutoCloseable {
+    private final DataSource target;
+    private final SlowQueryLog slowQueryLog;
+
+    public QueryTimingDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+        this.target = target;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(target.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(target.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+
+    /**
+     * Closes the wrapped data source, e.g. to shut down its connection pool.
+     */
+    @Override
+    public void close() throws Exception {
+        if (target instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryTimingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryTimingDataSource.invoke(connection, method, args);
+            // Covers createStatement, prepareStatement and prepareCall, whichever Statement subtype they return.
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private Object[] parameters = new Object[0];
+        private Object[] firstBatchParameters;
+        private int batchSize;
+        private Execution pending;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters = new Object[0];
+            } else if (name.equals("addBatch")) {
+                if (batchSize++ == 0) {
+                    firstBatchParameters = parameters.clone();
+                }
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            } else if (name.equals("getResultSet") && pending != null) {
+                ResultSet resultSet = (ResultSet) QueryTimingDataSource.invoke(statement, method, args);
+                return resultSet != null ? proxy(ResultSet.class, new ResultSetHandler(resultSet, pending)) : null;
+            } else if (name.equals("close")) {
+                finishPending();
+            }
+            return QueryTimingDataSource.invoke(statement, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, index);
+            }
+            parameters[index - 1] = value;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishPending();
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            boolean batch = method.getName().contains("Batch");
+            Execution execution = new Execution(sql, batch ? firstBatchParameters : parameters.clone(), batch ? batchSize : 0);
+            if (batch) {
+                firstBatchParameters = null;
+                batchSize = 0;
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryTimingDataSource.invoke(statement, method, args);
+            } catch (Throwable e) {
+                execution.databaseNanos += System.nanoTime() - start;
+                execution.finish();
+                throw e;
+            }
+            execution.databaseNanos += System.nanoTime() - start;
+
+            if (result instanceof ResultSet resultSet) {
+                execution.rows = 0;
+                pending = execution;
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, execution));
+            }
+            if (result instanceof Boolean isResultSet) {
+                if (isResultSet) {
+                    execution.rows = 0;
+                    pending = execution;
+                    return result;
+                }
+                execution.rows = statement.getUpdateCount();
+            } else if (result instanceof Number rows) {
+                execution.rows = rows.longValue();
+            } else if (result instanceof int[] counts) {
+                execution.rows = Arrays.stream(counts).filter(count -> count >= 0).asLongStream().sum();
+            } else if (result instanceof long[] counts) {
+                execution.rows = Arrays.stream(counts).filter(count -> count >= 0).sum();
+            }
+            execution.finish();
+            return result;
+        }
+
+        private void finishPending() {
+            if (pending != null) {
+                pending.finish();
+                pending = null;
+            }
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Execution execution;
+
+        ResultSetHandler(ResultSet resultSet, Execution execution) {
+            this.resultSet = resultSet;
+            this.execution = execution;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                try {
+                    Object hasRow = QueryTimingDataSource.invoke(resultSet, method, args);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                } finally {
+                    execution.databaseNanos += System.nanoTime() - start;
+                }
+            }
+            if (name.equals("close")) {
+                try {
+                    return QueryTimingDataSource.invoke(resultSet, method, args);
+                } finally {
+                    execution.finish();
+                }
+            }
+            return QueryTimingDataSource.invoke(resultSet, method, args);
+        }
+    }
+
+    /**
+     * One execution of a statement. Only used by the thread that executes the statement.
+     */
+    private class Execution {
+        private final long startedAtMillis = System.currentTimeMillis();
+        private final String sql;
+        private final Object[] parameters;
+        private final int batchSize;
+        private long databaseNanos;
+        private long rows = -1;
+        private boolean finished;
+
+        Execution(String sql, Object[] parameters, int batchSize) {
+            this.sql = sql;
+            this.parameters = parameters != null ? parameters : new Object[0];
+            this.batchSize = batchSize;
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (sql != null && slowQueryLog.isSlow(databaseNanos)) {
+                slowQueryLog.record(new SlowQuery(Instant.ofEpochMilli(startedAtMillis), databaseNanos / 1_000_000.0,
+                        SqlFormatter.normalize(sql), SqlFormatter.formatParameters(sql, parameters), batchSize, rows));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.leloxo.bankserver.repository.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that took longer than the slow query threshold.
+ */
+public class SlowQuery {
+    private final Instant executedAt;
+    private final double durationMillis;
+    private final String sql;
+    private final List<String> parameters;
+    private final int batchSize;
+    private final long rows;
+
+    public SlowQuery(Instant executedAt, double durationMillis, String sql, List<String> parameters, int batchSize, long rows) {
+        this.executedAt = executedAt;
+        this.durationMillis = durationMillis;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.batchSize = batchSize;
+        this.rows = rows;
+    }
+
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+
+    /**
+     * @return The time spent in the database: executing the statement and fetching the rows of its result.
+     */
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return The SQL with whitespace collapsed and literals replaced by {@code ?}.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return The bound parameters in order, with passwords masked. For a batch, the parameters of its first entry.
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return The number of parameter sets executed as one batch, or {@code 0} for a single execution.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return The number of rows read or updated, or {@code -1} if unknown.
+     */
+    public long getRows() {
+        return rows;
+    }
+}
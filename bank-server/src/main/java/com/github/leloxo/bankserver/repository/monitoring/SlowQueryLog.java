@@ -0,0 +1,124 @@
+package com.github.leloxo.bankserver.repository.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the statements slower than a threshold: the most recent ones in a fixed-size ring buffer, and the slowest ones
+ * since startup or the last {@link #clear()} in a heap of the same size.
+ * <p>
+ * Recording claims a ring buffer slot with a single atomic increment, so statements on different connections do not
+ * contend beyond that. Once the buffer is full the oldest entry is overwritten. Reads take a snapshot of the slots and
+ * may miss an entry that is being written at the same time. The heap is guarded by a lock, which is only taken for
+ * statements slower than the fastest statement it holds.
+ */
+public class SlowQueryLog {
+    private static final Comparator<SlowQuery> BY_DURATION = Comparator.comparingDouble(SlowQuery::getDurationMillis);
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong recorded = new AtomicLong();
+    private final PriorityQueue<SlowQuery> slowest;
+    private volatile double slowestCutoffMillis;
+
+    /**
+     * @param threshold The minimum duration of a statement to be recorded.
+     * @param capacity  The number of recent statements kept, and the number of slowest statements kept.
+     */
+    public SlowQueryLog(Duration threshold, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow query log capacity must be positive.");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.slowest = new PriorityQueue<>(capacity, BY_DURATION);
+    }
+
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    public void record(SlowQuery slowQuery) {
+        long index = recorded.getAndIncrement();
+        entries.set((int) (index % entries.length()), slowQuery);
+
+        if (slowQuery.getDurationMillis() <= slowestCutoffMillis) {
+            return;
+        }
+        synchronized (slowest) {
+            if (slowest.size() == entries.length()) {
+                if (slowQuery.getDurationMillis() <= slowest.peek().getDurationMillis()) {
+                    return;
+                }
+                slowest.poll();
+            }
+            slowest.add(slowQuery);
+            if (slowest.size() == entries.length()) {
+                slowestCutoffMillis = slowest.peek().getDurationMillis();
+            }
+        }
+    }
+
+    /**
+     * @return The recorded statements, most recent first.
+     */
+    public List<SlowQuery> getRecent() {
+        List<SlowQuery> recent = snapshot();
+        recent.sort(Comparator.comparing(SlowQuery::getExecutedAt).reversed());
+        return recent;
+    }
+
+    /**
+     * @return The slowest statements since startup or the last {@link #clear()}, slowest first. These include
+     * statements that are no longer among the most recent ones.
+     */
+    public List<SlowQuery> getSlowest() {
+        List<SlowQuery> snapshot;
+        synchronized (slowest) {
+            snapshot = new ArrayList<>(slowest);
+        }
+        snapshot.sort(BY_DURATION.reversed());
+        return snapshot;
+    }
+
+    /**
+     * @return The number of slow statements recorded since startup, including the ones already overwritten.
+     */
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        synchronized (slowest) {
+            slowest.clear();
+            slowestCutoffMillis = 0;
+        }
+    }
+
+    private List<SlowQuery> snapshot() {
+        List<SlowQuery> snapshot = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            SlowQuery slowQuery = entries.get(i);
+            if (slowQuery != null) {
+                snapshot.add(slowQuery);
+            }
+        }
+        return snapshot;
+    }
+}
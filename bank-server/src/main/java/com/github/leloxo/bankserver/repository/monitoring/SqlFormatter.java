@@ -0,0 +1,101 @@
+package com.github.leloxo.bankserver.repository.monitoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepares statements for the slow query log: normalizes their SQL and formats their parameters, masking the ones that
+ * hold passwords.
+ */
+final class SqlFormatter {
+    static final String MASK = "****";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "^\\s*INSERT\\s+INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARED_COLUMN = Pattern.compile("([\\w.]+)\\s*(?:=|<>|!=|<=|>=|<|>)\\s*$");
+
+    private SqlFormatter() {}
+
+    /**
+     * @return The SQL with its literals replaced by {@code ?} and its whitespace collapsed, so that statements that
+     * only differ in their values look the same.
+     */
+    static String normalize(String sql) {
+        String withoutStrings = STRING_LITERAL.matcher(sql).replaceAll("?");
+        String withoutNumbers = NUMBER_LITERAL.matcher(withoutStrings).replaceAll("?");
+        return WHITESPACE.matcher(withoutNumbers).replaceAll(" ").trim();
+    }
+
+    /**
+     * Formats the parameters bound to the placeholders of {@code sql}. A parameter is masked if the column it is
+     * compared with or inserted into is a password column, or if it looks like a BCrypt hash.
+     */
+    static List<String> formatParameters(String sql, Object[] parameters) {
+        String[] columns = placeholderColumns(sql);
+        List<String> formatted = new ArrayList<>(parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            String column = i < columns.length ? columns[i] : null;
+            formatted.add(format(parameters[i], column));
+        }
+        return formatted;
+    }
+
+    private static String format(Object parameter, String column) {
+        if (parameter == null) {
+            return "NULL";
+        }
+        String value = parameter.toString();
+        if ((column != null && column.toLowerCase(Locale.ROOT).contains("password")) || value.startsWith("$2")) {
+            return MASK;
+        }
+        if (value.length() > MAX_PARAMETER_LENGTH) {
+            value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return parameter instanceof CharSequence ? "'" + value + "'" : value;
+    }
+
+    /**
+     * @return The column of each {@code ?} placeholder outside of string literals, or {@code null} where it is
+     * unknown.
+     */
+    private static String[] placeholderColumns(String sql) {
+        List<String> insertColumns = List.of();
+        int valuesStart = -1;
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            insertColumns = Arrays.stream(insert.group(1).split(",")).map(String::trim).toList();
+            valuesStart = insert.end();
+        }
+
+        List<String> columns = new ArrayList<>();
+        int insertedValues = 0;
+        boolean inString = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inString = !inString;
+            } else if (c == '?' && !inString) {
+                String column = null;
+                if (valuesStart >= 0 && i >= valuesStart) {
+                    column = insertedValues < insertColumns.size() ? insertColumns.get(insertedValues) : null;
+                    insertedValues++;
+                } else {
+                    Matcher compared = COMPARED_COLUMN.matcher(sql.substring(Math.max(0, i - 64), i));
+                    if (compared.find()) {
+                        column = compared.group(1);
+                    }
+                }
+                columns.add(column);
+            }
+        }
+        return columns.toArray(String[]::new);
+    }
+}
@@ -6,51 +6,95 @@ import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceExc
 import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
 import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
 import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
 import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
 import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.model.bankaccount.TransferDto;
 import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.model.util.BloomFilter;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
 import com.github.leloxo.bankserver.model.validation.ValidationManager;
 import com.github.leloxo.bankserver.model.validation.ValidationType;
 import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import com.github.leloxo.bankserver.service.transfer.TransferEngine;
+import com.github.leloxo.bankserver.service.transfer.TransferMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
+@Profile("!reactive")
 public class BankAccountService {
     private static final Logger logger = LoggerFactory.getLogger(BankAccountService.class);
 
+    public static final int MAX_TRANSFER_BATCH_SIZE = 10_000;
+
     private final BankAccountRepository bankAccountRepository;
     private final CustomerService customerService;
     private final ValidationManager validationManager;
+    private final TransferEngine transferEngine;
+    private final BloomFilter accountNumberFilter;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final TransferMetrics transferMetrics;
 
-    public BankAccountService(BankAccountRepository bankAccountRepository, CustomerService customerService, ValidationManager validationManager) {
+    public BankAccountService(BankAccountRepository bankAccountRepository, CustomerService customerService, ValidationManager validationManager,
+                              TransferEngine transferEngine, BloomFilter accountNumberFilter, AccountNumberGenerator accountNumberGenerator,
+                              TransferMetrics transferMetrics) {
         this.bankAccountRepository = bankAccountRepository;
         this.customerService = customerService;
         this.validationManager = validationManager;
+        this.transferEngine = transferEngine;
+        this.accountNumberFilter = accountNumberFilter;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.transferMetrics = transferMetrics;
     }
 
     /**
-     * Retrieves all customers from the repository.
+     * Retrieves one page of bank accounts from the repository.
      *
-     * @return A list of all customers.
-     * @throws CustomerNotFoundException If the customer of the bank account is not found.
-     * @throws BankAccountRepositoryException If an error occurs while retrieving customers.
+     * @param afterId The ID of the last bank account of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of bank accounts to return.
+     * @return A list of bank accounts ordered by ID.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving bank accounts.
      */
-    public List<BankAccountDto> getBankAccounts() throws CustomerNotFoundException {
+    public List<BankAccountDto> getBankAccounts(long afterId, int limit) {
         try {
-            logger.info("Fetching all bank accounts.");
-            return bankAccountRepository.getBankAccounts();
+            logger.info("Fetching {} bank accounts after id {}.", limit, afterId);
+            return bankAccountRepository.getBankAccounts(afterId, limit);
         } catch (BankAccountRepositoryException e) {
             logger.error("Error while fetching bank accounts: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Passes all bank accounts to {@code consumer} as they are read from the repository.
+     *
+     * @param consumer The consumer receiving each bank account.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving bank accounts.
+     */
+    public void streamBankAccounts(Consumer<BankAccountDto> consumer) {
+        try {
+            logger.info("Streaming all bank accounts.");
+            bankAccountRepository.streamBankAccounts(consumer);
+        } catch (BankAccountRepositoryException e) {
+            logger.error("Error while streaming bank accounts: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * Retrieves a list of bank accounts associated with a customer based on the provided email address.
      *
@@ -84,7 +128,14 @@ public class BankAccountService {
     public BankAccount createBankAccount(String email) throws CustomerNotFoundException {
         Customer customer = customerService.getCustomerByEmail(email);
 
-        BankAccount bankAccount = new BankAccount(customer);
+        // Generated numbers are unique, but may still collide with accounts created before the generator was introduced.
+        String accountNumber = accountNumberGenerator.nextAccountNumber();
+        while (accountNumberFilter.mightContain(accountNumber) && bankAccountRepository.existsByAccountNumber(accountNumber)) {
+            accountNumber = accountNumberGenerator.nextAccountNumber();
+        }
+        BankAccount bankAccount = new BankAccount(customer, accountNumber);
+        // Added before the insert, so that a concurrent existence check can never miss a committed account.
+        accountNumberFilter.put(bankAccount.getAccountNumber());
         try {
             logger.info("Creating new bank account for customer with email: {}", email);
             return bankAccountRepository.saveBankAccount(bankAccount);
@@ -96,56 +147,187 @@ public class BankAccountService {
 
     /**
      * Transfers money between two bank accounts.
+     * Account existence and the sender's balance are checked atomically with the transfer by the configured {@link TransferEngine}.
      *
      * @param senderAccountNumber   The account number from which the money is sent.
      * @param receiverAccountNumber The account number to which the money is sent.
      * @param amount                The amount of money to transfer.
      * @throws BankAccountNotFoundException If either the sender or receiver account does not exist.
      * @throws InsufficientBalanceException If the sender account does not have enough balance.
-     * @throws CustomerNotFoundException If no customer is associated with the account.
+     * @throws InvalidBankAccountDataException If the account numbers or the amount are invalid.
      */
-    public void transferMoney(String senderAccountNumber, String receiverAccountNumber, BigDecimal amount) throws BankAccountNotFoundException, CustomerNotFoundException, InsufficientBalanceException {
-        validationManager.validate(ValidationType.BANK_ACCOUNT_NUMBER, senderAccountNumber);
-        validationManager.validate(ValidationType.BANK_ACCOUNT_NUMBER, receiverAccountNumber);
-        validationManager.validate(ValidationType.TRANSFER_AMOUNT, amount.toString());
+    public void transferMoney(String senderAccountNumber, String receiverAccountNumber, Money amount) throws BankAccountNotFoundException, InsufficientBalanceException {
+        try {
+            validateTransfer(senderAccountNumber, receiverAccountNumber, amount);
+            logger.info("Transferring money.");
+            transferEngine.transfer(senderAccountNumber, receiverAccountNumber, amount);
+            transferMetrics.record(MoneyTransferResult.Status.COMPLETED);
+        } catch (BankAccountRepositoryException e) {
+            logger.error("Error while transferring money: {}", e.getMessage(), e);
+            transferMetrics.recordFailure(e);
+            throw e;
+        } catch (InvalidBankAccountDataException | BankAccountNotFoundException | InsufficientBalanceException e) {
+            transferMetrics.recordFailure(e);
+            throw e;
+        }
+    }
 
-        if (!existsByAccountNumber(senderAccountNumber)) {
-            logger.warn("The sender's bank account with account number {} does not exist.", senderAccountNumber);
-            throw new BankAccountNotFoundException("Bank account does not exist.");
+    /**
+     * Transfers money from a bank account of the given customer, as {@link #transferMoney(String, String, Money)} does.
+     *
+     * @param customerId The ID of the customer the sender account must belong to.
+     * @throws ForbiddenOperationException If the sender account does not belong to the customer.
+     */
+    public void transferMoney(Long customerId, String senderAccountNumber, String receiverAccountNumber, Money amount) throws BankAccountNotFoundException, InsufficientBalanceException {
+        try {
+            validateTransfer(senderAccountNumber, receiverAccountNumber, amount);
+            checkAccountOwner(customerId, senderAccountNumber);
+        } catch (InvalidBankAccountDataException | ForbiddenOperationException e) {
+            transferMetrics.recordFailure(e);
+            throw e;
         }
-        if (!existsByAccountNumber(receiverAccountNumber)) {
-            logger.warn("The receiver's bank account with account number {} does not exist.", receiverAccountNumber);
-            throw new BankAccountNotFoundException("Bank account does not exist.");
+        transferMoney(senderAccountNumber, receiverAccountNumber, amount);
+    }
+
+    /**
+     * Checks that a bank account belongs to a customer, e.g. the customer of a session before money is sent from the
+     * account or its transfers are read. Account numbers that do not exist fail the check as well, so the answer does
+     * not tell whether another customer's account exists.
+     *
+     * @param customerId    The ID of the customer.
+     * @param accountNumber The account number of the bank account.
+     * @throws ForbiddenOperationException If the bank account is not one of the customer's accounts.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving the customer's accounts.
+     */
+    public void checkAccountOwner(Long customerId, String accountNumber) {
+        if (!bankAccountRepository.getAccountNumbersByCustomerId(customerId).contains(accountNumber)) {
+            throw new ForbiddenOperationException("Bank account " + accountNumber + " does not belong to the customer of the session.");
+        }
+    }
+
+    /**
+     * Applies a batch of independent transfers and reports the outcome of each. Invalid transfers, and transfers from
+     * an account that does not belong to the customer, are rejected individually and do not prevent the others from
+     * being applied.
+     *
+     * @param customerId       The ID of the customer all sender accounts must belong to.
+     * @param transferRequests The transfers to apply.
+     * @return One result per transfer, in request order.
+     * @throws InvalidBankAccountDataException If the batch is empty or larger than {@value #MAX_TRANSFER_BATCH_SIZE}.
+     */
+    public List<MoneyTransferResult> transferMoneyBatch(Long customerId, List<MoneyTransferRequestPayload> transferRequests) {
+        if (transferRequests == null || transferRequests.isEmpty()) {
+            throw new InvalidBankAccountDataException("Money transfer batch cannot be empty.");
+        }
+        if (transferRequests.size() > MAX_TRANSFER_BATCH_SIZE) {
+            throw new InvalidBankAccountDataException("Money transfer batch cannot contain more than " + MAX_TRANSFER_BATCH_SIZE + " transfers.");
         }
 
-        BankAccountDto bankAccountDto = getBankAccountByAccountNumber(senderAccountNumber);
-        if (bankAccountDto.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientBalanceException("Your balance is insufficient for this transaction.");
+        Set<String> ownAccountNumbers = bankAccountRepository.getAccountNumbersByCustomerId(customerId);
+        MoneyTransferResult[] results = new MoneyTransferResult[transferRequests.size()];
+        List<MoneyTransferRequestPayload> validTransfers = new ArrayList<>(transferRequests.size());
+        List<Integer> validIndexes = new ArrayList<>(transferRequests.size());
+        for (int i = 0; i < transferRequests.size(); i++) {
+            MoneyTransferRequestPayload transferRequest = transferRequests.get(i);
+            try {
+                if (transferRequest == null) {
+                    throw new InvalidBankAccountDataException("Money transfer request data cannot be null.");
+                }
+                validateTransfer(transferRequest.getSenderAccountNumber(), transferRequest.getReceiverAccountNumber(), transferRequest.getAmount());
+                if (!ownAccountNumbers.contains(transferRequest.getSenderAccountNumber())) {
+                    results[i] = new MoneyTransferResult(MoneyTransferResult.Status.FORBIDDEN,
+                            "Bank account " + transferRequest.getSenderAccountNumber() + " does not belong to the customer of the session.");
+                    continue;
+                }
+                validTransfers.add(transferRequest);
+                validIndexes.add(i);
+            } catch (InvalidBankAccountDataException e) {
+                results[i] = new MoneyTransferResult(MoneyTransferResult.Status.INVALID, e.getMessage());
+            }
         }
 
+        logger.info("Transferring money in a batch of {} transfers, {} of them valid.", transferRequests.size(), validTransfers.size());
+        List<MoneyTransferResult> appliedResults = transferEngine.transferAll(validTransfers);
+        for (int i = 0; i < appliedResults.size(); i++) {
+            results[validIndexes.get(i)] = appliedResults.get(i);
+        }
+        for (int i = 0; i < results.length; i++) {
+            results[i].setIndex(i);
+        }
+        List<MoneyTransferResult> resultList = Arrays.asList(results);
+        transferMetrics.recordAll(resultList);
+        return resultList;
+    }
+
+    private void validateTransfer(String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        validateAccountNumber(senderAccountNumber);
+        validateAccountNumber(receiverAccountNumber);
+        validationManager.validateTransferAmount(amount);
+
         if (senderAccountNumber.equals(receiverAccountNumber)) {
             throw new InvalidBankAccountDataException("Cannot transfer to the same account.");
         }
+    }
+
+    /**
+     * Validates an account number. Accounts created before account numbers got a check digit keep their numbers, so a
+     * number whose check digit does not match is only rejected if no bank account with that number exists.
+     *
+     * @throws InvalidBankAccountDataException If the account number is invalid.
+     * @throws BankAccountRepositoryException If an error occurs while checking the account.
+     */
+    private void validateAccountNumber(String accountNumber) {
+        ValidationError error = validationManager.check(ValidationType.BANK_ACCOUNT_NUMBER, accountNumber);
+        if (error == null || error == ValidationError.ACCOUNT_NUMBER_CHECK_DIGIT && existsByAccountNumber(accountNumber)) {
+            return;
+        }
+        throw error.toException();
+    }
 
+    /**
+     * Retrieves one page of the transfers sent or received by a bank account, newest first.
+     *
+     * @param accountNumber The account number of the bank account.
+     * @param from          The inclusive lower bound of the transfer date, or {@code null} for no bound.
+     * @param to            The exclusive upper bound of the transfer date, or {@code null} for no bound.
+     * @param beforeDate    The transfer date of the last transfer of the previous page, or {@code null} for the first page.
+     * @param beforeId      The ID of the last transfer of the previous page.
+     * @param limit         The maximum number of transfers to return.
+     * @return A list of transfers ordered by transfer date and ID, newest first.
+     * @throws BankAccountNotFoundException If no bank account is found with the given account number.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving the transfers.
+     */
+    public List<TransferDto> getTransfers(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                          LocalDateTime beforeDate, long beforeId, int limit) throws BankAccountNotFoundException {
+        validateAccountNumber(accountNumber);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidBankAccountDataException("The start of the date range must be before its end.");
+        }
+        if (!existsByAccountNumber(accountNumber)) {
+            throw new BankAccountNotFoundException("No bank account with account number " + accountNumber + " was found.");
+        }
         try {
-            logger.info("Transferring money.");
-            bankAccountRepository.transferMoney(senderAccountNumber, receiverAccountNumber, amount);
+            logger.info("Fetching {} transfers of bank account {}.", limit, accountNumber);
+            return bankAccountRepository.getTransfersByAccountNumber(accountNumber, from, to, beforeDate, beforeId, limit);
         } catch (BankAccountRepositoryException e) {
-            logger.error("Error while transferring money: {}", e.getMessage(), e);
+            logger.error("Error while fetching transfers of bank account {}: {}", accountNumber, e.getMessage(), e);
             throw e;
         }
     }
 
     /**
      * Checks if a bank account exists for a given account number.
+     * Account numbers that were never allocated are answered from the account number filter without a database query.
      *
      * @param accountNumber The bank account number to check.
      * @return true if the account exists, false otherwise.
-     * @throws CustomerNotFoundException If no customer is associated with the account.
+     * @throws BankAccountRepositoryException If an error occurs while checking the account.
      */
-    public boolean existsByAccountNumber(String accountNumber) throws CustomerNotFoundException {
-        Optional<BankAccountDto> optionalBankAccountDto = bankAccountRepository.getBankAccountByAccountNumber(accountNumber);
-        return optionalBankAccountDto.isPresent();
+    public boolean existsByAccountNumber(String accountNumber) {
+        if (!accountNumberFilter.mightContain(accountNumber)) {
+            return false;
+        }
+        return bankAccountRepository.existsByAccountNumber(accountNumber);
     }
 
     /**
@@ -158,7 +340,7 @@ public class BankAccountService {
      */
     public BankAccountDto getBankAccountByAccountNumber(String accountNumber) throws BankAccountNotFoundException, CustomerNotFoundException {
         try {
-            validationManager.validate(ValidationType.BANK_ACCOUNT_NUMBER, accountNumber);
+            validateAccountNumber(accountNumber);
             logger.info("Searching for bank account with account number: {}", accountNumber);
             return bankAccountRepository.getBankAccountByAccountNumber(accountNumber)
                     .orElseThrow(() -> new BankAccountNotFoundException("No bank account with account number " + accountNumber + " was found."));
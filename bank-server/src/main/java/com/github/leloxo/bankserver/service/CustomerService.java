@@ -1,49 +1,87 @@
 package com.github.leloxo.bankserver.service;
 
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
 import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
 import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
 import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.exception.customer.PasswordHashingBusyException;
 import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
 import com.github.leloxo.bankserver.model.customer.Customer;
 import com.github.leloxo.bankserver.model.customer.CustomerDto;
 import com.github.leloxo.bankserver.model.validation.ValidationType;
 import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
 import com.github.leloxo.bankserver.repository.CustomerRepository;
+import com.github.leloxo.bankserver.service.cache.CustomerCache;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import com.github.leloxo.bankserver.service.transfer.TransferEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
+@Profile("!reactive")
 public class CustomerService {
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
 
     private final CustomerRepository customerRepository;
     private final ValidationManager validationManager;
+    private final CustomerCache customerCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransferEngine transferEngine;
 
-    public CustomerService(CustomerRepository customerRepository, ValidationManager validationManager) {
+    public CustomerService(CustomerRepository customerRepository, ValidationManager validationManager, CustomerCache customerCache,
+                           PasswordHashingExecutor passwordHashingExecutor, BankAccountRepository bankAccountRepository,
+                           TransferEngine transferEngine) {
         this.customerRepository = customerRepository;
         this.validationManager = validationManager;
+        this.customerCache = customerCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.bankAccountRepository = bankAccountRepository;
+        this.transferEngine = transferEngine;
     }
 
     /**
-     * Retrieves all customers from the repository.
+     * Retrieves one page of customers from the repository.
      *
-     * @return A list of all customers.
+     * @param afterId The ID of the last customer of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of customers to return.
+     * @return A list of customers ordered by ID.
      * @throws CustomerRepositoryException If an error occurs while retrieving customers.
      */
-    public List<CustomerDto> getCustomers() {
+    public List<CustomerDto> getCustomers(long afterId, int limit) {
         try {
-            logger.info("Fetching all customers.");
-            return customerRepository.getCustomers();
+            logger.info("Fetching {} customers after id {}.", limit, afterId);
+            return customerRepository.getCustomers(afterId, limit);
         } catch (CustomerRepositoryException e) {
             logger.error("Error while fetching customers: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Passes all customers to {@code consumer} as they are read from the repository.
+     *
+     * @param consumer The consumer receiving each customer.
+     * @throws CustomerRepositoryException If an error occurs while retrieving customers.
+     */
+    public void streamCustomers(Consumer<CustomerDto> consumer) {
+        try {
+            logger.info("Streaming all customers.");
+            customerRepository.streamCustomers(consumer);
+        } catch (CustomerRepositoryException e) {
+            logger.error("Error while streaming customers: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * Creates a new customer and saves it to the database.
      *
@@ -52,6 +90,7 @@ public class CustomerService {
      * @param email     The email of the customer.
      * @return The newly created customer.
      * @throws InvalidCustomerDataException If the email is already in use.
+     * @throws PasswordHashingBusyException If too many passwords are being hashed at the moment.
      * @throws CustomerRepositoryException If an error occurs while saving the customer.
      */
     public Customer createCustomer(String firstName, String lastName, String email, String password) {
@@ -65,7 +104,8 @@ public class CustomerService {
             throw new InvalidCustomerDataException("Email is already in use.");
         }
 
-        Customer customer = new Customer(firstName, lastName, email, password);
+        String hashedPassword = passwordHashingExecutor.hash(password);
+        Customer customer = new Customer(null, firstName, lastName, email, hashedPassword, LocalDateTime.now());
         try {
             logger.info("Creating new customer with email: {}", email);
             return customerRepository.saveCustomer(customer);
@@ -77,17 +117,41 @@ public class CustomerService {
 
     /**
      * Authenticates a customer by validating the email and comparing the provided raw password with the stored password.
+     * A stored hash with an outdated cost is replaced by one with the current cost after a successful check.
      *
      * @param email The email address of the customer attempting to authenticate.
      * @param rawPassword The raw password provided by the customer for authentication.
-     * @return {@code true} if the provided password matches the stored password, {@code false} otherwise.
+     * @return An {@link Optional} containing the customer if the provided password matches the stored password.
      * @throws CustomerNotFoundException If no customer with the provided email is found.
      * @throws InvalidCustomerDataException If the email validation fails.
+     * @throws PasswordHashingBusyException If too many passwords are being checked at the moment.
      */
-    public boolean authenticateCustomer(String email, String rawPassword) throws CustomerNotFoundException {
+    public Optional<Customer> authenticateCustomer(String email, String rawPassword) throws CustomerNotFoundException {
         validationManager.validate(ValidationType.EMAIL, email);
         Customer customer = getCustomerByEmail(email);
-        return customer.checkPassword(rawPassword);
+        if (!passwordHashingExecutor.matches(rawPassword, customer.getPassword())) {
+            return Optional.empty();
+        }
+        if (customer.needsPasswordRehash()) {
+            rehashPassword(customer, rawPassword);
+        }
+        return Optional.of(customer);
+    }
+
+    /**
+     * Replaces a password hash created with an outdated cost. Failures are logged and retried on the next login,
+     * as they do not affect the login itself.
+     */
+    private void rehashPassword(Customer customer, String rawPassword) {
+        try {
+            String rehashedPassword = passwordHashingExecutor.hash(rawPassword);
+            if (customerRepository.updatePassword(customer.getId(), customer.getPassword(), rehashedPassword)) {
+                logger.info("Rehashed password of customer with email {} with the current cost.", customer.getEmail());
+            }
+            customerCache.invalidate(customer);
+        } catch (PasswordHashingBusyException | CustomerRepositoryException e) {
+            logger.warn("Could not rehash password of customer with email {}: {}", customer.getEmail(), e.getMessage());
+        }
     }
 
     /**
@@ -102,7 +166,7 @@ public class CustomerService {
         try {
             validationManager.validate(ValidationType.EMAIL, email);
             logger.info("Searching for customer with email: {}", email);
-            return customerRepository.getCustomerByEmail(email)
+            return customerCache.getByEmail(email, customerRepository::getCustomerByEmail)
                     .orElseThrow(() -> new CustomerNotFoundException("No customer with email " + email + " was found."));
         } catch (CustomerRepositoryException e) {
             logger.error("Error while searching for customer with email {}: {}", email, e.getMessage(), e);
@@ -110,6 +174,25 @@ public class CustomerService {
         }
     }
 
+    /**
+     * Finds a customer by their ID.
+     *
+     * @param id The ID of the customer to find.
+     * @return The customer with the specified ID.
+     * @throws CustomerNotFoundException If no customer with the ID is found.
+     * @throws CustomerRepositoryException  If an error occurs during the search.
+     */
+    public Customer getCustomerById(Long id) throws CustomerNotFoundException {
+        try {
+            logger.info("Searching for customer with id: {}", id);
+            return customerCache.getById(id, customerRepository::getCustomerById)
+                    .orElseThrow(() -> new CustomerNotFoundException("No customer with id " + id + " was found."));
+        } catch (CustomerRepositoryException e) {
+            logger.error("Error while searching for customer with id {}: {}", id, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * Checks if a customer exists for a given email address.
      *
@@ -117,7 +200,7 @@ public class CustomerService {
      * @return true if the customer exists, false otherwise.
      */
     public boolean existsByEmail(String email) {
-        Optional<Customer> optionalCustomer = customerRepository.getCustomerByEmail(email);
+        Optional<Customer> optionalCustomer = customerCache.getByEmail(email, customerRepository::getCustomerByEmail);
         return optionalCustomer.isPresent();
     }
 
@@ -133,11 +216,17 @@ public class CustomerService {
         try {
             validationManager.validate(ValidationType.EMAIL, email);
             logger.info("Updating customer with email: {}", email);
-            if (!existsByEmail(email)) {
-                logger.warn("Customer with email {} does not exist.", email);
-                throw new CustomerNotFoundException("Customer does not exist.");
+            Customer customer = customerCache.getByEmail(email, customerRepository::getCustomerByEmail)
+                    .orElseThrow(() -> {
+                        logger.warn("Customer with email {} does not exist.", email);
+                        return new CustomerNotFoundException("Customer does not exist.");
+                    });
+            try {
+                customerRepository.updateCustomer(email, updatedCustomer);
+            } finally {
+                customerCache.invalidate(customer);
+                customerCache.invalidate(updatedCustomer.getEmail());
             }
-            customerRepository.updateCustomer(email, updatedCustomer);
             return customerRepository.getCustomerByEmail(updatedCustomer.getEmail())
                     .orElseThrow(() -> new CustomerNotFoundException("Customer not found after update."));
         } catch (CustomerRepositoryException e) {
@@ -147,21 +236,29 @@ public class CustomerService {
     }
 
     /**
-     * Deletes a customer by their email.
+     * Deletes a customer by their email, together with their bank accounts. The accounts are removed from the
+     * {@link TransferEngine} first, so that no transfer to or from them is accepted while they are deleted.
      *
      * @param email The email of the customer to delete.
      * @throws CustomerNotFoundException If the customer does not exist.
      * @throws CustomerRepositoryException  If an error occurs during the deletion.
+     * @throws BankAccountRepositoryException If pending transfers of the customer's accounts cannot be applied.
      */
     public void deleteCustomer(String email) throws CustomerNotFoundException {
         try {
             validationManager.validate(ValidationType.EMAIL, email);
             logger.info("Attempting to delete customer with email: {}", email);
-            if (!existsByEmail(email)) {
-                logger.warn("Customer with email {} does not exist.", email);
-                throw new CustomerNotFoundException("Customer does not exist.");
+            Customer customer = customerCache.getByEmail(email, customerRepository::getCustomerByEmail)
+                    .orElseThrow(() -> {
+                        logger.warn("Customer with email {} does not exist.", email);
+                        return new CustomerNotFoundException("Customer does not exist.");
+                    });
+            transferEngine.removeAccounts(bankAccountRepository.getAccountNumbersByCustomerId(customer.getId()));
+            try {
+                customerRepository.deleteCustomer(email);
+            } finally {
+                customerCache.invalidate(customer);
             }
-            customerRepository.deleteCustomer(email);
         } catch (CustomerRepositoryException e) {
             logger.error("Error while deleting customer with email {}: {}", email, e.getMessage(), e);
             throw e;
@@ -0,0 +1,198 @@
+package com.github.leloxo.bankserver.service;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.github.leloxo.bankserver.model.validation.ValidationError;
+import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.model.validation.ValidationType;
+import com.github.leloxo.bankserver.repository.ReactiveBankAccountRepository;
+import com.github.leloxo.bankserver.service.transfer.TransferMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link BankAccountService} for the reactive server profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBankAccountService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBankAccountService.class);
+
+    private final ReactiveBankAccountRepository bankAccountRepository;
+    private final ReactiveCustomerService customerService;
+    private final ValidationManager validationManager;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final TransferMetrics transferMetrics;
+
+    public ReactiveBankAccountService(ReactiveBankAccountRepository bankAccountRepository, ReactiveCustomerService customerService,
+                                      ValidationManager validationManager, AccountNumberGenerator accountNumberGenerator,
+                                      TransferMetrics transferMetrics) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.customerService = customerService;
+        this.validationManager = validationManager;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.transferMetrics = transferMetrics;
+    }
+
+    /**
+     * Retrieves one page of bank accounts from the repository.
+     *
+     * @param afterId The ID of the last bank account of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of bank accounts to return.
+     * @return Bank accounts ordered by ID.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving bank accounts.
+     */
+    public Flux<BankAccountDto> getBankAccounts(long afterId, int limit) {
+        logger.info("Fetching {} bank accounts after id {}.", limit, afterId);
+        return bankAccountRepository.getBankAccounts(afterId, limit);
+    }
+
+    /**
+     * @return All bank accounts, emitted as they are read from the repository.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving bank accounts.
+     */
+    public Flux<BankAccountDto> streamBankAccounts() {
+        logger.info("Streaming all bank accounts.");
+        return bankAccountRepository.streamBankAccounts();
+    }
+
+    /**
+     * Retrieves the bank accounts of the customer with the provided email address.
+     *
+     * @param email The email address of the customer whose bank accounts are being retrieved.
+     * @return The bank accounts of the customer.
+     * @throws CustomerNotFoundException If no customer with the provided email is found.
+     * @throws BankAccountRepositoryException If there is an error while retrieving the bank accounts.
+     */
+    public Flux<BankAccountDto> getBankAccountsByEmail(String email) {
+        return customerService.getCustomerByEmail(email)
+                .flatMapMany(customer -> {
+                    logger.info("Searching for bank account of customer with email: {}", email);
+                    return bankAccountRepository.getBankAccountsByCustomerId(customer.getId());
+                });
+    }
+
+    /**
+     * Creates a new bank account and saves it to the repository.
+     *
+     * @param email The email of the customer for whom the bank account is created.
+     * @return The newly created {@link BankAccount}.
+     * @throws CustomerNotFoundException If no customer with the email is found.
+     * @throws BankAccountRepositoryException If an error occurs while saving the bank account.
+     */
+    public Mono<BankAccount> createBankAccount(String email) {
+        return customerService.getCustomerByEmail(email)
+                .zipWith(nextUnusedAccountNumber())
+                .flatMap(customerAndNumber -> {
+                    logger.info("Creating new bank account for customer with email: {}", email);
+                    return bankAccountRepository.saveBankAccount(new BankAccount(customerAndNumber.getT1(), customerAndNumber.getT2()));
+                });
+    }
+
+    /**
+     * Generated numbers are unique, but may still collide with accounts created before the generator was introduced.
+     */
+    private Mono<String> nextUnusedAccountNumber() {
+        // The generator blocks while it leases the next block of sequence values, so it never runs on the event loop.
+        return Mono.fromCallable(accountNumberGenerator::nextAccountNumber)
+                .subscribeOn(Schedulers.boundedElastic())
+                .filterWhen(accountNumber -> bankAccountRepository.existsByAccountNumber(accountNumber).map(exists -> !exists))
+                .switchIfEmpty(Mono.defer(this::nextUnusedAccountNumber));
+    }
+
+    /**
+     * Transfers money between two bank accounts.
+     * Account existence and the sender's balance are checked atomically with the transfer.
+     *
+     * @param senderAccountNumber   The account number from which the money is sent.
+     * @param receiverAccountNumber The account number to which the money is sent.
+     * @param amount                The amount of money to transfer.
+     * @throws BankAccountNotFoundException If either the sender or receiver account does not exist.
+     * @throws InsufficientBalanceException If the sender account does not have enough balance.
+     * @throws InvalidBankAccountDataException If the account numbers or the amount are invalid.
+     */
+    public Mono<Void> transferMoney(String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        return validateTransfer(senderAccountNumber, receiverAccountNumber, amount)
+                .then(Mono.defer(() -> {
+                    logger.info("Transferring money.");
+                    return bankAccountRepository.transferMoney(senderAccountNumber, receiverAccountNumber, amount);
+                }))
+                .doOnSuccess(ignored -> transferMetrics.record(MoneyTransferResult.Status.COMPLETED))
+                .doOnError(transferMetrics::recordFailure);
+    }
+
+    /**
+     * Transfers money from a bank account of the given customer, as {@link #transferMoney(String, String, Money)} does.
+     *
+     * @param customerId The ID of the customer the sender account must belong to.
+     * @throws ForbiddenOperationException If the sender account does not belong to the customer.
+     */
+    public Mono<Void> transferMoney(Long customerId, String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        return validateTransfer(senderAccountNumber, receiverAccountNumber, amount)
+                .then(Mono.defer(() -> checkAccountOwner(customerId, senderAccountNumber)))
+                .doOnError(transferMetrics::recordFailure)
+                .then(Mono.defer(() -> transferMoney(senderAccountNumber, receiverAccountNumber, amount)));
+    }
+
+    /**
+     * Checks that a bank account belongs to a customer, e.g. the customer of a session before money is sent from the
+     * account. Account numbers that do not exist fail the check as well.
+     *
+     * @param customerId    The ID of the customer.
+     * @param accountNumber The account number of the bank account.
+     * @throws ForbiddenOperationException If the bank account is not one of the customer's accounts.
+     * @throws BankAccountRepositoryException If an error occurs while retrieving the customer's accounts.
+     */
+    public Mono<Void> checkAccountOwner(Long customerId, String accountNumber) {
+        return bankAccountRepository.getAccountNumbersByCustomerId(customerId)
+                .any(accountNumber::equals)
+                .flatMap(owned -> owned
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ForbiddenOperationException("Bank account " + accountNumber + " does not belong to the customer of the session.")));
+    }
+
+    private Mono<Void> validateTransfer(String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        return validateAccountNumber(senderAccountNumber)
+                .then(validateAccountNumber(receiverAccountNumber))
+                .then(Mono.fromRunnable(() -> {
+                    validationManager.validateTransferAmount(amount);
+                    if (senderAccountNumber.equals(receiverAccountNumber)) {
+                        throw new InvalidBankAccountDataException("Cannot transfer to the same account.");
+                    }
+                }));
+    }
+
+    /**
+     * Validates an account number. Accounts created before account numbers got a check digit keep their numbers, so a
+     * number whose check digit does not match is only rejected if no bank account with that number exists.
+     *
+     * @throws InvalidBankAccountDataException If the account number is invalid.
+     */
+    private Mono<Void> validateAccountNumber(String accountNumber) {
+        return Mono.defer(() -> {
+            ValidationError error = validationManager.check(ValidationType.BANK_ACCOUNT_NUMBER, accountNumber);
+            if (error == null) {
+                return Mono.empty();
+            }
+            if (error != ValidationError.ACCOUNT_NUMBER_CHECK_DIGIT) {
+                return Mono.error(error.toException());
+            }
+            return bankAccountRepository.existsByAccountNumber(accountNumber)
+                    .flatMap(exists -> exists ? Mono.<Void>empty() : Mono.error(error.toException()));
+        });
+    }
+}
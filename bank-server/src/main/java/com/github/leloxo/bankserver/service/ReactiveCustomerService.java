@@ -0,0 +1,184 @@
+package com.github.leloxo.bankserver.service;
+
+import com.github.leloxo.bankserver.exception.customer.CustomerNotFoundException;
+import com.github.leloxo.bankserver.exception.customer.CustomerRepositoryException;
+import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.exception.customer.PasswordHashingBusyException;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.model.validation.ValidationType;
+import com.github.leloxo.bankserver.repository.ReactiveCustomerRepository;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link CustomerService} for the reactive server profile.
+ * Password hashing runs on the {@link PasswordHashingExecutor} and is awaited without blocking the event loop.
+ * Customers are not cached, as every lookup is a non-blocking query.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCustomerService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCustomerService.class);
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final ValidationManager validationManager;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public ReactiveCustomerService(ReactiveCustomerRepository customerRepository, ValidationManager validationManager,
+                                   PasswordHashingExecutor passwordHashingExecutor) {
+        this.customerRepository = customerRepository;
+        this.validationManager = validationManager;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    /**
+     * Retrieves one page of customers from the repository.
+     *
+     * @param afterId The ID of the last customer of the previous page, or {@code 0} for the first page.
+     * @param limit   The maximum number of customers to return.
+     * @return Customers ordered by ID.
+     * @throws CustomerRepositoryException If an error occurs while retrieving customers.
+     */
+    public Flux<CustomerDto> getCustomers(long afterId, int limit) {
+        logger.info("Fetching {} customers after id {}.", limit, afterId);
+        return customerRepository.getCustomers(afterId, limit);
+    }
+
+    /**
+     * @return All customers, emitted as they are read from the repository.
+     * @throws CustomerRepositoryException If an error occurs while retrieving customers.
+     */
+    public Flux<CustomerDto> streamCustomers() {
+        logger.info("Streaming all customers.");
+        return customerRepository.streamCustomers();
+    }
+
+    /**
+     * Creates a new customer and saves it to the database.
+     *
+     * @param firstName The first name of the customer.
+     * @param lastName  The last name of the customer.
+     * @param email     The email of the customer.
+     * @return The newly created customer.
+     * @throws InvalidCustomerDataException If the email is already in use.
+     * @throws PasswordHashingBusyException If too many passwords are being hashed at the moment.
+     * @throws CustomerRepositoryException If an error occurs while saving the customer.
+     */
+    public Mono<Customer> createCustomer(String firstName, String lastName, String email, String password) {
+        return Mono.fromRunnable(() -> {
+                    validationManager.validate(ValidationType.NAME, firstName);
+                    validationManager.validate(ValidationType.NAME, lastName);
+                    validationManager.validate(ValidationType.EMAIL, email);
+                    validationManager.validate(ValidationType.PASSWORD, password);
+                })
+                .then(customerRepository.getCustomerByEmail(email))
+                .flatMap(existing -> {
+                    logger.warn("Failed to create customer: Email {} is already in use.", email);
+                    return Mono.<Customer>error(new InvalidCustomerDataException("Email is already in use."));
+                })
+                .switchIfEmpty(Mono.defer(() -> Mono.fromFuture(passwordHashingExecutor.hashAsync(password))
+                        .flatMap(hashedPassword -> {
+                            logger.info("Creating new customer with email: {}", email);
+                            return customerRepository.saveCustomer(new Customer(null, firstName, lastName, email, hashedPassword, LocalDateTime.now()));
+                        })));
+    }
+
+    /**
+     * Authenticates a customer by validating the email and comparing the provided raw password with the stored password.
+     * A stored hash with an outdated cost is replaced by one with the current cost after a successful check.
+     *
+     * @param email       The email address of the customer attempting to authenticate.
+     * @param rawPassword The raw password provided by the customer for authentication.
+     * @return The customer if the provided password matches the stored password, or an empty {@link Mono} otherwise.
+     * @throws CustomerNotFoundException If no customer with the provided email is found.
+     * @throws InvalidCustomerDataException If the email validation fails.
+     * @throws PasswordHashingBusyException If too many passwords are being checked at the moment.
+     */
+    public Mono<Customer> authenticateCustomer(String email, String rawPassword) {
+        return getCustomerByEmail(email)
+                .flatMap(customer -> Mono.fromFuture(passwordHashingExecutor.matchesAsync(rawPassword, customer.getPassword()))
+                        .filter(Boolean::booleanValue)
+                        .flatMap(matches -> customer.needsPasswordRehash()
+                                ? rehashPassword(customer, rawPassword).thenReturn(customer)
+                                : Mono.just(customer)));
+    }
+
+    /**
+     * Replaces a password hash created with an outdated cost. Failures are logged and retried on the next login,
+     * as they do not affect the login itself.
+     */
+    private Mono<Void> rehashPassword(Customer customer, String rawPassword) {
+        return Mono.fromFuture(passwordHashingExecutor.hashAsync(rawPassword))
+                .flatMap(rehashedPassword -> customerRepository.updatePassword(customer.getId(), customer.getPassword(), rehashedPassword))
+                .doOnNext(updated -> {
+                    if (updated) {
+                        logger.info("Rehashed password of customer with email {} with the current cost.", customer.getEmail());
+                    }
+                })
+                .then()
+                .onErrorResume(e -> e instanceof PasswordHashingBusyException || e instanceof CustomerRepositoryException, e -> {
+                    logger.warn("Could not rehash password of customer with email {}: {}", customer.getEmail(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Finds a customer by their email address.
+     *
+     * @param email The email of the customer to find.
+     * @return The customer with the specified email.
+     * @throws CustomerNotFoundException If no customer with the email is found.
+     * @throws CustomerRepositoryException  If an error occurs during the search.
+     */
+    public Mono<Customer> getCustomerByEmail(String email) {
+        return Mono.fromRunnable(() -> validationManager.validate(ValidationType.EMAIL, email))
+                .then(Mono.defer(() -> {
+                    logger.info("Searching for customer with email: {}", email);
+                    return customerRepository.getCustomerByEmail(email);
+                }))
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("No customer with email " + email + " was found.")));
+    }
+
+    /**
+     * Updates an existing customer.
+     *
+     * @param email           The current email of the customer.
+     * @param updatedCustomer The customer object with updated information.
+     * @return The updated customer.
+     * @throws CustomerNotFoundException If the customer does not exist.
+     * @throws CustomerRepositoryException  If an error occurs during the update.
+     */
+    public Mono<Customer> updateCustomer(String email, CustomerDto updatedCustomer) {
+        return getCustomerByEmail(email)
+                .flatMap(customer -> {
+                    logger.info("Updating customer with email: {}", email);
+                    return customerRepository.updateCustomer(email, updatedCustomer);
+                })
+                .then(Mono.defer(() -> customerRepository.getCustomerByEmail(updatedCustomer.getEmail())))
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found after update.")));
+    }
+
+    /**
+     * Deletes a customer by their email.
+     *
+     * @param email The email of the customer to delete.
+     * @throws CustomerNotFoundException If the customer does not exist.
+     * @throws CustomerRepositoryException  If an error occurs during the deletion.
+     */
+    public Mono<Void> deleteCustomer(String email) {
+        return getCustomerByEmail(email)
+                .flatMap(customer -> {
+                    logger.info("Attempting to delete customer with email: {}", email);
+                    return customerRepository.deleteCustomer(email);
+                });
+    }
+}
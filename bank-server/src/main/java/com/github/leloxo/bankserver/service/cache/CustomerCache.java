@@ -0,0 +1,167 @@
+package com.github.leloxo.bankserver.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of customers by email and by ID.
+ * <p>
+ * Both indexes are size bounded (W-TinyLFU eviction) and entries expire after a fixed time to live, which bounds
+ * how long a change made outside this server can stay invisible. Changes made through this server must be followed
+ * by {@link #invalidate(Customer)}. Customers that do not exist are not cached.
+ */
+public class CustomerCache implements CustomerCacheMXBean, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CustomerCache.class);
+
+    public static final String OBJECT_NAME = "com.github.leloxo.bankserver:type=CustomerCache";
+
+    private final Cache<String, Customer> customersByEmail;
+    private final Cache<Long, Customer> customersById;
+    private ObjectName registeredName;
+
+    public CustomerCache(long maximumSize, Duration timeToLive) {
+        this.customersByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.customersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached customer with the given email, loading it with {@code loader} on a miss.
+     * Concurrent misses for the same email are loaded only once.
+     *
+     * @param email  The email of the customer.
+     * @param loader Loads the customer from the database.
+     * @return An {@link Optional} containing the customer if it exists.
+     */
+    public Optional<Customer> getByEmail(String email, Function<String, Optional<Customer>> loader) {
+        return Optional.ofNullable(customersByEmail.get(email, key -> load(key, loader, customersById, Customer::getId)));
+    }
+
+    /**
+     * Returns the cached customer with the given ID, loading it with {@code loader} on a miss.
+     * Concurrent misses for the same ID are loaded only once.
+     *
+     * @param id     The ID of the customer.
+     * @param loader Loads the customer from the database.
+     * @return An {@link Optional} containing the customer if it exists.
+     */
+    public Optional<Customer> getById(Long id, Function<Long, Optional<Customer>> loader) {
+        return Optional.ofNullable(customersById.get(id, key -> load(key, loader, customersByEmail, Customer::getEmail)));
+    }
+
+    /**
+     * Removes a customer from both indexes.
+     *
+     * @param customer The customer as it was cached or loaded before it was changed.
+     */
+    public void invalidate(Customer customer) {
+        customersByEmail.invalidate(customer.getEmail());
+        if (customer.getId() != null) {
+            customersById.invalidate(customer.getId());
+        }
+    }
+
+    /**
+     * Removes a customer from the email index.
+     *
+     * @param email The email of the customer.
+     */
+    public void invalidate(String email) {
+        Customer customer = customersByEmail.getIfPresent(email);
+        if (customer != null) {
+            invalidate(customer);
+        } else {
+            customersByEmail.invalidate(email);
+        }
+    }
+
+    /**
+     * Loads a customer on a miss and also puts it into the other index, since a customer that is looked up by
+     * one key is usually looked up by the other one soon after.
+     */
+    private <K, O> Customer load(K key, Function<K, Optional<Customer>> loader,
+                                 Cache<O, Customer> otherIndex, Function<Customer, O> otherKey) {
+        Customer customer = loader.apply(key).orElse(null);
+        if (customer != null) {
+            otherIndex.put(otherKey.apply(customer), customer);
+        }
+        return customer;
+    }
+
+    @Override
+    public long getHitCount() {
+        return customersByEmail.stats().hitCount() + customersById.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return customersByEmail.stats().missCount() + customersById.stats().missCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return customersByEmail.stats().evictionCount() + customersById.stats().evictionCount();
+    }
+
+    @Override
+    public long getSize() {
+        return customersByEmail.estimatedSize();
+    }
+
+    /**
+     * Performs pending evictions, which otherwise happen asynchronously.
+     */
+    void cleanUp() {
+        customersByEmail.cleanUp();
+        customersById.cleanUp();
+    }
+
+    /**
+     * Publishes the cache statistics over JMX as {@value #OBJECT_NAME}.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                logger.warn("JMX name ({}) is already registered.", OBJECT_NAME);
+                return;
+            }
+            mBeanServer.registerMBean(this, objectName);
+            registeredName = objectName;
+        } catch (JMException e) {
+            logger.warn("Failed to register the customer cache MBean: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            logger.warn("Failed to unregister the customer cache MBean: {}", e.getMessage(), e);
+        }
+        registeredName = null;
+    }
+}
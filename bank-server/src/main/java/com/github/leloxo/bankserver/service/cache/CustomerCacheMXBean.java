@@ -0,0 +1,14 @@
+package com.github.leloxo.bankserver.service.cache;
+
+/**
+ * Statistics of the {@link CustomerCache}, published over JMX.
+ */
+public interface CustomerCacheMXBean {
+    long getHitCount();
+
+    long getMissCount();
+
+    long getEvictionCount();
+
+    long getSize();
+}
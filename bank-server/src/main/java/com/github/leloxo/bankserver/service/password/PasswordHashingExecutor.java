@@ -0,0 +1,220 @@
+package com.github.leloxo.bankserver.service.password;
+
+import com.github.leloxo.bankserver.exception.customer.PasswordHashingBusyException;
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a dedicated, fixed-size thread pool with a bounded queue.
+ * <p>
+ * BCrypt is deliberately CPU-expensive. Running it here caps the CPU a burst of logins and registrations can take
+ * from other requests at the pool size, and caps the number of request threads waiting for it at the pool size plus
+ * the queue capacity. Work that does not fit is rejected right away with a {@link PasswordHashingBusyException}
+ * instead of queuing up behind the burst.
+ */
+public class PasswordHashingExecutor implements PasswordHashingExecutorMXBean, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    public static final String OBJECT_NAME = "com.github.leloxo.bankserver:type=PasswordHashingExecutor";
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder latencyCount = new LongAdder();
+    private final LongAdder latencyTotalNanos = new LongAdder();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+    private ObjectName registeredName;
+
+    /**
+     * @param threads       The number of threads, usually the number of CPU cores.
+     * @param queueCapacity The number of tasks that may wait for a thread before new tasks are rejected.
+     */
+    public PasswordHashingExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hashes a password on the hashing pool and waits for the result.
+     *
+     * @param rawPassword The password to hash.
+     * @return The hashed password.
+     * @throws PasswordHashingBusyException If the hashing pool is saturated.
+     */
+    public String hash(String rawPassword) {
+        return run(() -> PasswordHasher.hashPassword(rawPassword));
+    }
+
+    /**
+     * Checks a password against its hash on the hashing pool and waits for the result.
+     *
+     * @param rawPassword    The password to check.
+     * @param hashedPassword The stored hash.
+     * @return {@code true} if the password matches the hash.
+     * @throws PasswordHashingBusyException If the hashing pool is saturated.
+     */
+    public boolean matches(String rawPassword, String hashedPassword) {
+        return run(() -> PasswordHasher.checkPassword(rawPassword, hashedPassword));
+    }
+
+    /**
+     * Hashes a password on the hashing pool without waiting for the result, for callers that must not block.
+     *
+     * @param rawPassword The password to hash.
+     * @return A future completed with the hashed password, or failed with a {@link PasswordHashingBusyException}
+     * if the hashing pool is saturated.
+     */
+    public CompletableFuture<String> hashAsync(String rawPassword) {
+        return runAsync(() -> PasswordHasher.hashPassword(rawPassword));
+    }
+
+    /**
+     * Checks a password against its hash on the hashing pool without waiting for the result, for callers that must not block.
+     *
+     * @param rawPassword    The password to check.
+     * @param hashedPassword The stored hash.
+     * @return A future completed with {@code true} if the password matches the hash, or failed with a
+     * {@link PasswordHashingBusyException} if the hashing pool is saturated.
+     */
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String hashedPassword) {
+        return runAsync(() -> PasswordHasher.checkPassword(rawPassword, hashedPassword));
+    }
+
+    private <T> CompletableFuture<T> runAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(task), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(rejected());
+        }
+    }
+
+    private <T> T run(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    private PasswordHashingBusyException rejected() {
+        rejectedCount.increment();
+        logger.debug("Password hashing rejected, {} tasks are queued.", executor.getQueue().size());
+        return new PasswordHashingBusyException("The server is busy, please try again later.");
+    }
+
+    private void recordLatency(long nanos) {
+        latencyCount.increment();
+        latencyTotalNanos.add(nanos);
+        latencyMaxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return latencyCount.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public double getAverageLatencyMs() {
+        long count = latencyCount.sum();
+        return count == 0 ? 0 : latencyTotalNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public double getMaxLatencyMs() {
+        return latencyMaxNanos.get() / 1e6;
+    }
+
+    /**
+     * @return The time the completed hashes and checks took in total, for {@code bank.password.hashing.pool}.
+     */
+    public long getTotalLatencyNanos() {
+        return latencyTotalNanos.sum();
+    }
+
+    /**
+     * Publishes the executor statistics over JMX as {@value #OBJECT_NAME}.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                logger.warn("JMX name ({}) is already registered.", OBJECT_NAME);
+                return;
+            }
+            mBeanServer.registerMBean(this, objectName);
+            registeredName = objectName;
+        } catch (JMException e) {
+            logger.warn("Failed to register the password hashing MBean: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            logger.warn("Failed to unregister the password hashing MBean: {}", e.getMessage(), e);
+        }
+        registeredName = null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.leloxo.bankserver.service.password;
+
+/**
+ * Statistics of the {@link PasswordHashingExecutor}, published over JMX.
+ */
+public interface PasswordHashingExecutorMXBean {
+    int getQueueDepth();
+
+    int getActiveCount();
+
+    long getCompletedCount();
+
+    long getRejectedCount();
+
+    double getAverageLatencyMs();
+
+    double getMaxLatencyMs();
+}
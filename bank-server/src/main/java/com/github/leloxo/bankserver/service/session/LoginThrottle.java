@@ -0,0 +1,282 @@
+package com.github.leloxo.bankserver.service.session;
+
+import com.github.leloxo.bankserver.exception.session.LoginThrottledException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts failed logins per email and per client address over a sliding window and rejects further attempts once a
+ * key has too many, before the password is checked.
+ * <p>
+ * Every attempt is {@linkplain #reserve reserved} before the password is checked, and counts as a failure from then
+ * on. Checking the limit and counting the attempt happen together, so concurrent attempts can never get more than the
+ * limit past the check. A successful login {@linkplain #recordSuccess gives its reservation back}, as does an attempt
+ * that ended before the password was checked.
+ * <p>
+ * The window is split into {@value #BUCKETS} time buckets. Every key owns a ring of that many slots, each packing a
+ * bucket number and the failure count of that bucket into one {@code long}, and the total of the counts inside the
+ * window. Reserving compares and sets the total against the limit before it increments the slot, so no lock is held and
+ * the total is never below the counts of the slots. Once a key sees a new bucket, the counts of slots whose bucket has
+ * left the window are taken out of the total and the slots are reused. Keys without failures inside the window are
+ * removed at most once per bucket.
+ */
+public class LoginThrottle {
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final int BUCKETS = 16;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final ConcurrentHashMap<String, FailureWindow> failuresByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FailureWindow> failuresByAddress = new ConcurrentHashMap<>();
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerAddress;
+    private final long bucketMillis;
+    private final Clock clock;
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    /**
+     * @param maxFailuresPerEmail   The number of failed logins for one email after which further attempts are rejected.
+     * @param maxFailuresPerAddress The number of failed logins from one client address after which further attempts are rejected.
+     * @param window                The time over which failed logins are counted.
+     * @param clock                 The clock used for the time buckets.
+     */
+    public LoginThrottle(int maxFailuresPerEmail, int maxFailuresPerAddress, Duration window, Clock clock) {
+        if (maxFailuresPerEmail <= 0 || maxFailuresPerAddress <= 0) {
+            throw new IllegalArgumentException("Failure limits must be positive.");
+        }
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.bucketMillis = Math.max(1, window.toMillis() / BUCKETS);
+        this.clock = clock;
+    }
+
+    /**
+     * Counts a login attempt for the email and the client address, unless one of them has reached its limit. The
+     * attempt counts as failed until it is given back with {@link #recordSuccess} or {@link #release}.
+     *
+     * @param email   The email the login is attempted for.
+     * @param address The address of the client.
+     * @return The reservation of the attempt.
+     * @throws LoginThrottledException If the email or the address has reached its limit.
+     */
+    public Attempt reserve(String email, String address) {
+        long bucket = currentBucket();
+        String emailKey = normalize(email);
+        FailureWindow emailFailures = acquire(failuresByEmail, emailKey, maxFailuresPerEmail, bucket);
+        if (emailFailures == null) {
+            throw throttled(email, address, failuresByEmail.get(emailKey), bucket);
+        }
+        FailureWindow addressFailures = acquire(failuresByAddress, address, maxFailuresPerAddress, bucket);
+        if (addressFailures == null) {
+            emailFailures.decrement(bucket);
+            throw throttled(email, address, failuresByAddress.get(address), bucket);
+        }
+        purgeExpired(bucket);
+        return new Attempt(emailKey, emailFailures, addressFailures, bucket);
+    }
+
+    /**
+     * Gives back the reservation of an attempt that ended before the password was checked, e.g. because the server
+     * was too busy to check it.
+     *
+     * @param attempt The reservation returned by {@link #reserve}.
+     */
+    public void release(Attempt attempt) {
+        attempt.emailFailures.decrement(attempt.bucket);
+        attempt.addressFailures.decrement(attempt.bucket);
+    }
+
+    /**
+     * Gives back the reservation of a successful login and clears the failed logins of its email. The other failures
+     * of the client address are kept, so logging into one account does not reset the limit for guessing others.
+     *
+     * @param attempt The reservation returned by {@link #reserve}.
+     */
+    public void recordSuccess(Attempt attempt) {
+        attempt.addressFailures.decrement(attempt.bucket);
+        failuresByEmail.remove(attempt.emailKey, attempt.emailFailures);
+    }
+
+    int getTrackedKeyCount() {
+        return failuresByEmail.size() + failuresByAddress.size();
+    }
+
+    /**
+     * Counts an attempt in the window of {@code key} if it is below {@code limit}.
+     *
+     * @return The window the attempt was counted in, or {@code null} if the key has reached its limit.
+     */
+    private static FailureWindow acquire(ConcurrentHashMap<String, FailureWindow> windows, String key, int limit, long bucket) {
+        while (true) {
+            FailureWindow failures = windows.computeIfAbsent(key, ignored -> new FailureWindow());
+            if (!failures.tryIncrement(bucket, limit)) {
+                return null;
+            }
+            // A window that was purged while it was empty is no longer counted, so the attempt moves to its successor.
+            if (windows.get(key) == failures) {
+                return failures;
+            }
+            failures.decrement(bucket);
+        }
+    }
+
+    private LoginThrottledException throttled(String email, String address, FailureWindow blocking, long bucket) {
+        logger.warn("Login for email {} from {} rejected after too many failed attempts.", email, address);
+        long retryAfterSeconds = blocking == null ? 1 : retryAfterSeconds(blocking, bucket);
+        return new LoginThrottledException("Too many failed login attempts, please try again later.", retryAfterSeconds);
+    }
+
+    private long currentBucket() {
+        return clock.millis() / bucketMillis;
+    }
+
+    private long retryAfterSeconds(FailureWindow failures, long bucket) {
+        long expiresAt = (failures.oldestBucket(bucket) + BUCKETS) * bucketMillis;
+        return Math.max(1, (expiresAt - clock.millis() + 999) / 1000);
+    }
+
+    private void purgeExpired(long bucket) {
+        long purgeAt = nextPurge.get();
+        if (bucket >= purgeAt && nextPurge.compareAndSet(purgeAt, bucket + 1)) {
+            failuresByEmail.values().removeIf(failures -> failures.isEmpty(bucket));
+            failuresByAddress.values().removeIf(failures -> failures.isEmpty(bucket));
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A login attempt that has been counted for its email and client address.
+     */
+    public static final class Attempt {
+        private final String emailKey;
+        private final FailureWindow emailFailures;
+        private final FailureWindow addressFailures;
+        private final long bucket;
+
+        private Attempt(String emailKey, FailureWindow emailFailures, FailureWindow addressFailures, long bucket) {
+            this.emailKey = emailKey;
+            this.emailFailures = emailFailures;
+            this.addressFailures = addressFailures;
+            this.bucket = bucket;
+        }
+    }
+
+    private static final class FailureWindow {
+        private final AtomicLongArray slots = new AtomicLongArray(BUCKETS);
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong lastBucket = new AtomicLong();
+
+        private boolean tryIncrement(long bucket, int limit) {
+            advance(bucket);
+            while (true) {
+                long count = total.get();
+                if (count >= limit) {
+                    return false;
+                }
+                if (total.compareAndSet(count, count + 1)) {
+                    break;
+                }
+            }
+            increment(bucket);
+            return true;
+        }
+
+        /**
+         * Takes back one count of {@code bucket}. Once the bucket's slot has been reused for a later bucket, the count
+         * has already left the window and nothing is taken back.
+         */
+        private void decrement(long bucket) {
+            int index = (int) (bucket % BUCKETS);
+            while (true) {
+                long slot = slots.get(index);
+                if (slot >>> COUNT_BITS != bucket || (slot & COUNT_MASK) == 0) {
+                    return;
+                }
+                if (slots.compareAndSet(index, slot, slot - 1)) {
+                    total.decrementAndGet();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Adds a count that has already been added to the total to the slot of {@code bucket}.
+         */
+        private void increment(long bucket) {
+            int index = (int) (bucket % BUCKETS);
+            while (true) {
+                long slot = slots.get(index);
+                long slotBucket = slot >>> COUNT_BITS;
+                if (slotBucket > bucket || (slotBucket == bucket && (slot & COUNT_MASK) == COUNT_MASK)) {
+                    // The bucket has already left the window, or its count cannot grow any further.
+                    total.decrementAndGet();
+                    return;
+                }
+                long next = slotBucket == bucket ? slot + 1 : bucket << COUNT_BITS | 1;
+                if (slots.compareAndSet(index, slot, next)) {
+                    if (slotBucket != bucket) {
+                        // The slot belonged to a bucket that has left the window.
+                        total.addAndGet(-(slot & COUNT_MASK));
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Takes the counts of the slots that have left the window at {@code bucket} out of the total, unless this window
+         * has already seen {@code bucket}. Concurrent calls take every count out only once.
+         */
+        private void advance(long bucket) {
+            if (lastBucket.get() >= bucket) {
+                return;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                while (true) {
+                    long slot = slots.get(i);
+                    long slotBucket = slot >>> COUNT_BITS;
+                    long count = slot & COUNT_MASK;
+                    if (count == 0 || isInWindow(slotBucket, bucket) || slotBucket > bucket) {
+                        break;
+                    }
+                    if (slots.compareAndSet(i, slot, slotBucket << COUNT_BITS)) {
+                        total.addAndGet(-count);
+                        break;
+                    }
+                }
+            }
+            lastBucket.accumulateAndGet(bucket, Math::max);
+        }
+
+        private long oldestBucket(long bucket) {
+            long oldest = bucket;
+            for (int i = 0; i < BUCKETS; i++) {
+                long slotBucket = slots.get(i) >>> COUNT_BITS;
+                if (isInWindow(slotBucket, bucket)) {
+                    oldest = Math.min(oldest, slotBucket);
+                }
+            }
+            return oldest;
+        }
+
+        private boolean isEmpty(long bucket) {
+            advance(bucket);
+            return total.get() == 0;
+        }
+
+        private static boolean isInWindow(long slotBucket, long bucket) {
+            return slotBucket > bucket - BUCKETS && slotBucket <= bucket;
+        }
+    }
+}
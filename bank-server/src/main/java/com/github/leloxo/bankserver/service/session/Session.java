@@ -0,0 +1,42 @@
+package com.github.leloxo.bankserver.service.session;
+
+import java.time.Instant;
+
+/**
+ * The verified contents of a session token.
+ */
+public class Session {
+    private final String token;
+    private final String tokenId;
+    private final Long customerId;
+    private final String email;
+    private final Instant expiresAt;
+
+    Session(String token, String tokenId, Long customerId, String email, Instant expiresAt) {
+        this.token = token;
+        this.tokenId = tokenId;
+        this.customerId = customerId;
+        this.email = email;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.leloxo.bankserver.service.session;
+
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.exception.session.InvalidSessionException;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues and verifies signed, short-lived session tokens.
+ * <p>
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))}, where the payload holds a random
+ * token ID, the customer ID, the expiry time and the email. Verifying a token therefore only costs one HMAC, so the
+ * password hash is checked once per login instead of once per request. Tokens revoked before they expire are kept in
+ * memory until their expiry time; all tokens become invalid when the signing key changes.
+ */
+public class SessionTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int TOKEN_ID_BYTES = 16;
+    private static final long PURGE_INTERVAL_MS = 60_000;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final Mac prototypeMac;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    /**
+     * @param secret     The signing key, at least 32 bytes.
+     * @param timeToLive The time after which issued tokens expire.
+     * @param clock      The clock used for expiry.
+     */
+    public SessionTokenService(byte[] secret, Duration timeToLive, Clock clock) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("The session secret must be at least 32 bytes long.");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.prototypeMac = newMac();
+    }
+
+    /**
+     * Issues a new session token for a customer whose password was checked.
+     *
+     * @param customer The authenticated customer.
+     * @return The session of the new token.
+     */
+    public Session issue(Customer customer) {
+        byte[] tokenIdBytes = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(tokenIdBytes);
+        String tokenId = ENCODER.encodeToString(tokenIdBytes);
+        Instant expiresAt = clock.instant().plus(timeToLive);
+
+        String payload = tokenId + ":" + customer.getId() + ":" + expiresAt.getEpochSecond() + ":" + customer.getEmail();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        String token = ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+        logger.info("Issued session token for customer with email {}, valid until {}.", customer.getEmail(), expiresAt);
+        return new Session(token, tokenId, customer.getId(), customer.getEmail(), expiresAt);
+    }
+
+    /**
+     * Verifies the bearer token of an {@code Authorization} header.
+     *
+     * @param authorizationHeader The value of the {@code Authorization} header, may be {@code null}.
+     * @return The session of the token.
+     * @throws InvalidSessionException If the header is missing, or the token is malformed, forged, expired or revoked.
+     */
+    public Session authenticate(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            throw new InvalidSessionException("A session token is required, please log in.");
+        }
+        return verify(authorizationHeader.substring(BEARER_PREFIX.length()).trim());
+    }
+
+    /**
+     * Verifies the bearer token of an {@code Authorization} header and checks that it belongs to the customer
+     * with the given email.
+     *
+     * @param authorizationHeader The value of the {@code Authorization} header, may be {@code null}.
+     * @param email               The email of the customer whose data is accessed.
+     * @return The session of the token.
+     * @throws InvalidSessionException     If the token is not valid.
+     * @throws ForbiddenOperationException If the token belongs to another customer.
+     */
+    public Session authorize(String authorizationHeader, String email) {
+        Session session = authenticate(authorizationHeader);
+        if (!session.getEmail().equalsIgnoreCase(email)) {
+            throw new ForbiddenOperationException("The session does not belong to the customer with email " + email + ".");
+        }
+        return session;
+    }
+
+    /**
+     * Verifies a session token.
+     *
+     * @param token The session token.
+     * @return The session of the token.
+     * @throws InvalidSessionException If the token is malformed, forged, expired or revoked.
+     */
+    public Session verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            throw new InvalidSessionException("Malformed session token.");
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSessionException("Malformed session token.");
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            throw new InvalidSessionException("Invalid session token.");
+        }
+
+        String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split(":", 4);
+        if (fields.length != 4) {
+            throw new InvalidSessionException("Malformed session token.");
+        }
+        Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[2]));
+        if (!clock.instant().isBefore(expiresAt)) {
+            throw new InvalidSessionException("The session has expired, please log in again.");
+        }
+        if (revokedTokens.containsKey(fields[0])) {
+            throw new InvalidSessionException("The session has ended, please log in again.");
+        }
+        return new Session(token, fields[0], Long.parseLong(fields[1]), fields[3], expiresAt);
+    }
+
+    /**
+     * Revokes a session, e.g. on logout. The token is rejected from now on, until it would have expired anyway.
+     *
+     * @param session The session to revoke.
+     */
+    public void revoke(Session session) {
+        revokedTokens.put(session.getTokenId(), session.getExpiresAt());
+        purgeExpiredRevocations();
+    }
+
+    int getRevokedCount() {
+        return revokedTokens.size();
+    }
+
+    private void purgeExpiredRevocations() {
+        long now = clock.millis();
+        long purgeAt = nextPurge.get();
+        if (now >= purgeAt && nextPurge.compareAndSet(purgeAt, now + PURGE_INTERVAL_MS)) {
+            Instant instant = clock.instant();
+            revokedTokens.values().removeIf(expiresAt -> !instant.isBefore(expiresAt));
+        }
+    }
+
+    /**
+     * Signs with a copy of an initialized {@link Mac}, which is cheaper than initializing one with the key. A thread-local
+     * {@code Mac} would be initialized for every request on virtual threads, which are not reused. The prototype itself is
+     * never updated, so it can be copied concurrently.
+     */
+    private byte[] sign(byte[] payload) {
+        Mac mac;
+        try {
+            mac = (Mac) prototypeMac.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = newMac();
+        }
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available.", e);
+        }
+    }
+}
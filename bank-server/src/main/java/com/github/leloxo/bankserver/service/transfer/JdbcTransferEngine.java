@@ -0,0 +1,58 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default {@link TransferEngine} that applies every transfer directly in the database.
+ */
+public class JdbcTransferEngine implements TransferEngine {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcTransferEngine.class);
+
+    /** Number of transfers applied per database transaction by {@link #transferAll}. */
+    public static final int BATCH_CHUNK_SIZE = 500;
+
+    private final BankAccountRepository bankAccountRepository;
+
+    public JdbcTransferEngine(BankAccountRepository bankAccountRepository) {
+        this.bankAccountRepository = bankAccountRepository;
+    }
+
+    @Override
+    public void transfer(String senderAccountNumber, String receiverAccountNumber, Money amount)
+            throws BankAccountNotFoundException, InsufficientBalanceException {
+        bankAccountRepository.transferMoney(senderAccountNumber, receiverAccountNumber, amount);
+    }
+
+    /**
+     * Applies the transfers in chunks of {@value #BATCH_CHUNK_SIZE}, each in a single transaction.
+     * If a chunk fails with a database error, all of its transfers are reported as failed and the
+     * remaining chunks are still applied.
+     */
+    @Override
+    public List<MoneyTransferResult> transferAll(List<MoneyTransferRequestPayload> transfers) {
+        List<MoneyTransferResult> results = new ArrayList<>(transfers.size());
+        for (int from = 0; from < transfers.size(); from += BATCH_CHUNK_SIZE) {
+            List<MoneyTransferRequestPayload> chunk = transfers.subList(from, Math.min(from + BATCH_CHUNK_SIZE, transfers.size()));
+            try {
+                results.addAll(bankAccountRepository.transferMoneyBatch(chunk));
+            } catch (BankAccountRepositoryException e) {
+                logger.error("Failed to apply {} transfers of a batch: {}", chunk.size(), e.getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(new MoneyTransferResult(MoneyTransferResult.Status.FAILED, "An error occurred while processing the transfer."));
+                }
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+
+/**
+ * A transfer accepted by the {@link LedgerTransferEngine}, as recorded in the {@link WriteAheadLog}.
+ */
+public class LedgerEntry {
+    private final long sequence;
+    private final String senderAccountNumber;
+    private final String receiverAccountNumber;
+    private final Money amount;
+
+    public LedgerEntry(long sequence, String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        this.sequence = sequence;
+        this.senderAccountNumber = senderAccountNumber;
+        this.receiverAccountNumber = receiverAccountNumber;
+        this.amount = amount;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getSenderAccountNumber() {
+        return senderAccountNumber;
+    }
+
+    public String getReceiverAccountNumber() {
+        return receiverAccountNumber;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerEntry [sequence=" + sequence + ", sender=" + senderAccountNumber + ", receiver=" + receiverAccountNumber + ", amount=" + amount + "]";
+    }
+}
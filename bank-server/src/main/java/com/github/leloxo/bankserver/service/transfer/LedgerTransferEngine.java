@@ -0,0 +1,501 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link TransferEngine} that keeps balances in memory and writes them back to the database asynchronously.
+ * <p>
+ * Balances are loaded lazily from the database the first time an account takes part in a transfer, kept as
+ * {@code long} cents and guarded by a fixed set of striped locks. A transfer locks the stripes of both accounts in stripe order,
+ * checks the sender's balance, appends the transfer to the {@link WriteAheadLog} and only then applies it
+ * in memory. A single background thread applies logged transfers to the database in log order, in chunks of
+ * up to {@value JdbcTransferEngine#BATCH_CHUNK_SIZE} per transaction through
+ * {@link BankAccountRepository#applyLedgerTransfers}. After each chunk, the log segments that are fully applied
+ * are deleted. At most {@code maxPending} transfers wait for the database; further transfers block until the
+ * background thread catches up.
+ * <p>
+ * On {@link #start()} every logged transfer with a sequence number above
+ * {@link BankAccountRepository#getLastLedgerSequence()} is replayed into the database, in the same chunks,
+ * before transfers are accepted. Records are forced to disk every {@code fsyncIntervalMs} milliseconds, or on
+ * every append if the interval is {@code 0}; a crash can lose at most the transfers of one interval.
+ * <p>
+ * Balances read from the database lag behind the ledger until pending transfers are flushed. Balances
+ * must not be changed in the database by other means while the engine is running, and accounts must only
+ * be deleted after {@link #removeAccounts}. If the database still rejects a logged transfer, the ledger
+ * diverged from it; the transfer is then reversed in memory so that the ledger matches the database again.
+ */
+public class LedgerTransferEngine implements TransferEngine, Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(LedgerTransferEngine.class);
+
+    private static final long FLUSH_RETRY_DELAY_MS = 1_000L;
+    private static final long WAIT_TIMEOUT_MS = 30_000L;
+    private static final int CHUNK_SIZE = JdbcTransferEngine.BATCH_CHUNK_SIZE;
+
+    private final BankAccountRepository bankAccountRepository;
+    private final Path walPath;
+    private final long fsyncIntervalMs;
+    private final long segmentSize;
+
+    private final ConcurrentHashMap<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    private final ReentrantLock logLock = new ReentrantLock();
+    private final BlockingQueue<LedgerEntry> pendingEntries;
+    private final Semaphore pendingPermits;
+    private WriteAheadLog writeAheadLog;
+    private long lastSequence;
+    private volatile long flushedSequence;
+
+    private volatile boolean running;
+    private Thread flusher;
+    private ScheduledExecutorService syncScheduler;
+
+    /**
+     * @param bankAccountRepository The repository the ledger is flushed to.
+     * @param walPath               The location of the write-ahead log file.
+     * @param stripeCount           The number of lock stripes, rounded up to a power of two.
+     * @param fsyncIntervalMs       The interval between forced writes of the log, or {@code 0} to force every append.
+     * @param maxPending            The maximum number of transfers that wait to be applied to the database.
+     * @param segmentSize           The size in bytes of a write-ahead log segment.
+     */
+    public LedgerTransferEngine(BankAccountRepository bankAccountRepository, Path walPath, int stripeCount, long fsyncIntervalMs,
+                                int maxPending, long segmentSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.walPath = walPath;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.segmentSize = segmentSize;
+        this.pendingEntries = new LinkedBlockingQueue<>(maxPending);
+        this.pendingPermits = new Semaphore(maxPending);
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * Replays the write-ahead log into the database and starts accepting transfers.
+     *
+     * @throws IOException If the write-ahead log cannot be read or opened.
+     * @throws BankAccountRepositoryException If a logged transfer cannot be applied to the database.
+     */
+    public void start() throws IOException {
+        long checkpoint = bankAccountRepository.getLastLedgerSequence();
+        lastSequence = checkpoint;
+        List<LedgerEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+        long logged = WriteAheadLog.readEntries(walPath, entry -> {
+            if (entry.getSequence() > checkpoint) {
+                chunk.add(entry);
+                if (chunk.size() == CHUNK_SIZE) {
+                    replay(chunk);
+                }
+            }
+            lastSequence = Math.max(lastSequence, entry.getSequence());
+        });
+        replay(chunk);
+        flushedSequence = lastSequence;
+        logger.info("Recovered ledger from {}: replayed {} of {} logged transfers, continuing at sequence {}.",
+                walPath, lastSequence - checkpoint, logged, lastSequence + 1);
+
+        writeAheadLog = WriteAheadLog.openEmpty(walPath, segmentSize);
+        running = true;
+
+        flusher = new Thread(this::flushLoop, "ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        if (fsyncIntervalMs > 0) {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ledger-wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void transfer(String senderAccountNumber, String receiverAccountNumber, Money amount)
+            throws BankAccountNotFoundException, InsufficientBalanceException {
+        if (!running) {
+            throw new IllegalStateException("Ledger transfer engine is not running.");
+        }
+        LedgerAccount sender = getAccount(senderAccountNumber);
+        LedgerAccount receiver = getAccount(receiverAccountNumber);
+        acquirePendingPermit();
+
+        boolean logged = false;
+        int senderStripe = stripeOf(senderAccountNumber);
+        int receiverStripe = stripeOf(receiverAccountNumber);
+        ReentrantLock first = stripes[Math.min(senderStripe, receiverStripe)];
+        ReentrantLock second = stripes[Math.max(senderStripe, receiverStripe)];
+
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        try {
+            if (sender.removed || receiver.removed) {
+                throw new BankAccountNotFoundException("Bank account does not exist.");
+            }
+            long cents = amount.getCents();
+            if (sender.balanceCents < cents) {
+                throw new InsufficientBalanceException("Your balance is insufficient for this transaction.");
+            }
+            long receiverBalanceCents = Math.addExact(receiver.balanceCents, cents);
+            log(senderAccountNumber, receiverAccountNumber, amount);
+            logged = true;
+            sender.balanceCents -= cents;
+            receiver.balanceCents = receiverBalanceCents;
+        } finally {
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+            if (!logged) {
+                pendingPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the in-memory balance of an account, loading it from the database if necessary.
+     *
+     * @param accountNumber The account number.
+     * @return The current ledger balance.
+     * @throws BankAccountNotFoundException If the account does not exist.
+     */
+    public Money getBalance(String accountNumber) throws BankAccountNotFoundException {
+        LedgerAccount account = getAccount(accountNumber);
+        ReentrantLock lock = stripes[stripeOf(accountNumber)];
+        lock.lock();
+        try {
+            if (account.removed) {
+                throw new BankAccountNotFoundException("Bank account does not exist.");
+            }
+            return Money.ofCents(account.balanceCents);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the accounts for transfers and waits until the transfers logged for them before are applied to
+     * the database. Removed accounts stay in memory as closed tombstones, so that they are not loaded again
+     * while the database delete is still in progress; account numbers are never reused. If the delete fails,
+     * the accounts stay closed until the engine is restarted.
+     *
+     * @throws BankAccountRepositoryException If the logged transfers are not applied within 30 seconds.
+     */
+    @Override
+    public void removeAccounts(Collection<String> accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            ReentrantLock lock = stripes[stripeOf(accountNumber)];
+            lock.lock();
+            try {
+                accounts.compute(accountNumber, (key, account) -> {
+                    LedgerAccount removed = account != null ? account : new LedgerAccount(0);
+                    removed.removed = true;
+                    return removed;
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long sequence;
+        logLock.lock();
+        try {
+            sequence = lastSequence;
+        } finally {
+            logLock.unlock();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT_MS);
+        while (flushedSequence < sequence) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new BankAccountRepositoryException("Pending ledger transfers were not applied to the database in time.",
+                        new TimeoutException("Flushed up to sequence " + flushedSequence + " of " + sequence));
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BankAccountRepositoryException("Interrupted while waiting for pending ledger transfers.", e);
+            }
+        }
+        logger.info("Removed {} bank accounts from the ledger.", accountNumbers.size());
+    }
+
+    /**
+     * @return The number of logged transfers that are not yet applied to the database.
+     */
+    public int getPendingCount() {
+        return pendingEntries.size();
+    }
+
+    /**
+     * Stops accepting transfers, waits up to {@code timeoutMs} for pending transfers to reach the database
+     * and closes the write-ahead log. Transfers that could not be flushed are replayed on the next start.
+     */
+    public void close(long timeoutMs) throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            if (syncScheduler != null) {
+                // Not shutdownNow(): interrupting a running fsync closes the log's file channel.
+                syncScheduler.shutdown();
+                syncScheduler.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+            flusher.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            logger.warn("{} ledger transfers were not flushed to the database and will be replayed on restart.", pendingEntries.size());
+            flusher.interrupt();
+        }
+        logLock.lock();
+        try {
+            writeAheadLog.close();
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        close(30_000L);
+    }
+
+    private LedgerAccount getAccount(String accountNumber) throws BankAccountNotFoundException {
+        LedgerAccount account = accounts.get(accountNumber);
+        if (account != null) {
+            return account;
+        }
+        // Loaded outside of the map so that the query does not block other keys of the same bin. The balance
+        // cannot change in the meantime, only the ledger changes it, and only once the account is in the map.
+        LedgerAccount loaded = loadAccount(accountNumber);
+        if (loaded == null) {
+            throw new BankAccountNotFoundException("Bank account does not exist.");
+        }
+        account = accounts.putIfAbsent(accountNumber, loaded);
+        return account != null ? account : loaded;
+    }
+
+    private void acquirePendingPermit() {
+        try {
+            if (!pendingPermits.tryAcquire(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new BankAccountRepositoryException("Too many ledger transfers are waiting for the database.",
+                        new TimeoutException(pendingEntries.size() + " transfers pending"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankAccountRepositoryException("Interrupted while waiting for pending ledger transfers.", e);
+        }
+    }
+
+    private LedgerAccount loadAccount(String accountNumber) {
+        return bankAccountRepository.getBankAccountByAccountNumber(accountNumber)
+                .map(BankAccountDto::getBalance)
+                .map(balance -> new LedgerAccount(balance.getCents()))
+                .orElse(null);
+    }
+
+    private int stripeOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+
+    private void log(String senderAccountNumber, String receiverAccountNumber, Money amount) {
+        logLock.lock();
+        try {
+            LedgerEntry entry = new LedgerEntry(lastSequence + 1, senderAccountNumber, receiverAccountNumber, amount);
+            writeAheadLog.append(entry);
+            if (fsyncIntervalMs == 0) {
+                writeAheadLog.sync();
+            }
+            lastSequence = entry.getSequence();
+            pendingEntries.add(entry);
+        } catch (IOException e) {
+            logger.error("Failed to append transfer to the write-ahead log: {}", e.getMessage(), e);
+            throw new BankAccountRepositoryException("Failed to record transfer.", e);
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        List<LedgerEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (running || !pendingEntries.isEmpty()) {
+            LedgerEntry entry;
+            try {
+                entry = pendingEntries.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (entry == null) {
+                truncateIfFlushed();
+                continue;
+            }
+            chunk.add(entry);
+            pendingEntries.drainTo(chunk, CHUNK_SIZE - 1);
+            if (!flushWithRetry(chunk)) {
+                return;
+            }
+            flushedSequence = chunk.get(chunk.size() - 1).getSequence();
+            pendingPermits.release(chunk.size());
+            chunk.clear();
+            deleteFlushedSegments();
+        }
+        truncateIfFlushed();
+    }
+
+    private boolean flushWithRetry(List<LedgerEntry> chunk) {
+        while (true) {
+            try {
+                List<MoneyTransferResult> results = applyToDatabase(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (results.get(i).getStatus() != MoneyTransferResult.Status.COMPLETED) {
+                        // Retrying cannot help: the database diverged from the ledger, e.g. because an account was deleted.
+                        logger.error("The database rejected ledger transfer {}, reversing it: {}", chunk.get(i), results.get(i).getMessage());
+                        reverse(chunk.get(i));
+                    }
+                }
+                return true;
+            } catch (BankAccountRepositoryException e) {
+                logger.error("Failed to flush {} ledger transfers from sequence {}, retrying: {}",
+                        chunk.size(), chunk.get(0).getSequence(), e.getMessage());
+                try {
+                    Thread.sleep(FLUSH_RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies logged transfers on startup. Balances are not loaded yet, so there is nothing to reverse in memory
+     * for the transfers that the database rejects.
+     */
+    private void replay(List<LedgerEntry> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<MoneyTransferResult> results = applyToDatabase(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results.get(i).getStatus() != MoneyTransferResult.Status.COMPLETED) {
+                logger.error("Skipping logged ledger transfer {} that the database rejected: {}", chunk.get(i), results.get(i).getMessage());
+            }
+        }
+        chunk.clear();
+    }
+
+    private List<MoneyTransferResult> applyToDatabase(List<LedgerEntry> chunk) {
+        List<MoneyTransferRequestPayload> transfers = new ArrayList<>(chunk.size());
+        long[] ledgerSequences = new long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            LedgerEntry entry = chunk.get(i);
+            transfers.add(new MoneyTransferRequestPayload(entry.getSenderAccountNumber(), entry.getReceiverAccountNumber(), entry.getAmount()));
+            ledgerSequences[i] = entry.getSequence();
+        }
+        return bankAccountRepository.applyLedgerTransfers(transfers, ledgerSequences);
+    }
+
+    /**
+     * Undoes a transfer in memory that could not be applied to the database. Removed accounts are left alone,
+     * and the receiver's balance may go negative if the money was already passed on; the transfers that passed
+     * it on are then rejected by the database as well and reversed in turn.
+     */
+    private void reverse(LedgerEntry entry) {
+        int senderStripe = stripeOf(entry.getSenderAccountNumber());
+        int receiverStripe = stripeOf(entry.getReceiverAccountNumber());
+        ReentrantLock first = stripes[Math.min(senderStripe, receiverStripe)];
+        ReentrantLock second = stripes[Math.max(senderStripe, receiverStripe)];
+
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        try {
+            long cents = entry.getAmount().getCents();
+            LedgerAccount sender = accounts.get(entry.getSenderAccountNumber());
+            if (sender != null && !sender.removed) {
+                sender.balanceCents += cents;
+            }
+            LedgerAccount receiver = accounts.get(entry.getReceiverAccountNumber());
+            if (receiver != null && !receiver.removed) {
+                receiver.balanceCents -= cents;
+            }
+        } finally {
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+    }
+
+    private void deleteFlushedSegments() {
+        logLock.lock();
+        try {
+            writeAheadLog.deleteSegmentsUpTo(flushedSequence);
+        } catch (IOException e) {
+            logger.error("Failed to delete flushed write-ahead log segments: {}", e.getMessage(), e);
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    private void truncateIfFlushed() {
+        logLock.lock();
+        try {
+            if (flushedSequence == lastSequence && pendingEntries.isEmpty()) {
+                writeAheadLog.truncate();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to truncate the write-ahead log: {}", e.getMessage(), e);
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            writeAheadLog.sync();
+        } catch (IOException e) {
+            logger.error("Failed to sync the write-ahead log: {}", e.getMessage(), e);
+        }
+    }
+
+    private static class LedgerAccount {
+        private long balanceCents;
+        private boolean removed;
+
+        private LedgerAccount(long balanceCents) {
+            this.balanceCents = balanceCents;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountRepositoryException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Moves money between two bank accounts. The implementation is selected with the
+ * {@code bank.transfer.engine} property ({@code jdbc} or {@code ledger}).
+ */
+public interface TransferEngine {
+    /**
+     * Transfers money between two bank accounts. The arguments are expected to be validated already.
+     *
+     * @param senderAccountNumber   The account number of the sender.
+     * @param receiverAccountNumber The account number of the receiver.
+     * @param amount                The amount to be transferred.
+     * @throws BankAccountNotFoundException If the sender or receiver account does not exist.
+     * @throws InsufficientBalanceException If the sender's balance is lower than the amount.
+     */
+    void transfer(String senderAccountNumber, String receiverAccountNumber, Money amount)
+            throws BankAccountNotFoundException, InsufficientBalanceException;
+
+    /**
+     * Called before bank accounts are deleted from the database. Afterwards the engine accepts no transfers
+     * to or from the accounts, and every transfer it accepted for them before has reached the database.
+     *
+     * @param accountNumbers The account numbers of the bank accounts that are about to be deleted.
+     * @throws BankAccountRepositoryException If earlier transfers of the accounts cannot be applied to the database.
+     */
+    default void removeAccounts(Collection<String> accountNumbers) {
+    }
+
+    /**
+     * Applies independent transfers one after another and reports the outcome of each.
+     * The arguments are expected to be validated already.
+     *
+     * @param transfers The transfers to apply.
+     * @return One result per transfer, in the same order.
+     */
+    default List<MoneyTransferResult> transferAll(List<MoneyTransferRequestPayload> transfers) {
+        List<MoneyTransferResult> results = new ArrayList<>(transfers.size());
+        for (MoneyTransferRequestPayload transfer : transfers) {
+            MoneyTransferResult result;
+            try {
+                transfer(transfer.getSenderAccountNumber(), transfer.getReceiverAccountNumber(), transfer.getAmount());
+                result = MoneyTransferResult.completed();
+            } catch (BankAccountNotFoundException e) {
+                result = new MoneyTransferResult(MoneyTransferResult.Status.ACCOUNT_NOT_FOUND, e.getMessage());
+            } catch (InsufficientBalanceException e) {
+                result = new MoneyTransferResult(MoneyTransferResult.Status.INSUFFICIENT_BALANCE, e.getMessage());
+            } catch (BankAccountRepositoryException e) {
+                result = new MoneyTransferResult(MoneyTransferResult.Status.FAILED, "An error occurred while processing the transfer.");
+            }
+            results.add(result);
+        }
+        return results;
+    }
+}
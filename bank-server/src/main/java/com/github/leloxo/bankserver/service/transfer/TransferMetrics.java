@@ -0,0 +1,64 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts money transfers by outcome in the {@code bank.transfers} counter, tagged with the
+ * {@link MoneyTransferResult.Status} of each transfer.
+ */
+public class TransferMetrics {
+    private final Map<MoneyTransferResult.Status, Counter> counters = new EnumMap<>(MoneyTransferResult.Status.class);
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        for (MoneyTransferResult.Status status : MoneyTransferResult.Status.values()) {
+            counters.put(status, Counter.builder("bank.transfers")
+                    .description("Money transfers by outcome")
+                    .tag("outcome", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(MoneyTransferResult.Status status) {
+        counters.get(status).increment();
+    }
+
+    public void recordAll(List<MoneyTransferResult> results) {
+        for (MoneyTransferResult result : results) {
+            record(result.getStatus());
+        }
+    }
+
+    /**
+     * Counts a rejected transfer with the outcome that corresponds to the exception.
+     */
+    public void recordFailure(Throwable e) {
+        record(statusOf(e));
+    }
+
+    private static MoneyTransferResult.Status statusOf(Throwable e) {
+        if (e instanceof InvalidBankAccountDataException) {
+            return MoneyTransferResult.Status.INVALID;
+        }
+        if (e instanceof ForbiddenOperationException) {
+            return MoneyTransferResult.Status.FORBIDDEN;
+        }
+        if (e instanceof BankAccountNotFoundException) {
+            return MoneyTransferResult.Status.ACCOUNT_NOT_FOUND;
+        }
+        if (e instanceof InsufficientBalanceException) {
+            return MoneyTransferResult.Status.INSUFFICIENT_BALANCE;
+        }
+        return MoneyTransferResult.Status.FAILED;
+    }
+}
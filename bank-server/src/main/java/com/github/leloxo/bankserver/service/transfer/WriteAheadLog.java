@@ -0,0 +1,307 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of {@link LedgerEntry} records, split into segment files.
+ * <p>
+ * Each record is stored as {@code [payload length][CRC32 of payload][payload]}, so a record that was only
+ * partially written before a crash is detected and ignored on recovery. Records are appended to the segment
+ * {@code <path>.<n>}; once it grows beyond the segment size, it is forced to disk and the next segment is started.
+ * Segments whose records are all applied to the database are deleted with {@link #deleteSegmentsUpTo(long)}, so
+ * the log does not grow while the database is catching up. Appends are not synchronized; callers have to
+ * serialize them. {@link #sync()} may be called concurrently to force appended records to disk.
+ */
+public class WriteAheadLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MAX_PAYLOAD_SIZE = Long.BYTES + 1 + 255 + 1 + 255 + Long.BYTES + 1;
+
+    private final Path path;
+    private final long segmentSize;
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + MAX_PAYLOAD_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    private volatile FileChannel channel;
+    private Path segmentPath;
+    private long segmentIndex;
+    private long segmentLastSequence;
+
+    private WriteAheadLog(Path path, long segmentSize) {
+        this.path = path;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens the log at {@code path} for appending, discarding any records it contains.
+     *
+     * @param path        The location of the log; segments are stored next to it as {@code <path>.<n>}.
+     * @param segmentSize The size in bytes after which the next segment is started.
+     * @return The opened, empty log.
+     * @throws IOException If the segment files cannot be deleted or opened.
+     */
+    public static WriteAheadLog openEmpty(Path path, long segmentSize) throws IOException {
+        for (Path segment : listSegments(path)) {
+            Files.delete(segment);
+        }
+        WriteAheadLog writeAheadLog = new WriteAheadLog(path, segmentSize);
+        writeAheadLog.openSegment(1);
+        return writeAheadLog;
+    }
+
+    /**
+     * Reads all intact records from the log at {@code path}, one segment after another, without holding more than
+     * one record in memory. Reading stops at the first truncated or corrupted record, which can only be the result
+     * of a crash during its append.
+     *
+     * @param path     The location of the log.
+     * @param consumer Receives the recorded entries in append order.
+     * @return The number of entries read, {@code 0} if the log does not exist.
+     * @throws IOException If a segment cannot be read.
+     */
+    public static long readEntries(Path path, Consumer<LedgerEntry> consumer) throws IOException {
+        long count = 0;
+        byte[] payload = new byte[MAX_PAYLOAD_SIZE];
+        CRC32 crc = new CRC32();
+        for (Path segment : listSegments(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+                long offset = 0;
+                while (true) {
+                    int length;
+                    int checksum;
+                    try {
+                        length = in.readInt();
+                        checksum = in.readInt();
+                    } catch (EOFException e) {
+                        // A header cut short can only belong to the last append before a crash.
+                        break;
+                    }
+                    if (length <= 0 || length > MAX_PAYLOAD_SIZE || !readFully(in, payload, length)) {
+                        logger.warn("Ignoring truncated write-ahead log record at offset {} in {}.", offset, segment);
+                        return count;
+                    }
+
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        logger.warn("Ignoring corrupted write-ahead log record at offset {} in {}.", offset, segment);
+                        return count;
+                    }
+
+                    ByteBuffer data = ByteBuffer.wrap(payload, 0, length);
+                    long sequence = data.getLong();
+                    String sender = readString(data);
+                    String receiver = readString(data);
+                    // Amounts are stored as unscaled value and scale, as written before amounts were kept in cents.
+                    Money amount = Money.of(BigDecimal.valueOf(data.getLong(), data.get()));
+                    consumer.accept(new LedgerEntry(sequence, sender, receiver, amount));
+                    count++;
+                    offset += HEADER_SIZE + length;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Appends an entry to the log. If the write fails, the segment is cut back to its previous end so that
+     * later records are not hidden behind a partial one.
+     *
+     * @param entry The entry to append.
+     * @throws IOException If the entry cannot be written.
+     */
+    public void append(LedgerEntry entry) throws IOException {
+        buffer.clear();
+        buffer.position(HEADER_SIZE);
+        buffer.putLong(entry.getSequence());
+        writeString(buffer, entry.getSenderAccountNumber());
+        writeString(buffer, entry.getReceiverAccountNumber());
+        buffer.putLong(entry.getAmount().getCents());
+        buffer.put((byte) Money.SCALE);
+
+        int length = buffer.position() - HEADER_SIZE;
+        crc.reset();
+        crc.update(buffer.array(), HEADER_SIZE, length);
+        buffer.putInt(0, length);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        buffer.flip();
+
+        if (channel.position() >= segmentSize) {
+            rollSegment();
+        }
+        long position = channel.position();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            channel.truncate(position);
+            throw e;
+        }
+        segmentLastSequence = entry.getSequence();
+    }
+
+    /**
+     * Forces all appended records to the storage device.
+     *
+     * @throws IOException If the records cannot be forced to disk.
+     */
+    public void sync() throws IOException {
+        FileChannel current = channel;
+        try {
+            current.force(false);
+        } catch (ClosedChannelException e) {
+            // The segment was forced and closed when the next one was started.
+            if (current == channel) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Deletes the completed segments whose records are all applied to the database. Must not be called
+     * concurrently with {@link #append}.
+     *
+     * @param sequence The highest sequence number that is applied to the database.
+     * @throws IOException If a segment cannot be deleted.
+     */
+    public void deleteSegmentsUpTo(long sequence) throws IOException {
+        while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSequence <= sequence) {
+            Files.deleteIfExists(closedSegments.removeFirst().path);
+        }
+    }
+
+    /**
+     * Discards all records, once they are known to be applied to the database. Must not be called
+     * concurrently with {@link #append}.
+     *
+     * @throws IOException If the segments cannot be deleted or truncated.
+     */
+    public void truncate() throws IOException {
+        deleteSegmentsUpTo(Long.MAX_VALUE);
+        if (channel.position() == 0) {
+            return;
+        }
+        channel.truncate(0);
+        channel.position(0);
+    }
+
+    /**
+     * @return The segment that records are currently appended to.
+     */
+    public Path getPath() {
+        return segmentPath;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    private void openSegment(long index) throws IOException {
+        segmentIndex = index;
+        segmentPath = segmentPath(path, index);
+        FileChannel opened = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        opened.force(true);
+        channel = opened;
+    }
+
+    private void rollSegment() throws IOException {
+        FileChannel previous = channel;
+        previous.force(true);
+        closedSegments.addLast(new Segment(segmentPath, segmentLastSequence));
+        openSegment(segmentIndex + 1);
+        previous.close();
+    }
+
+    private static Path segmentPath(Path path, long index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    /**
+     * @return The segments of the log in append order, preceded by {@code path} itself as written by earlier
+     * versions that kept the log in a single file.
+     */
+    private static List<Path> listSegments(Path path) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        Path directory = path.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        String prefix = path.getFileName() + ".";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path segment : stream) {
+                String suffix = segment.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    segments.add(segment);
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(segment -> Long.parseLong(segment.getFileName().toString().substring(prefix.length()))));
+        if (Files.isRegularFile(path)) {
+            segments.add(0, path);
+        }
+        return segments;
+    }
+
+    private static boolean readFully(DataInputStream in, byte[] bytes, int length) throws IOException {
+        try {
+            in.readFully(bytes, 0, length);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Value too long for the write-ahead log: " + value);
+        }
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.get() & 0xFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final long lastSequence;
+
+        private Segment(Path path, long lastSequence) {
+            this.path = path;
+            this.lastSequence = lastSequence;
+        }
+    }
+}
@@ -20,10 +20,26 @@ CREATE TABLE bank_account (
     FOREIGN KEY (customer_id) REFERENCES customer(id) ON DELETE CASCADE 
 );
 
+-- Source of new account numbers, handed out in blocks by AccountNumberGenerator.
+CREATE TABLE account_number_sequence (
+    id TINYINT PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+INSERT INTO account_number_sequence (id, next_value)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM account_number_sequence);
+
 CREATE TABLE transfer (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     sender_account_number VARCHAR(10) NOT NULL,
     receiver_account_number VARCHAR(10) NOT NULL,
     amount DECIMAL(15, 2) NOT NULL,
-    transfer_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+    transfer_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    ledger_sequence BIGINT NULL UNIQUE
+);
+
+-- Covering indexes for the transfer history of an account, paginated by (transfer_date, id).
+CREATE INDEX idx_transfer_sender_history
+    ON transfer (sender_account_number, transfer_date, id, receiver_account_number, amount);
+CREATE INDEX idx_transfer_receiver_history
+    ON transfer (receiver_account_number, transfer_date, id, sender_account_number, amount);
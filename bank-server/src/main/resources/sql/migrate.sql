@@ -0,0 +1,42 @@
+-- Brings a bank_db created with an earlier create_database.sql up to date. Every step is skipped if it was already
+-- applied, so the script can be run more than once. MySQL 8 has no ADD COLUMN IF NOT EXISTS or CREATE INDEX IF NOT
+-- EXISTS, so the column and the indexes are added by statements that are chosen from information_schema.
+USE bank_db;
+
+-- Source of new account numbers, handed out in blocks by AccountNumberGenerator.
+CREATE TABLE IF NOT EXISTS account_number_sequence (
+    id TINYINT PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+INSERT INTO account_number_sequence (id, next_value)
+SELECT 1, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM account_number_sequence);
+
+-- Sequence number of the ledger entry a transfer was written for, so a replayed entry is not applied twice.
+SET @migration = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE transfer ADD COLUMN ledger_sequence BIGINT NULL UNIQUE',
+        'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'transfer' AND column_name = 'ledger_sequence');
+PREPARE migration FROM @migration;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- Covering indexes for the transfer history of an account, paginated by (transfer_date, id).
+SET @migration = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_transfer_sender_history ON transfer (sender_account_number, transfer_date, id, receiver_account_number, amount)',
+        'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'transfer' AND index_name = 'idx_transfer_sender_history');
+PREPARE migration FROM @migration;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @migration = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_transfer_receiver_history ON transfer (receiver_account_number, transfer_date, id, sender_account_number, amount)',
+        'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'transfer' AND index_name = 'idx_transfer_receiver_history');
+PREPARE migration FROM @migration;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
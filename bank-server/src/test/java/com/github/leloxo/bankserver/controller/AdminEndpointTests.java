@@ -0,0 +1,81 @@
+package com.github.leloxo.bankserver.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The endpoints for operators: the Prometheus metrics, the slow query log and the listings of all customers and bank
+ * accounts.
+ */
+@SpringBootTest(properties = "bank.admin.token=" + AdminEndpointTests.ADMIN_TOKEN)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class AdminEndpointTests {
+    static final String ADMIN_TOKEN = "test-admin-token";
+    private static final String ADMIN_AUTHORIZATION = "Bearer " + ADMIN_TOKEN;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointPublishesLatencyHistograms() throws Exception {
+        mockMvc.perform(get("/customers/all").header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION)).andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{"), "http.server.requests histogram is missing");
+        assertTrue(metrics.lines().anyMatch(line -> line.startsWith("bank_repository_seconds_bucket{")
+                && line.contains("method=\"getCustomers\"")), "bank.repository histogram of getCustomers is missing");
+        assertTrue(metrics.contains("bank_transfers_total{"), "bank.transfers counter is missing");
+        assertTrue(metrics.contains("bank_customer_cache_gets_total{result=\"hit\""), "bank.customer.cache.gets counter is missing");
+        assertTrue(metrics.contains("bank_customer_cache_evictions_total"), "bank.customer.cache.evictions counter is missing");
+        assertTrue(metrics.contains("bank_password_hashing_pool_queued"), "bank.password.hashing.pool.queued gauge is missing");
+        assertTrue(metrics.contains("bank_password_hashing_pool_seconds_count"), "bank.password.hashing.pool timer is missing");
+    }
+
+    @Test
+    void slowQueryEndpointListsRecordedStatements() throws Exception {
+        mockMvc.perform(get("/actuator/slowqueries").param("order", "slowest")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.thresholdMillis").value(100))
+                .andExpect(jsonPath("$.queries").isArray());
+    }
+
+    @Test
+    void slowQueryEndpointRequiresAdminToken() throws Exception {
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/slowqueries").header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/actuator/slowqueries"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void listingsOfAllCustomersAndAccountsRequireAdminToken() throws Exception {
+        for (String path : new String[]{"/customers/all", "/accounts/all"}) {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path).accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                    .andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                    .andExpect(status().isOk());
+        }
+    }
+}
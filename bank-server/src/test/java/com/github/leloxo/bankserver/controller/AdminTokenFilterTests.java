@@ -0,0 +1,39 @@
+package com.github.leloxo.bankserver.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminTokenFilterTests {
+
+    @Test
+    void endpointsAreNotFoundWithoutConfiguredToken() throws Exception {
+        MockHttpServletResponse response = filter(new AdminTokenFilter(""), "Bearer ");
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void onlyTheConfiguredTokenIsLetThrough() throws Exception {
+        AdminTokenFilter filter = new AdminTokenFilter("secret");
+
+        assertEquals(401, filter(filter, null).getStatus());
+        assertEquals(401, filter(filter, "Bearer secret2").getStatus());
+        assertEquals(401, filter(filter, "secret").getStatus());
+        assertEquals(200, filter(filter, "Bearer secret").getStatus());
+    }
+
+    private static MockHttpServletResponse filter(AdminTokenFilter filter, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/slowqueries");
+        if (authorization != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.repository.CustomerRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Configured like the other controller tests, so they share one application context.
+ */
+@SpringBootTest(properties = "bank.admin.token=" + AdminEndpointTests.ADMIN_TOKEN)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class BankAccountControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void customerCannotUseBankAccountOfAnotherCustomer() throws Exception {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        String emailA = "owner-a-" + suffix + "@test.com";
+        String emailB = "owner-b-" + suffix + "@test.com";
+        customerRepository.saveCustomer(new Customer("Owner", "Alice", emailA, "password123"));
+        customerRepository.saveCustomer(new Customer("Owner", "Bob", emailB, "password123"));
+        String authorizationA = login(emailA, "password123");
+        String authorizationB = login(emailB, "password123");
+        String accountA = createAccount(emailA, authorizationA);
+        String accountB = createAccount(emailB, authorizationB);
+
+        String transferFromB = "{\"senderAccountNumber\":\"" + accountB + "\",\"receiverAccountNumber\":\"" + accountA + "\",\"amount\":1.00}";
+        mockMvc.perform(post("/accounts/transfer").header(HttpHeaders.AUTHORIZATION, authorizationA)
+                        .contentType(MediaType.APPLICATION_JSON).content(transferFromB))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/accounts/transfer/batch").header(HttpHeaders.AUTHORIZATION, authorizationA)
+                        .contentType(MediaType.APPLICATION_JSON).content("[" + transferFromB + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("FORBIDDEN"));
+        mockMvc.perform(get("/accounts/" + accountB + "/transfers").header(HttpHeaders.AUTHORIZATION, authorizationA))
+                .andExpect(status().isForbidden());
+
+        // The owner gets past the check; the new account has no balance to send.
+        mockMvc.perform(post("/accounts/transfer").header(HttpHeaders.AUTHORIZATION, authorizationB)
+                        .contentType(MediaType.APPLICATION_JSON).content(transferFromB))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/accounts/" + accountB + "/transfers").header(HttpHeaders.AUTHORIZATION, authorizationB))
+                .andExpect(status().isOk());
+    }
+
+    private String login(String email, String password) throws Exception {
+        String body = mockMvc.perform(post("/customers/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + JsonPath.read(body, "$.token");
+    }
+
+    private String createAccount(String email, String authorization) throws Exception {
+        String body = mockMvc.perform(post("/accounts/create/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.accountNumber");
+    }
+}
@@ -0,0 +1,195 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.repository.CustomerRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "bank.admin.token=" + AdminEndpointTests.ADMIN_TOKEN)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class CustomerControllerTests {
+    private static final String ADMIN_AUTHORIZATION = "Bearer " + AdminEndpointTests.ADMIN_TOKEN;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void seedCustomers() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        for (int i = 0; i < 3; i++) {
+            customerRepository.saveCustomer(new Customer(null, "Page", "Customer", "page" + i + "-" + suffix + "@test.com", "hash", LocalDateTime.now()));
+        }
+    }
+
+    @Test
+    void getCustomersReturnsPagesLinkedByCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/customers/all").param("limit", "2").header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists(Pagination.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader(Pagination.NEXT_CURSOR_HEADER);
+        mockMvc.perform(get("/customers/all").param("after", cursor).param("limit", "2").header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(cursor) + 1));
+    }
+
+    @Test
+    void getCustomersRejectsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/customers/all").param("limit", "0").header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/customers/all").param("limit", String.valueOf(Pagination.MAX_LIMIT + 1)).header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCustomersStreamsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/customers/all").accept(MediaType.APPLICATION_NDJSON).header(HttpHeaders.AUTHORIZATION, ADMIN_AUTHORIZATION))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(lines.length >= 3);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"id\":"), line);
+        }
+        assertTrue(body.endsWith("\n"));
+    }
+
+    @Test
+    void loginIssuesSessionTokenForProtectedEndpoints() throws Exception {
+        String email = "session-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        customerRepository.saveCustomer(new Customer("Session", "Customer", email, "password123"));
+
+        mockMvc.perform(post("/customers/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}"))
+                .andExpect(status().isUnauthorized());
+
+        String body = mockMvc.perform(post("/customers/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.email").value(email))
+                .andReturn().getResponse().getContentAsString();
+        String authorization = "Bearer " + JsonPath.read(body, "$.token");
+
+        mockMvc.perform(get("/customers/get/" + email))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/customers/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/customers/get/other@test.com").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/customers/logout").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/customers/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void readEndpointsAnswerMatchingETagWithNotModified() throws Exception {
+        String email = "etag-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        customerRepository.saveCustomer(new Customer("ETag", "Customer", email, "password123"));
+        String authorization = login(email, "password123");
+
+        String customerTag = mockMvc.perform(get("/customers/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/customers/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, customerTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/accounts/create/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated());
+        String accountsTag = mockMvc.perform(get("/accounts/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/accounts/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, accountsTag))
+                .andExpect(status().isNotModified());
+
+        // A second account changes the list, so the old tag no longer matches.
+        mockMvc.perform(post("/accounts/create/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/accounts/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, accountsTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string(HttpHeaders.ETAG, not(accountsTag)));
+    }
+
+    @Test
+    void deleteRequiresThePasswordOfTheCustomer() throws Exception {
+        String email = "delete-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        customerRepository.saveCustomer(new Customer("Delete", "Customer", email, "password123"));
+        String authorization = login(email, "password123");
+
+        mockMvc.perform(delete("/customers/delete/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/customers/delete/" + email).header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"password\":\"wrong-password\"}"))
+                .andExpect(status().isForbidden());
+        assertTrue(customerRepository.getCustomerByEmail(email).isPresent());
+
+        mockMvc.perform(delete("/customers/delete/" + email).header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"password\":\"password123\"}"))
+                .andExpect(status().isOk());
+        assertTrue(customerRepository.getCustomerByEmail(email).isEmpty());
+        mockMvc.perform(get("/customers/get/" + email).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginIsThrottledAfterRepeatedFailures() throws Exception {
+        String email = "throttle-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        customerRepository.saveCustomer(new Customer("Throttle", "Customer", email, "password123"));
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/customers/login").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(post("/customers/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private String login(String email, String password) throws Exception {
+        String body = mockMvc.perform(post("/customers/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + JsonPath.read(body, "$.token");
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.leloxo.bankserver.controller;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.customer.CustomerDto;
+import com.github.leloxo.bankserver.model.customer.LoginResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"bank.password-hashing.cost=4", "bank.admin.token=" + ReactiveControllerTests.ADMIN_TOKEN})
+@ActiveProfiles("reactive")
+class ReactiveControllerTests {
+    static final String ADMIN_TOKEN = "test-admin-token";
+    private static final String PASSWORD = "Password123!";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void registersLogsInAndTransfersMoney() {
+        String email = "reactive-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        webTestClient.post().uri("/customers/register")
+                .bodyValue(Map.of("firstName", "Reactive", "lastName", "Customer", "email", email, "password", PASSWORD))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CustomerDto.class).value(customer -> assertEquals(email, customer.getEmail()));
+
+        LoginResponse login = webTestClient.post().uri("/customers/login")
+                .bodyValue(Map.of("email", email, "password", PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoginResponse.class).returnResult().getResponseBody();
+        assertNotNull(login);
+        String authorization = "Bearer " + login.getToken();
+
+        String sender = createAccount(email, authorization);
+        String receiver = createAccount(email, authorization);
+        databaseClient.sql("UPDATE bank_account SET balance = 100.00 WHERE account_number = :accountNumber")
+                .bind("accountNumber", sender)
+                .then()
+                .block();
+
+        transfer(sender, receiver, "40.00", authorization).expectStatus().isOk();
+        transfer(sender, receiver, "1000.00", authorization).expectStatus().isBadRequest();
+        transfer(sender, "0000000000", "1.00", authorization).expectStatus().isNotFound();
+
+        List<BankAccountDto> bankAccounts = webTestClient.get().uri("/accounts/get/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BankAccountDto.class).returnResult().getResponseBody();
+        assertNotNull(bankAccounts);
+        assertEquals(2, bankAccounts.size());
+        for (BankAccountDto bankAccount : bankAccounts) {
+            Money expected = Money.parse(bankAccount.getAccountNumber().equals(sender) ? "60.00" : "40.00");
+            assertEquals(expected, bankAccount.getBalance());
+        }
+    }
+
+    @Test
+    void bankAccountsAnswerMatchingETagWithNotModified() {
+        String email = "reactive-etag-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        String authorization = registerAndLogin(email);
+        createAccount(email, authorization);
+
+        String tag = webTestClient.get().uri("/accounts/get/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseHeaders().getETag();
+        assertNotNull(tag);
+        webTestClient.get().uri("/accounts/get/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .header(HttpHeaders.IF_NONE_MATCH, tag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void transferFromAccountOfAnotherCustomerIsForbidden() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        String emailA = "reactive-owner-a-" + suffix + "@test.com";
+        String emailB = "reactive-owner-b-" + suffix + "@test.com";
+        String authorizationA = registerAndLogin(emailA);
+        String authorizationB = registerAndLogin(emailB);
+        String accountA = createAccount(emailA, authorizationA);
+        String accountB = createAccount(emailB, authorizationB);
+
+        transfer(accountB, accountA, "1.00", authorizationA).expectStatus().isForbidden();
+        transfer(accountB, accountA, "1.00", authorizationB).expectStatus().isBadRequest();
+    }
+
+    @Test
+    void legacyAccountNumberWithoutValidCheckDigitIsAccepted() {
+        String email = "reactive-legacy-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        String authorization = registerAndLogin(email);
+        String account = createAccount(email, authorization);
+        String receiver = createAccount(email, authorization);
+        String legacy = withInvalidCheckDigit(account);
+        databaseClient.sql("UPDATE bank_account SET account_number = :legacy, balance = 10.00 WHERE account_number = :accountNumber")
+                .bind("legacy", legacy)
+                .bind("accountNumber", account)
+                .then()
+                .block();
+
+        transfer(legacy, receiver, "4.00", authorization).expectStatus().isOk();
+        transfer(receiver, legacy, "1.00", authorization).expectStatus().isOk();
+        transfer(legacy, withInvalidCheckDigit(receiver), "1.00", authorization).expectStatus().isBadRequest();
+    }
+
+    @Test
+    void loginOfUnknownCustomerIsNotFound() {
+        webTestClient.post().uri("/customers/login")
+                .bodyValue(Map.of("email", "unknown-" + Long.toString(System.nanoTime(), 36) + "@test.com", "password", PASSWORD))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void streamsCustomersAsNdjson() {
+        webTestClient.post().uri("/customers/register")
+                .bodyValue(Map.of("firstName", "Stream", "lastName", "Customer",
+                        "email", "stream-" + Long.toString(System.nanoTime(), 36) + "@test.com", "password", PASSWORD))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get().uri("/customers/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/accounts/all")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        String body = webTestClient.get().uri("/customers/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_TOKEN)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(body);
+        for (String line : body.split("\n")) {
+            assertTrue(line.startsWith("{\"id\":"), line);
+        }
+    }
+
+    private String createAccount(String email, String authorization) {
+        BankAccountDto bankAccount = webTestClient.post().uri("/accounts/create/{email}", email)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BankAccountDto.class).returnResult().getResponseBody();
+        assertNotNull(bankAccount);
+        return bankAccount.getAccountNumber();
+    }
+
+    private String registerAndLogin(String email) {
+        webTestClient.post().uri("/customers/register")
+                .bodyValue(Map.of("firstName", "Reactive", "lastName", "Customer", "email", email, "password", PASSWORD))
+                .exchange()
+                .expectStatus().isCreated();
+        LoginResponse login = webTestClient.post().uri("/customers/login")
+                .bodyValue(Map.of("email", email, "password", PASSWORD))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoginResponse.class).returnResult().getResponseBody();
+        assertNotNull(login);
+        return "Bearer " + login.getToken();
+    }
+
+    private static String withInvalidCheckDigit(String accountNumber) {
+        int last = accountNumber.length() - 1;
+        return accountNumber.substring(0, last) + (char) ('0' + (accountNumber.charAt(last) - '0' + 1) % 10);
+    }
+
+    private WebTestClient.ResponseSpec transfer(String sender, String receiver, String amount, String authorization) {
+        MoneyTransferRequestPayload transferRequest = new MoneyTransferRequestPayload(sender, receiver, Money.parse(amount));
+        return webTestClient.post().uri("/accounts/transfer")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .bodyValue(transferRequest)
+                .exchange();
+    }
+}
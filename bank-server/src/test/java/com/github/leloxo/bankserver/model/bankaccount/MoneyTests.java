@@ -0,0 +1,91 @@
+package com.github.leloxo.bankserver.model.bankaccount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesDecimalNumbersIntoCents() {
+        assertEquals(1250, Money.parse("12.5").getCents());
+        assertEquals(-5, Money.parse("-0.05").getCents());
+        assertEquals(700, Money.parse("+7").getCents());
+        assertEquals(100, Money.parse("1.000").getCents());
+        assertEquals(10_000, Money.parse("1e2").getCents());
+        assertEquals(Money.of(new BigDecimal("9999999.99")), Money.parse("9999999.99"));
+
+        assertThrows(ArithmeticException.class, () -> Money.parse("1.005"));
+        assertThrows(ArithmeticException.class, () -> Money.parse("92233720368547758.08"));
+        for (String invalid : new String[] {"", "-", ".", "1.2.3", "abc", "1,50"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    void appliesExponentBeforeCountingDecimalPlaces() {
+        assertEquals(12_340, Money.parse("1.234e2").getCents());
+        assertEquals(5, Money.parse("5E-2").getCents());
+        assertEquals(100, Money.parse("100000e-5").getCents());
+        assertEquals(1_234, Money.parse("1.234e1").getCents());
+        assertThrows(ArithmeticException.class, () -> Money.parse("1.2345e1"));
+        for (String invalid : new String[] {"1e", "1e+", "e5", "1e2.5", "1ex"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void rejectsLargeExponentsWithoutExpandingThem() {
+        for (String amount : new String[] {"1e20000000", "1e-20000000", "1E+000000000000021", "0e999999999"}) {
+            assertThrows(ArithmeticException.class, () -> Money.parse(amount), amount);
+        }
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e20000000")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e-20000000")));
+        assertThrows(ArithmeticException.class, () -> Money.parse("1e20"));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\":1e20000000}", MoneyTransferRequestPayload.class));
+        assertEquals(Money.ZERO, Money.of(new BigDecimal("0e20000000")));
+    }
+
+    @Test
+    void formatsWithTwoDecimalPlaces() {
+        assertEquals("12.50", Money.ofCents(1250).toString());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("-92233720368547758.08", Money.ofCents(Long.MIN_VALUE).toString());
+        assertEquals(new BigDecimal("-123.45"), Money.ofCents(-12345).toBigDecimal());
+    }
+
+    @Test
+    void arithmeticIsOverflowChecked() {
+        assertEquals(Money.ofCents(150), Money.ofCents(100).plus(Money.ofCents(50)));
+        assertEquals(Money.ofCents(-50), Money.ofCents(100).minus(Money.ofCents(150)));
+        assertTrue(Money.ofCents(99).isLessThan(Money.ofCents(100)));
+
+        Money max = Money.ofCents(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void jsonFormatMatchesBigDecimal() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(new BigDecimal("12.50")), objectMapper.writeValueAsString(Money.ofCents(1250)));
+        assertEquals("{\"senderAccountNumber\":\"a\",\"receiverAccountNumber\":\"b\",\"amount\":0.05}",
+                objectMapper.writeValueAsString(new MoneyTransferRequestPayload("a", "b", Money.ofCents(5))));
+
+        for (String amount : new String[] {"12.5", "12.50", "\"12.50\"", "1250e-2"}) {
+            MoneyTransferRequestPayload payload = objectMapper.readValue("{\"amount\":" + amount + "}", MoneyTransferRequestPayload.class);
+            assertEquals(Money.ofCents(1250), payload.getAmount(), amount);
+        }
+        assertEquals(Money.ofCents(1200), objectMapper.readValue("12", Money.class));
+        assertNull(objectMapper.readValue("{\"amount\":null}", MoneyTransferRequestPayload.class).getAmount());
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\":1.005}", MoneyTransferRequestPayload.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\":\"ten\"}", MoneyTransferRequestPayload.class));
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.leloxo.bankserver.model.util;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import com.github.leloxo.bankserver.repository.TestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberGeneratorTests {
+    private static TestDatabase database;
+    private static BankAccountRepository bankAccountRepository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = new TestDatabase();
+        bankAccountRepository = database.getBankAccountRepository();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void concurrentlyGeneratedNumbersAreUniqueNonSequentialAndValid() throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        AccountNumberGenerator generator = new AccountNumberGenerator(size -> sequence.getAndAdd(size), 50);
+        int threads = 8;
+        int numbersPerThread = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> numbers = new ArrayList<>(numbersPerThread);
+                for (int i = 0; i < numbersPerThread; i++) {
+                    numbers.add(generator.nextAccountNumber());
+                }
+                return numbers;
+            }));
+        }
+        Set<String> numbers = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            numbers.addAll(future.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        assertEquals(threads * numbersPerThread, numbers.size());
+        for (String number : numbers) {
+            assertEquals(AccountNumberGenerator.getAccountNumberLength(), number.length());
+            assertTrue(AccountNumberGenerator.hasValidCheckDigit(number), number);
+        }
+        long first = Long.parseLong(AccountNumberGenerator.toAccountNumber(0));
+        long second = Long.parseLong(AccountNumberGenerator.toAccountNumber(1));
+        assertTrue(Math.abs(first - second) > 1000);
+    }
+
+    @Test
+    void checkDigitDetectsSingleDigitTyposAndAdjacentTranspositions() {
+        String number = AccountNumberGenerator.toAccountNumber(12345);
+        assertTrue(AccountNumberGenerator.hasValidCheckDigit(number));
+
+        char[] digits = number.toCharArray();
+        for (int i = 0; i < digits.length; i++) {
+            char original = digits[i];
+            for (char digit = '0'; digit <= '9'; digit++) {
+                if (digit != original) {
+                    digits[i] = digit;
+                    assertFalse(AccountNumberGenerator.hasValidCheckDigit(new String(digits)), new String(digits));
+                }
+            }
+            digits[i] = original;
+        }
+        assertFalse(AccountNumberGenerator.hasValidCheckDigit("12345678a9"));
+    }
+
+    @Test
+    void leasedBlocksDoNotOverlap() {
+        AccountNumberGenerator first = new AccountNumberGenerator(bankAccountRepository::leaseAccountNumberBlock, 10);
+        AccountNumberGenerator second = new AccountNumberGenerator(bankAccountRepository::leaseAccountNumberBlock, 10);
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            assertTrue(numbers.add(first.nextAccountNumber()));
+            assertTrue(numbers.add(second.nextAccountNumber()));
+        }
+    }
+
+    @Test
+    void concurrentlyCreatedAccountsAreAllStoredWithAnyBlockSize() throws Exception {
+        int threads = 8;
+        int accountsPerThread = 200;
+
+        for (int blockSize : new int[]{1, 100}) {
+            Customer customer = database.saveCustomer("Generator");
+            AccountNumberGenerator generator = new AccountNumberGenerator(bankAccountRepository::leaseAccountNumberBlock, blockSize);
+            Set<String> created = createAccounts(customer, generator, threads, accountsPerThread);
+
+            assertEquals(threads * accountsPerThread, created.size());
+            assertEquals(created, bankAccountRepository.getAccountNumbersByCustomerId(customer.getId()));
+        }
+    }
+
+    private static Set<String> createAccounts(Customer customer, AccountNumberGenerator generator, int threads, int accountsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> accountNumbers = new ArrayList<>(accountsPerThread);
+                for (int i = 0; i < accountsPerThread; i++) {
+                    accountNumbers.add(bankAccountRepository.saveBankAccount(new BankAccount(customer, generator.nextAccountNumber())).getAccountNumber());
+                }
+                return accountNumbers;
+            }));
+        }
+        Set<String> created = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            created.addAll(future.get(2, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+        return created;
+    }
+}
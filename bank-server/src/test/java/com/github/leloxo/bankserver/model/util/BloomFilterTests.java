@@ -0,0 +1,46 @@
+package com.github.leloxo.bankserver.model.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests {
+    private static final int INSERTIONS = 100_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void neverReturnsFalseNegativesAndStaysNearFalsePositiveProbability() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        Set<String> accountNumbers = new HashSet<>();
+        while (accountNumbers.size() < INSERTIONS) {
+            accountNumbers.add(randomAccountNumber());
+        }
+        accountNumbers.forEach(filter::put);
+
+        for (String accountNumber : accountNumbers) {
+            assertTrue(filter.mightContain(accountNumber));
+        }
+
+        int falsePositives = 0;
+        int lookups = 0;
+        while (lookups < INSERTIONS) {
+            String accountNumber = randomAccountNumber();
+            if (!accountNumbers.contains(accountNumber)) {
+                lookups++;
+                if (filter.mightContain(accountNumber)) {
+                    falsePositives++;
+                }
+            }
+        }
+        assertTrue(falsePositives < lookups * 0.02, "False positive rate too high: " + falsePositives + "/" + lookups);
+    }
+
+    private String randomAccountNumber() {
+        return String.format("%010d", random.nextLong(10_000_000_000L));
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.leloxo.bankserver.model.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTests {
+    @AfterEach
+    void restoreDefaultCost() {
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST);
+    }
+
+    @Test
+    void hashesWithConfiguredCostAndReportsOutdatedHashes() {
+        String oldHash = PasswordHasher.hashPassword("password123");
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST + 1);
+        String newHash = PasswordHasher.hashPassword("password123");
+
+        assertTrue(newHash.startsWith("$2a$11$"), newHash);
+        assertTrue(PasswordHasher.checkPassword("password123", oldHash));
+        assertTrue(PasswordHasher.needsRehash(oldHash));
+        assertFalse(PasswordHasher.needsRehash(newHash));
+        assertFalse(PasswordHasher.needsRehash(new BCryptPasswordEncoder(12).encode("password123")));
+        assertThrows(IllegalArgumentException.class, () -> PasswordHasher.setCost(3));
+    }
+
+    @Test
+    void calibrationStaysWithinCostRange() {
+        assertEquals(4, PasswordHasher.calibrate(Duration.ZERO, 4, 8));
+        assertEquals(6, PasswordHasher.calibrate(Duration.ofMinutes(1), 4, 6));
+
+        int calibrated = PasswordHasher.calibrate(Duration.ofMillis(20), 4, 12);
+        assertTrue(calibrated >= 4 && calibrated <= 12);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.leloxo.bankserver.model.validation;
+
+import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.exception.customer.InvalidCustomerDataException;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationManagerTests {
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+    private static final String EMAIL_ALPHABET = "aZ09._%+-@@..ä ";
+
+    private final ValidationManager validationManager = new ValidationManager();
+
+    @Test
+    void emailScannerAcceptsTheSameEmailsAsThePattern() {
+        List<String> emails = List.of("jane.doe+bank@example.com", "a@b.cd", "a@b.c", "@b.com", "a@.com", "a@b..com",
+                "a@b.c0m", "a@@b.com", "a@b@c.com", "a b@c.com", "a@b.com.", ".@-.co", "jane@example", "a@b.COM");
+        for (String email : emails) {
+            assertEquals(EMAIL_PATTERN.matcher(email).matches(), validationManager.check(ValidationType.EMAIL, email) == null, email);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder email = new StringBuilder();
+            int length = 1 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                email.append(EMAIL_ALPHABET.charAt(random.nextInt(EMAIL_ALPHABET.length())));
+            }
+            assertEquals(EMAIL_PATTERN.matcher(email).matches(), validationManager.check(ValidationType.EMAIL, email.toString()) == null, email.toString());
+        }
+    }
+
+    @Test
+    void checkReturnsErrorCodeAndValidateThrowsItsException() {
+        assertNull(validationManager.check(ValidationType.PASSWORD, "12345678"));
+        assertSame(ValidationError.PASSWORD_TOO_SHORT, validationManager.check(ValidationType.PASSWORD, "1234567"));
+        assertSame(ValidationError.NAME_EMPTY, validationManager.check(ValidationType.NAME, ""));
+        assertSame(ValidationError.ACCOUNT_NUMBER_LENGTH, validationManager.check(ValidationType.BANK_ACCOUNT_NUMBER, "123"));
+
+        InvalidCustomerDataException customerException = assertThrows(InvalidCustomerDataException.class,
+                () -> validationManager.validate(ValidationType.EMAIL, "jane@example"));
+        assertEquals(ValidationError.EMAIL_INVALID.getMessage(), customerException.getMessage());
+        assertThrows(InvalidBankAccountDataException.class,
+                () -> validationManager.validate(ValidationType.BANK_ACCOUNT_NUMBER, null));
+    }
+
+    @Test
+    void accountNumberCheckDigitIsVerified() {
+        String accountNumber = new AccountNumberGenerator(size -> 0, 1).nextAccountNumber();
+        char last = accountNumber.charAt(accountNumber.length() - 1);
+        String mistyped = accountNumber.substring(0, accountNumber.length() - 1) + (char) ('0' + (last - '0' + 1) % 10);
+
+        assertNull(validationManager.check(ValidationType.BANK_ACCOUNT_NUMBER, accountNumber));
+        assertSame(ValidationError.ACCOUNT_NUMBER_CHECK_DIGIT, validationManager.check(ValidationType.BANK_ACCOUNT_NUMBER, mistyped));
+    }
+
+    @Test
+    void typedTransferAmountsFollowTheSameRulesAsStrings() {
+        for (String amount : List.of("0.01", "10", "10.50", "9999999.99", "0", "-1", "10000000", "1e2")) {
+            ValidationError expected = validationManager.check(ValidationType.TRANSFER_AMOUNT, amount);
+            Money money = Money.parse(amount);
+            assertSame(expected, outcome(() -> validationManager.validateTransferAmount(money)), amount);
+            assertSame(expected, outcome(() -> validationManager.validateTransferAmount(money.getCents())), amount);
+        }
+        assertSame(ValidationError.AMOUNT_FORMAT, validationManager.check(ValidationType.TRANSFER_AMOUNT, "abc"));
+        assertSame(ValidationError.AMOUNT_SCALE, validationManager.check(ValidationType.TRANSFER_AMOUNT, "0.001"));
+        assertThrows(InvalidBankAccountDataException.class, () -> validationManager.validateTransferAmount((Money) null));
+    }
+
+    private static ValidationError outcome(Runnable validation) {
+        try {
+            validation.run();
+            return null;
+        } catch (InvalidBankAccountDataException e) {
+            for (ValidationError error : ValidationError.values()) {
+                if (error.getMessage().equals(e.getMessage())) {
+                    return error;
+                }
+            }
+            throw e;
+        }
+    }
+}
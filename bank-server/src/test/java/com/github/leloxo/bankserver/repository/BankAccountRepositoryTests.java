@@ -0,0 +1,188 @@
+package com.github.leloxo.bankserver.repository;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.TransferDto;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountRepositoryTests {
+    private static final int ACCOUNTS_PER_CUSTOMER = 5;
+
+    private static TestDatabase database;
+    private static final AtomicInteger statementCount = new AtomicInteger();
+
+    private static BankAccountRepository bankAccountRepository;
+    private static Customer firstCustomer;
+    private static String firstAccountNumber;
+    private static String secondAccountNumber;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = new TestDatabase();
+        DataSource countingDataSource = countingDataSource(database.getDataSource());
+
+        CustomerRepository customerRepository = new CustomerRepository(countingDataSource);
+        bankAccountRepository = new BankAccountRepository(countingDataSource);
+        AccountNumberGenerator accountNumberGenerator = new AccountNumberGenerator(bankAccountRepository::leaseAccountNumberBlock, 100);
+
+        firstCustomer = customerRepository.saveCustomer(newCustomer(TestDatabase.uniqueEmail("first")));
+        Customer secondCustomer = customerRepository.saveCustomer(newCustomer(TestDatabase.uniqueEmail("second")));
+
+        for (int i = 0; i < ACCOUNTS_PER_CUSTOMER; i++) {
+            BankAccount first = bankAccountRepository.saveBankAccount(new BankAccount(firstCustomer, accountNumberGenerator.nextAccountNumber()));
+            bankAccountRepository.saveBankAccount(new BankAccount(secondCustomer, accountNumberGenerator.nextAccountNumber()));
+            if (firstAccountNumber == null) {
+                firstAccountNumber = first.getAccountNumber();
+            } else if (secondAccountNumber == null) {
+                secondAccountNumber = first.getAccountNumber();
+            }
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @BeforeEach
+    void resetStatementCount() {
+        statementCount.set(0);
+    }
+
+    @Test
+    void getBankAccountsIssuesSingleStatement() {
+        List<BankAccountDto> bankAccounts = bankAccountRepository.getBankAccounts(0, 1000);
+
+        assertTrue(bankAccounts.size() >= 2 * ACCOUNTS_PER_CUSTOMER);
+        assertEquals(1, statementCount.get());
+    }
+
+    @Test
+    void streamBankAccountsIssuesSingleStatement() {
+        List<BankAccountDto> bankAccounts = new ArrayList<>();
+        long count = bankAccountRepository.streamBankAccounts(bankAccounts::add);
+
+        assertEquals(bankAccounts.size(), count);
+        assertTrue(count >= 2 * ACCOUNTS_PER_CUSTOMER);
+        assertEquals(1, statementCount.get());
+    }
+
+    @Test
+    void getBankAccountsByCustomerIdIssuesSingleStatementAndSharesCustomer() {
+        List<BankAccountDto> bankAccounts = bankAccountRepository.getBankAccountsByCustomerId(firstCustomer.getId());
+
+        assertEquals(ACCOUNTS_PER_CUSTOMER, bankAccounts.size());
+        assertEquals(1, statementCount.get());
+        for (BankAccountDto bankAccount : bankAccounts) {
+            assertSame(bankAccounts.get(0).getCustomerDto(), bankAccount.getCustomerDto());
+            assertEquals(firstCustomer.getEmail(), bankAccount.getCustomerDto().getEmail());
+        }
+    }
+
+    @Test
+    void getBankAccountByAccountNumberIssuesSingleStatement() {
+        Optional<BankAccountDto> bankAccount = bankAccountRepository.getBankAccountByAccountNumber(firstAccountNumber);
+
+        assertTrue(bankAccount.isPresent());
+        assertEquals(firstCustomer.getId(), bankAccount.get().getCustomerDto().getId());
+        assertEquals(1, statementCount.get());
+    }
+
+    @Test
+    void getTransfersByAccountNumberPagesThroughSentAndReceivedTransfers() throws Exception {
+        try (Connection conn = database.getDataSource().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE bank_account SET balance = 100 WHERE account_number IN (?, ?)")) {
+            stmt.setString(1, firstAccountNumber);
+            stmt.setString(2, secondAccountNumber);
+            stmt.executeUpdate();
+        }
+        for (int i = 0; i < 5; i++) {
+            bankAccountRepository.transferMoney(firstAccountNumber, secondAccountNumber, Money.ofCents(100));
+        }
+        for (int i = 0; i < 2; i++) {
+            bankAccountRepository.transferMoney(secondAccountNumber, firstAccountNumber, Money.ofCents(1000));
+        }
+        statementCount.set(0);
+
+        List<TransferDto> transfers = new ArrayList<>();
+        List<TransferDto> page = bankAccountRepository.getTransfersByAccountNumber(firstAccountNumber, null, null, null, 0, 3);
+        while (!page.isEmpty()) {
+            transfers.addAll(page);
+            TransferDto last = page.get(page.size() - 1);
+            page = bankAccountRepository.getTransfersByAccountNumber(firstAccountNumber, null, null, last.getTransferDate(), last.getId(), 3);
+        }
+
+        assertEquals(7, transfers.size());
+        assertEquals(4, statementCount.get());
+        for (int i = 1; i < transfers.size(); i++) {
+            TransferDto newer = transfers.get(i - 1);
+            TransferDto older = transfers.get(i);
+            assertTrue(newer.getTransferDate().isAfter(older.getTransferDate())
+                    || (newer.getTransferDate().isEqual(older.getTransferDate()) && newer.getId() > older.getId()));
+        }
+        assertEquals(2, transfers.stream().filter(t -> t.getReceiverAccountNumber().equals(firstAccountNumber)).count());
+
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+        assertTrue(bankAccountRepository.getTransfersByAccountNumber(firstAccountNumber, future, null, null, 0, 3).isEmpty());
+    }
+
+    private static Customer newCustomer(String email) {
+        return new Customer(null, "Test", "Customer", email, "hash", LocalDateTime.now());
+    }
+
+    /**
+     * Wraps a {@link DataSource} so that every statement prepared on its connections is counted.
+     */
+    private static DataSource countingDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Connection connection) {
+                        return countingConnection(connection);
+                    }
+                    return result;
+                });
+    }
+
+    private static Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement") || method.getName().equals("createStatement")) {
+                        statementCount.incrementAndGet();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
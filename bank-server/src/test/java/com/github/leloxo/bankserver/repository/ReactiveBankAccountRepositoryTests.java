@@ -0,0 +1,128 @@
+package com.github.leloxo.bankserver.repository;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveBankAccountRepositoryTests {
+    private static ConnectionPool pool;
+    private static ReactiveBankAccountRepository bankAccountRepository;
+    private static AccountNumberGenerator accountNumberGenerator;
+    private static Customer customer;
+
+    private String senderAccountNumber;
+    private String receiverAccountNumber;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        TestDatabase.createSchema();
+        pool = DatabaseConnection.createConnectionPool(DatabaseConnection.loadProperties());
+
+        DatabaseClient databaseClient = DatabaseClient.create(pool);
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(pool));
+        bankAccountRepository = new ReactiveBankAccountRepository(databaseClient, transactionalOperator);
+        accountNumberGenerator = new AccountNumberGenerator(size -> bankAccountRepository.leaseAccountNumberBlock(size).block(), 100);
+
+        String email = "reactive-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+        customer = new ReactiveCustomerRepository(databaseClient)
+                .saveCustomer(new Customer(null, "Reactive", "Customer", email, "hash", LocalDateTime.now()))
+                .block();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.dispose();
+    }
+
+    @BeforeEach
+    void createAccounts() {
+        senderAccountNumber = saveAccount(Money.parse("100.00"));
+        receiverAccountNumber = saveAccount(Money.ZERO);
+    }
+
+    @Test
+    void transferMovesMoneyAndRecordsTransfer() {
+        bankAccountRepository.transferMoney(senderAccountNumber, receiverAccountNumber, Money.parse("40.00")).block();
+
+        Map<String, Money> balances = balances();
+        assertEquals(Money.parse("60.00"), balances.get(senderAccountNumber));
+        assertEquals(Money.parse("40.00"), balances.get(receiverAccountNumber));
+        Long transfers = DatabaseClient.create(pool)
+                .sql("SELECT COUNT(*) AS transfers FROM transfer WHERE sender_account_number = :sender")
+                .bind("sender", senderAccountNumber)
+                .map(row -> row.get("transfers", Long.class))
+                .one()
+                .block();
+        assertEquals(1L, transfers);
+    }
+
+    @Test
+    void transferRejectsInsufficientBalanceAndRollsBack() {
+        // The receiver is credited first when its account number sorts first, so the rejected debit must roll it back.
+        String sender = senderAccountNumber.compareTo(receiverAccountNumber) > 0 ? senderAccountNumber : receiverAccountNumber;
+        String receiver = sender.equals(senderAccountNumber) ? receiverAccountNumber : senderAccountNumber;
+        Map<String, Money> before = balances();
+
+        Exception e = assertThrows(Exception.class,
+                () -> bankAccountRepository.transferMoney(sender, receiver, Money.parse("1000.00")).block());
+
+        assertInstanceOf(InsufficientBalanceException.class, e.getCause());
+        assertEquals(before, balances());
+    }
+
+    @Test
+    void transferRejectsUnknownAccount() {
+        Exception e = assertThrows(Exception.class,
+                () -> bankAccountRepository.transferMoney(senderAccountNumber, "0000000000", Money.ofCents(100)).block());
+
+        assertInstanceOf(BankAccountNotFoundException.class, e.getCause());
+        assertEquals(Money.parse("100.00"), balances().get(senderAccountNumber));
+    }
+
+    @Test
+    void concurrentTransfersNeverOverdraw() {
+        int transfers = 50;
+        long completed = Flux.range(0, transfers)
+                .flatMap(i -> bankAccountRepository.transferMoney(senderAccountNumber, receiverAccountNumber, Money.parse("3.00"))
+                        .thenReturn(true)
+                        .onErrorReturn(InsufficientBalanceException.class::isInstance, false))
+                .filter(Boolean::booleanValue)
+                .count()
+                .block();
+
+        Map<String, Money> balances = balances();
+        assertEquals(33, completed);
+        assertEquals(Money.parse("1.00"), balances.get(senderAccountNumber));
+        assertEquals(Money.parse("99.00"), balances.get(receiverAccountNumber));
+    }
+
+    private static String saveAccount(Money balance) {
+        BankAccount bankAccount = new BankAccount(null, accountNumberGenerator.nextAccountNumber(), customer, balance, LocalDateTime.now());
+        return bankAccountRepository.saveBankAccount(bankAccount).block().getAccountNumber();
+    }
+
+    private static Map<String, Money> balances() {
+        return bankAccountRepository.getBankAccountsByCustomerId(customer.getId())
+                .collect(Collectors.toMap(BankAccountDto::getAccountNumber, BankAccountDto::getBalance))
+                .block();
+    }
+}
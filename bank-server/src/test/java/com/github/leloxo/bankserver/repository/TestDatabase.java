@@ -0,0 +1,189 @@
+package com.github.leloxo.bankserver.repository;
+
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccountDto;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.AccountNumberGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * The connection pool, repositories and helpers shared by the tests that run against the test database. The database
+ * is shared by all tests, so customers get unique emails and tests only look at the bank accounts they created.
+ * <p>
+ * The in-memory database lives as long as the JVM. Its schema is created once from the server's
+ * {@code sql/create_database.sql}, by the first {@link TestDatabase} or, for Spring Boot tests, by
+ * {@link TestSchemaInitializer}. The reactive profile's R2DBC URL points to the same database.
+ */
+public final class TestDatabase implements AutoCloseable {
+    private static final String SCHEMA_SCRIPT = "sql/create_database.sql";
+
+    private static boolean schemaCreated;
+
+    private final HikariDataSource pool;
+    private final CustomerRepository customerRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+
+    public TestDatabase() throws IOException {
+        createSchema();
+        this.pool = DatabaseConnection.createDataSource(DatabaseConnection.loadProperties());
+        this.customerRepository = new CustomerRepository(pool);
+        this.bankAccountRepository = new BankAccountRepository(pool);
+        this.accountNumberGenerator = new AccountNumberGenerator(bankAccountRepository::leaseAccountNumberBlock, 100);
+    }
+
+    /**
+     * @return An email that no other customer in the test database has, e.g. {@code transfer-k3j2h1@test.com}.
+     */
+    public static String uniqueEmail(String prefix) {
+        return prefix + "-" + Long.toString(System.nanoTime(), 36) + "@test.com";
+    }
+
+    /**
+     * Saves a customer with a unique email and a placeholder password hash.
+     */
+    public Customer saveCustomer(String name) {
+        return customerRepository.saveCustomer(new Customer(null, name, "Customer", uniqueEmail(name.toLowerCase()), "hash", LocalDateTime.now()));
+    }
+
+    /**
+     * @return The account number of a new bank account of the customer with the given balance.
+     */
+    public String saveAccount(Customer customer, Money balance) {
+        BankAccount bankAccount = new BankAccount(null, accountNumberGenerator.nextAccountNumber(), customer, balance, LocalDateTime.now());
+        return bankAccountRepository.saveBankAccount(bankAccount).getAccountNumber();
+    }
+
+    public List<String> saveAccounts(Customer customer, int count, Money balance) {
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accountNumbers.add(saveAccount(customer, balance));
+        }
+        return accountNumbers;
+    }
+
+    public Money balanceOf(String accountNumber) {
+        return bankAccountRepository.getBankAccountByAccountNumber(accountNumber)
+                .map(BankAccountDto::getBalance)
+                .orElseThrow();
+    }
+
+    /**
+     * Sums the balances of the bank accounts, failing if any of them is negative.
+     */
+    public Money totalBalance(List<String> accountNumbers) {
+        Money total = Money.ZERO;
+        for (String accountNumber : accountNumbers) {
+            Money balance = balanceOf(accountNumber);
+            if (balance.signum() < 0) {
+                throw new AssertionError("Balance of " + accountNumber + " went negative: " + balance);
+            }
+            total = total.plus(balance);
+        }
+        return total;
+    }
+
+    /**
+     * @return The number of rows in the {@code transfer} table sent from one of the bank accounts.
+     */
+    public long countTransfersFrom(List<String> accountNumbers) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(accountNumbers.size(), "?"));
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM transfer WHERE sender_account_number IN (" + placeholders + ")")) {
+            for (int i = 0; i < accountNumbers.size(); i++) {
+                stmt.setString(i + 1, accountNumbers.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Creates the schema of the test database, unless it was already created in this JVM.
+     */
+    public static synchronized void createSchema() throws IOException {
+        if (schemaCreated) {
+            return;
+        }
+        Properties properties = DatabaseConnection.loadProperties();
+        try (Connection connection = DriverManager.getConnection(properties.getProperty("db.url"),
+                properties.getProperty("db.user"), properties.getProperty("db.password"));
+             Statement statement = connection.createStatement()) {
+            for (String sql : readSchemaStatements()) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create the schema of the test database.", e);
+        }
+        schemaCreated = true;
+    }
+
+    public HikariDataSource getDataSource() {
+        return pool;
+    }
+
+    public CustomerRepository getCustomerRepository() {
+        return customerRepository;
+    }
+
+    public BankAccountRepository getBankAccountRepository() {
+        return bankAccountRepository;
+    }
+
+    public AccountNumberGenerator getAccountNumberGenerator() {
+        return accountNumberGenerator;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    /**
+     * @return The statements of the schema script, without the ones that create and select the MySQL database, which
+     * the in-memory database already is.
+     */
+    private static List<String> readSchemaStatements() throws IOException {
+        String script;
+        try (InputStream input = TestDatabase.class.getClassLoader().getResourceAsStream(SCHEMA_SCRIPT)) {
+            if (input == null) {
+                throw new FileNotFoundException(SCHEMA_SCRIPT + " not found in classpath");
+            }
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        String withoutComments = script.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        List<String> statements = new ArrayList<>();
+        for (String sql : withoutComments.split(";")) {
+            String trimmed = sql.trim();
+            String upperCase = trimmed.toUpperCase(Locale.ROOT);
+            if (!trimmed.isEmpty() && !upperCase.startsWith("CREATE DATABASE") && !upperCase.startsWith("USE ")) {
+                statements.add(trimmed);
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.leloxo.bankserver.repository;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Creates the schema of the test database before a Spring Boot test context starts, since the server reads from the
+ * database while its beans are created. Registered in {@code META-INF/spring.factories} of the test resources.
+ */
+public class TestSchemaInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    @Override
+    public void initialize(ConfigurableApplicationContext applicationContext) {
+        try {
+            TestDatabase.createSchema();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
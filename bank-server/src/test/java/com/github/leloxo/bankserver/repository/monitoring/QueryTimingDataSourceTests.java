@@ -0,0 +1,108 @@
+package com.github.leloxo.bankserver.repository.monitoring;
+
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.repository.CustomerRepository;
+import com.github.leloxo.bankserver.repository.TestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTimingDataSourceTests {
+    private static TestDatabase database;
+    private static QueryTimingDataSource dataSource;
+    private static SlowQueryLog slowQueryLog;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = new TestDatabase();
+        // Every statement counts as slow.
+        slowQueryLog = new SlowQueryLog(Duration.ZERO, 16);
+        dataSource = new QueryTimingDataSource(database.getDataSource(), slowQueryLog);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @BeforeEach
+    void clearLog() {
+        slowQueryLog.clear();
+    }
+
+    @Test
+    void recordsStatementsWithMaskedPasswordsAndRowCounts() {
+        CustomerRepository customerRepository = new CustomerRepository(dataSource);
+        String email = TestDatabase.uniqueEmail("slow");
+
+        customerRepository.saveCustomer(new Customer(null, "Slow", "Query", email, "secret-password", LocalDateTime.now()));
+        customerRepository.getCustomerByEmail(email);
+
+        List<SlowQuery> queries = slowQueryLog.getRecent();
+        SlowQuery insert = queries.stream().filter(query -> query.getSql().startsWith("INSERT")).findFirst().orElseThrow();
+        assertEquals(List.of("'Slow'", "'Query'", "'" + email + "'", SqlFormatter.MASK), insert.getParameters().subList(0, 4));
+        assertEquals(1, insert.getRows());
+
+        SlowQuery select = queries.stream().filter(query -> query.getSql().startsWith("SELECT")).findFirst().orElseThrow();
+        assertEquals("SELECT * FROM customer WHERE email = ?", select.getSql());
+        assertEquals(List.of("'" + email + "'"), select.getParameters());
+        assertEquals(1, select.getRows());
+        assertTrue(select.getDurationMillis() >= 0);
+    }
+
+    @Test
+    void normalizesLiteralsOfPlainStatements() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT   id FROM customer\n WHERE id > 0 AND email <> 'x'")) {
+            while (resultSet.next()) {
+                // Reads all rows.
+            }
+        }
+
+        SlowQuery query = slowQueryLog.getRecent().get(0);
+        assertEquals("SELECT id FROM customer WHERE id > ? AND email <> ?", query.getSql());
+        assertEquals(List.of(), query.getParameters());
+    }
+
+    @Test
+    void ringBufferKeepsTheMostRecentEntries() {
+        SlowQueryLog log = new SlowQueryLog(Duration.ofMillis(10), 2);
+        for (int i = 1; i <= 3; i++) {
+            log.record(new SlowQuery(Instant.ofEpochSecond(i), 10 * i, "SELECT " + i, List.of(), 0, -1));
+        }
+
+        assertEquals(List.of("SELECT 3", "SELECT 2"), log.getRecent().stream().map(SlowQuery::getSql).toList());
+        assertEquals(3, log.getRecordedCount());
+        assertFalse(log.isSlow(Duration.ofMillis(9).toNanos()));
+        assertTrue(log.isSlow(Duration.ofMillis(10).toNanos()));
+    }
+
+    @Test
+    void slowestEntriesOutliveTheRingBuffer() {
+        SlowQueryLog log = new SlowQueryLog(Duration.ofMillis(10), 2);
+        int[] durations = {50, 10, 90, 20, 70, 30, 40};
+        for (int i = 0; i < durations.length; i++) {
+            log.record(new SlowQuery(Instant.ofEpochSecond(i), durations[i], "SELECT " + durations[i], List.of(), 0, -1));
+        }
+
+        assertEquals(List.of("SELECT 40", "SELECT 30"), log.getRecent().stream().map(SlowQuery::getSql).toList());
+        assertEquals(List.of("SELECT 90", "SELECT 70"), log.getSlowest().stream().map(SlowQuery::getSql).toList());
+
+        log.clear();
+        assertEquals(List.of(), log.getSlowest());
+        log.record(new SlowQuery(Instant.ofEpochSecond(10), 15, "SELECT 15", List.of(), 0, -1));
+        assertEquals(List.of("SELECT 15"), log.getSlowest().stream().map(SlowQuery::getSql).toList());
+    }
+}
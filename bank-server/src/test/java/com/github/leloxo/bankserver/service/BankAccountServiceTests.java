@@ -0,0 +1,234 @@
+package com.github.leloxo.bankserver.service;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.exception.bankaccount.InvalidBankAccountDataException;
+import com.github.leloxo.bankserver.model.bankaccount.BankAccount;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferRequestPayload;
+import com.github.leloxo.bankserver.model.bankaccount.MoneyTransferResult;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.BloomFilter;
+import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import com.github.leloxo.bankserver.repository.TestDatabase;
+import com.github.leloxo.bankserver.service.cache.CustomerCache;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import com.github.leloxo.bankserver.service.transfer.JdbcTransferEngine;
+import com.github.leloxo.bankserver.service.transfer.TransferMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAccountServiceTests {
+    private static final int ACCOUNTS = 6;
+    private static final Money INITIAL_BALANCE = Money.parse("100.00");
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 150;
+
+    private static TestDatabase database;
+    private static SimpleMeterRegistry meterRegistry;
+    private static BankAccountRepository bankAccountRepository;
+    private static BankAccountService bankAccountService;
+    private static BloomFilter accountNumberFilter;
+    private static Customer customer;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = new TestDatabase();
+        ValidationManager validationManager = new ValidationManager();
+        bankAccountRepository = database.getBankAccountRepository();
+        meterRegistry = new SimpleMeterRegistry();
+        JdbcTransferEngine transferEngine = new JdbcTransferEngine(bankAccountRepository);
+        CustomerService customerService = new CustomerService(database.getCustomerRepository(), validationManager,
+                new CustomerCache(100, Duration.ofMinutes(1)), new PasswordHashingExecutor(1, 1), bankAccountRepository, transferEngine);
+        accountNumberFilter = new BloomFilter(1000, 0.01);
+        bankAccountService = new BankAccountService(bankAccountRepository, customerService, validationManager,
+                transferEngine, accountNumberFilter, database.getAccountNumberGenerator(), new TransferMetrics(meterRegistry));
+        customer = database.saveCustomer("Transfer");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void createdBankAccountExistsAndUnallocatedNumberDoesNot() throws Exception {
+        BankAccount bankAccount = bankAccountService.createBankAccount(customer.getEmail());
+
+        assertTrue(bankAccountService.existsByAccountNumber(bankAccount.getAccountNumber()));
+        assertFalse(bankAccountService.existsByAccountNumber("0000000000"));
+    }
+
+    @Test
+    void transferToUnknownAccountIsRejected() {
+        String sender = saveAccount(INITIAL_BALANCE);
+        String unknown = "0000000000";
+
+        assertThrows(BankAccountNotFoundException.class,
+                () -> bankAccountService.transferMoney(sender, unknown, Money.ofCents(100)));
+        assertThrows(BankAccountNotFoundException.class,
+                () -> bankAccountService.transferMoney(unknown, sender, Money.ofCents(100)));
+        assertEquals(0, INITIAL_BALANCE.compareTo(balanceOf(sender)));
+    }
+
+    @Test
+    void legacyAccountNumberWithoutValidCheckDigitIsAccepted() throws Exception {
+        // Accounts created before account numbers got a check digit, as loaded into the filter at startup.
+        String legacy = withInvalidCheckDigit(database.getAccountNumberGenerator().nextAccountNumber());
+        bankAccountRepository.saveBankAccount(new BankAccount(null, legacy, customer, INITIAL_BALANCE, LocalDateTime.now()));
+        accountNumberFilter.put(legacy);
+        String receiver = saveAccount(Money.ZERO);
+
+        bankAccountService.transferMoney(customer.getId(), legacy, receiver, Money.parse("30.00"));
+        bankAccountService.transferMoney(customer.getId(), receiver, legacy, Money.parse("10.00"));
+
+        assertEquals(legacy, bankAccountService.getBankAccountByAccountNumber(legacy).getAccountNumber());
+        assertEquals(2, bankAccountService.getTransfers(legacy, null, null, null, 0, 10).size());
+        assertEquals(0, Money.parse("80.00").compareTo(balanceOf(legacy)));
+        assertEquals(0, Money.parse("20.00").compareTo(balanceOf(receiver)));
+
+        String mistyped = withInvalidCheckDigit(receiver);
+        assertThrows(InvalidBankAccountDataException.class,
+                () -> bankAccountService.transferMoney(customer.getId(), legacy, mistyped, Money.ofCents(100)));
+        assertThrows(InvalidBankAccountDataException.class, () -> bankAccountService.getBankAccountByAccountNumber(mistyped));
+    }
+
+    @Test
+    void transferExceedingBalanceIsRejected() {
+        String sender = saveAccount(INITIAL_BALANCE);
+        String receiver = saveAccount(Money.ZERO);
+        double rejected = transfers(MoneyTransferResult.Status.INSUFFICIENT_BALANCE);
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> bankAccountService.transferMoney(sender, receiver, Money.parse("100.01")));
+        assertEquals(0, INITIAL_BALANCE.compareTo(balanceOf(sender)));
+        assertEquals(0, Money.ZERO.compareTo(balanceOf(receiver)));
+        assertEquals(rejected + 1, transfers(MoneyTransferResult.Status.INSUFFICIENT_BALANCE));
+    }
+
+    @Test
+    void concurrentTransfersNeverOverdrawAndConserveMoney() throws Exception {
+        List<String> accountNumbers = database.saveAccounts(customer, ACCOUNTS, INITIAL_BALANCE);
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    Money amount = Money.ofCents(random.nextInt(1, 6000));
+                    try {
+                        bankAccountService.transferMoney(accountNumbers.get(from), accountNumbers.get(to), amount);
+                        completed.incrementAndGet();
+                    } catch (InsufficientBalanceException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(0, Money.ofCents(INITIAL_BALANCE.getCents() * ACCOUNTS).compareTo(database.totalBalance(accountNumbers)));
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, completed.get() + rejected.get());
+        assertEquals(completed.get(), database.countTransfersFrom(accountNumbers));
+    }
+
+    @Test
+    void transferMoneyBatchReportsOutcomePerItem() {
+        String first = saveAccount(Money.parse("10.00"));
+        String second = saveAccount(Money.ZERO);
+
+        List<MoneyTransferResult> results = bankAccountService.transferMoneyBatch(customer.getId(), List.of(
+                new MoneyTransferRequestPayload(first, second, Money.parse("10.00")),
+                new MoneyTransferRequestPayload(second, first, Money.parse("4.00")),
+                new MoneyTransferRequestPayload(first, second, Money.parse("5.00")),
+                new MoneyTransferRequestPayload(first, "0000000000", Money.ofCents(100)),
+                new MoneyTransferRequestPayload(first, first, Money.ofCents(100)),
+                new MoneyTransferRequestPayload(first, second, Money.parse("-1"))
+        ));
+
+        assertEquals(List.of(
+                MoneyTransferResult.Status.COMPLETED,
+                MoneyTransferResult.Status.COMPLETED,
+                MoneyTransferResult.Status.INSUFFICIENT_BALANCE,
+                MoneyTransferResult.Status.ACCOUNT_NOT_FOUND,
+                MoneyTransferResult.Status.INVALID,
+                MoneyTransferResult.Status.INVALID
+        ), results.stream().map(MoneyTransferResult::getStatus).toList());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(0, Money.parse("4.00").compareTo(balanceOf(first)));
+        assertEquals(0, Money.parse("6.00").compareTo(balanceOf(second)));
+    }
+
+    @Test
+    void concurrentOpposingBatchesDoNotDeadlock() throws Exception {
+        List<String> accountNumbers = database.saveAccounts(customer, ACCOUNTS, INITIAL_BALANCE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<MoneyTransferResult>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean forward = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                List<MoneyTransferRequestPayload> batch = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    int from = i % ACCOUNTS;
+                    int to = forward ? (from + 1) % ACCOUNTS : (from + ACCOUNTS - 1) % ACCOUNTS;
+                    batch.add(new MoneyTransferRequestPayload(accountNumbers.get(from), accountNumbers.get(to), Money.parse("1.25")));
+                }
+                return bankAccountService.transferMoneyBatch(customer.getId(), batch);
+            }));
+        }
+        long completed = 0;
+        for (Future<List<MoneyTransferResult>> future : futures) {
+            for (MoneyTransferResult result : future.get(2, TimeUnit.MINUTES)) {
+                assertNotEquals(MoneyTransferResult.Status.FAILED, result.getStatus());
+                if (result.getStatus() == MoneyTransferResult.Status.COMPLETED) {
+                    completed++;
+                }
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(0, Money.ofCents(INITIAL_BALANCE.getCents() * ACCOUNTS).compareTo(database.totalBalance(accountNumbers)));
+        assertEquals(completed, database.countTransfersFrom(accountNumbers));
+    }
+
+    private static double transfers(MoneyTransferResult.Status outcome) {
+        return meterRegistry.get("bank.transfers").tag("outcome", outcome.name().toLowerCase()).counter().count();
+    }
+
+    private static String saveAccount(Money balance) {
+        return database.saveAccount(customer, balance);
+    }
+
+    private static String withInvalidCheckDigit(String accountNumber) {
+        int last = accountNumber.length() - 1;
+        return accountNumber.substring(0, last) + (char) ('0' + (accountNumber.charAt(last) - '0' + 1) % 10);
+    }
+
+    private static Money balanceOf(String accountNumber) {
+        return database.balanceOf(accountNumber);
+    }
+}
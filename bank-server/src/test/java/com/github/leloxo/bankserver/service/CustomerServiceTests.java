@@ -0,0 +1,64 @@
+package com.github.leloxo.bankserver.service;
+
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
+import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.repository.CustomerRepository;
+import com.github.leloxo.bankserver.repository.TestDatabase;
+import com.github.leloxo.bankserver.service.cache.CustomerCache;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import com.github.leloxo.bankserver.service.transfer.JdbcTransferEngine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerServiceTests {
+    private static TestDatabase database;
+    private static CustomerRepository customerRepository;
+    private static CustomerService customerService;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = new TestDatabase();
+        customerRepository = database.getCustomerRepository();
+        customerService = new CustomerService(customerRepository, new ValidationManager(),
+                new CustomerCache(100, Duration.ofMinutes(1)), new PasswordHashingExecutor(1, 1),
+                database.getBankAccountRepository(), new JdbcTransferEngine(database.getBankAccountRepository()));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @AfterEach
+    void restoreDefaultCost() {
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST);
+    }
+
+    @Test
+    void loginRehashesPasswordWithOutdatedCost() throws Exception {
+        PasswordHasher.setCost(5);
+        String email = TestDatabase.uniqueEmail("rehash");
+        String oldHash = new BCryptPasswordEncoder(4).encode("password123");
+        customerRepository.saveCustomer(new Customer(null, "Rehash", "Customer", email, oldHash, LocalDateTime.now()));
+
+        assertTrue(customerService.authenticateCustomer(email, "wrong-password").isEmpty());
+        assertEquals(oldHash, customerService.getCustomerByEmail(email).getPassword());
+
+        assertTrue(customerService.authenticateCustomer(email, "password123").isPresent());
+        String newHash = customerService.getCustomerByEmail(email).getPassword();
+        assertTrue(newHash.startsWith("$2a$05$"), newHash);
+        assertEquals(newHash, customerRepository.getCustomerByEmail(email).orElseThrow().getPassword());
+
+        assertTrue(customerService.authenticateCustomer(email, "password123").isPresent());
+        assertEquals(newHash, customerService.getCustomerByEmail(email).getPassword());
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.leloxo.bankserver.service.cache;
+
+import com.github.leloxo.bankserver.model.customer.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTests {
+    private static final Customer CUSTOMER = new Customer(1L, "Test", "Customer", "test@test.com", "hash", LocalDateTime.now());
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, Optional<Customer>> loadByEmail = email -> {
+        loads.incrementAndGet();
+        return email.equals(CUSTOMER.getEmail()) ? Optional.of(CUSTOMER) : Optional.empty();
+    };
+    private final Function<Long, Optional<Customer>> loadById = id -> {
+        loads.incrementAndGet();
+        return id.equals(CUSTOMER.getId()) ? Optional.of(CUSTOMER) : Optional.empty();
+    };
+
+    private CustomerCache customerCache;
+
+    @BeforeEach
+    void setUp() {
+        customerCache = new CustomerCache(100, Duration.ofMinutes(1));
+        loads.set(0);
+    }
+
+    @Test
+    void cachesCustomerByEmailAndId() {
+        assertEquals(CUSTOMER, customerCache.getByEmail(CUSTOMER.getEmail(), loadByEmail).orElseThrow());
+        assertEquals(CUSTOMER, customerCache.getByEmail(CUSTOMER.getEmail(), loadByEmail).orElseThrow());
+        assertEquals(CUSTOMER, customerCache.getById(CUSTOMER.getId(), loadById).orElseThrow());
+
+        assertEquals(1, loads.get());
+        assertEquals(2, customerCache.getHitCount());
+        assertEquals(1, customerCache.getMissCount());
+    }
+
+    @Test
+    void doesNotCacheMissingCustomers() {
+        assertTrue(customerCache.getByEmail("missing@test.com", loadByEmail).isEmpty());
+        assertTrue(customerCache.getByEmail("missing@test.com", loadByEmail).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateRemovesBothIndexes() {
+        customerCache.getByEmail(CUSTOMER.getEmail(), loadByEmail);
+        customerCache.invalidate(CUSTOMER.getEmail());
+
+        customerCache.getById(CUSTOMER.getId(), loadById);
+        customerCache.getByEmail(CUSTOMER.getEmail(), loadByEmail);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictsBeyondMaximumSize() {
+        CustomerCache smallCache = new CustomerCache(10, Duration.ofMinutes(1));
+        for (long id = 1; id <= 100; id++) {
+            long customerId = id;
+            smallCache.getById(customerId, key -> Optional.of(
+                    new Customer(customerId, "Test", "Customer", customerId + "@test.com", "hash", LocalDateTime.now())));
+        }
+        smallCache.cleanUp();
+
+        assertTrue(smallCache.getEvictionCount() > 0);
+        assertTrue(smallCache.getSize() <= 10);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.leloxo.bankserver.service.password;
+
+import com.github.leloxo.bankserver.exception.GlobalExceptionHandler;
+import com.github.leloxo.bankserver.exception.customer.PasswordHashingBusyException;
+import com.github.leloxo.bankserver.model.util.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTests {
+    private static final String PASSWORD = "password123";
+    private static final String HASHED_PASSWORD = PasswordHasher.hashPassword(PASSWORD);
+
+    @Test
+    void hashesAndVerifiesPasswords() {
+        try (PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1)) {
+            String hashedPassword = executor.hash(PASSWORD);
+
+            assertTrue(executor.matches(PASSWORD, hashedPassword));
+            assertFalse(executor.matches("wrong-password", hashedPassword));
+            assertEquals(3, executor.getCompletedCount());
+            assertTrue(executor.getAverageLatencyMs() > 0);
+        }
+    }
+
+    @Test
+    void rejectsWorkBeyondPoolAndQueue() throws Exception {
+        int callers = 8;
+        try (PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1)) {
+            ExecutorService callerPool = Executors.newFixedThreadPool(callers);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger rejected = new AtomicInteger();
+            AtomicReference<PasswordHashingBusyException> rejection = new AtomicReference<>();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(callerPool.submit(() -> {
+                    start.await();
+                    try {
+                        assertTrue(executor.matches(PASSWORD, HASHED_PASSWORD));
+                    } catch (PasswordHashingBusyException e) {
+                        rejected.incrementAndGet();
+                        rejection.set(e);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            callerPool.shutdown();
+
+            assertTrue(rejected.get() > 0);
+            assertEquals(rejected.get(), executor.getRejectedCount());
+            assertEquals(callers - rejected.get(), executor.getCompletedCount());
+
+            ResponseEntity<String> response = new GlobalExceptionHandler().handlePasswordHashingBusyException(rejection.get());
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+            assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.leloxo.bankserver.service.session;
+
+import com.github.leloxo.bankserver.exception.session.LoginThrottledException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTests {
+    private static final Duration WINDOW = Duration.ofMinutes(16);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @Test
+    void emailIsBlockedAfterTooManyFailuresUntilTheWindowPasses() {
+        LoginThrottle loginThrottle = new LoginThrottle(3, 100, WINDOW, clock);
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.reserve(i == 0 ? "Test@Test.com" : "test@test.com", "10.0.0." + i);
+        }
+
+        LoginThrottledException e = assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("test@test.com", "10.0.0.9"));
+        assertTrue(e.getRetryAfterSeconds() > 0 && e.getRetryAfterSeconds() <= WINDOW.toSeconds());
+        loginThrottle.reserve("other@test.com", "10.0.0.0");
+
+        clock.advance(WINDOW);
+        loginThrottle.reserve("test@test.com", "10.0.0.9");
+    }
+
+    @Test
+    void failuresSlideOutOfTheWindow() {
+        LoginThrottle loginThrottle = new LoginThrottle(3, 100, WINDOW, clock);
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+        clock.advance(Duration.ofMinutes(10));
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("test@test.com", "10.0.0.1"));
+
+        clock.advance(Duration.ofMinutes(7));
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+    }
+
+    @Test
+    void successClearsEmailFailuresButNotAddressFailures() {
+        LoginThrottle loginThrottle = new LoginThrottle(3, 4, WINDOW, clock);
+        for (int i = 0; i < 2; i++) {
+            loginThrottle.reserve("first@test.com", "10.0.0.1");
+        }
+        loginThrottle.recordSuccess(loginThrottle.reserve("first@test.com", "10.0.0.1"));
+        loginThrottle.reserve("first@test.com", "10.0.0.1");
+
+        loginThrottle.reserve("second@test.com", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("third@test.com", "10.0.0.1"));
+        loginThrottle.reserve("third@test.com", "10.0.0.2");
+    }
+
+    @Test
+    void releasedAttemptsAreNotCounted() {
+        LoginThrottle loginThrottle = new LoginThrottle(2, 100, WINDOW, clock);
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.release(loginThrottle.reserve("test@test.com", "10.0.0.1"));
+        }
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("test@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    void rejectionByAddressDoesNotCountForTheEmail() {
+        LoginThrottle loginThrottle = new LoginThrottle(2, 1, WINDOW, clock);
+        loginThrottle.reserve("first@test.com", "10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(LoginThrottledException.class, () -> loginThrottle.reserve("second@test.com", "10.0.0.1"));
+        }
+        loginThrottle.reserve("second@test.com", "10.0.0.2");
+    }
+
+    @Test
+    void expiredKeysArePurged() {
+        LoginThrottle loginThrottle = new LoginThrottle(3, 100, WINDOW, clock);
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.reserve("test" + i + "@test.com", "10.0.0." + i);
+        }
+        assertEquals(20, loginThrottle.getTrackedKeyCount());
+
+        clock.advance(WINDOW);
+        loginThrottle.reserve("test@test.com", "10.0.0.1");
+        assertEquals(2, loginThrottle.getTrackedKeyCount());
+    }
+
+    @Test
+    void concurrentAttemptsNeverExceedTheLimit() throws Exception {
+        int threads = 8;
+        int attemptsPerThread = 1000;
+        int limit = 50;
+        LoginThrottle loginThrottle = new LoginThrottle(limit, Integer.MAX_VALUE, WINDOW, clock);
+
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String address = "10.0.0." + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        loginThrottle.reserve("test@test.com", address);
+                        reserved.incrementAndGet();
+                    } catch (LoginThrottledException e) {
+                        // Expected once the limit is reached.
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(limit, reserved.get());
+    }
+}
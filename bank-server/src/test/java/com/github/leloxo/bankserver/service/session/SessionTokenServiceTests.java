@@ -0,0 +1,104 @@
+package com.github.leloxo.bankserver.service.session;
+
+import com.github.leloxo.bankserver.exception.session.ForbiddenOperationException;
+import com.github.leloxo.bankserver.exception.session.InvalidSessionException;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTests {
+    private static final byte[] SECRET = new byte[32];
+    private static final Customer CUSTOMER = new Customer(7L, "Test", "Customer", "test@test.com", "hash", LocalDateTime.now());
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final SessionTokenService sessionTokenService = new SessionTokenService(SECRET, Duration.ofMinutes(30), clock);
+
+    @Test
+    void issuedTokenIsVerified() {
+        Session issued = sessionTokenService.issue(CUSTOMER);
+
+        Session verified = sessionTokenService.authorize("Bearer " + issued.getToken(), "test@test.com");
+
+        assertEquals(CUSTOMER.getId(), verified.getCustomerId());
+        assertEquals(CUSTOMER.getEmail(), verified.getEmail());
+        assertEquals(issued.getExpiresAt(), verified.getExpiresAt());
+    }
+
+    @Test
+    void tamperedOrForeignTokenIsRejected() {
+        String token = sessionTokenService.issue(CUSTOMER).getToken();
+        char[] chars = token.toCharArray();
+        chars[3] = chars[3] == 'A' ? 'B' : 'A';
+
+        assertThrows(InvalidSessionException.class, () -> sessionTokenService.verify(new String(chars)));
+        assertThrows(InvalidSessionException.class, () -> sessionTokenService.verify("not-a-token"));
+        assertThrows(InvalidSessionException.class, () -> sessionTokenService.authenticate(null));
+
+        byte[] otherSecret = Arrays.copyOf(SECRET, SECRET.length);
+        otherSecret[0] = 1;
+        SessionTokenService otherService = new SessionTokenService(otherSecret, Duration.ofMinutes(30), clock);
+        assertThrows(InvalidSessionException.class, () -> otherService.verify(token));
+    }
+
+    @Test
+    void tokenOfAnotherCustomerIsForbidden() {
+        String token = sessionTokenService.issue(CUSTOMER).getToken();
+
+        assertThrows(ForbiddenOperationException.class, () -> sessionTokenService.authorize("Bearer " + token, "other@test.com"));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = sessionTokenService.issue(CUSTOMER).getToken();
+        clock.advance(Duration.ofMinutes(30));
+
+        assertThrows(InvalidSessionException.class, () -> sessionTokenService.verify(token));
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndForgottenAfterExpiry() {
+        Session session = sessionTokenService.issue(CUSTOMER);
+        sessionTokenService.revoke(session);
+
+        assertThrows(InvalidSessionException.class, () -> sessionTokenService.verify(session.getToken()));
+        assertEquals(1, sessionTokenService.getRevokedCount());
+
+        clock.advance(Duration.ofMinutes(31));
+        sessionTokenService.revoke(sessionTokenService.issue(CUSTOMER));
+        assertEquals(1, sessionTokenService.getRevokedCount());
+    }
+
+    @Test
+    void tokensAreVerifiedConcurrently() throws Exception {
+        String token = sessionTokenService.issue(CUSTOMER).getToken();
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals(CUSTOMER.getId(), sessionTokenService.verify(token).getCustomerId());
+                    assertThrows(InvalidSessionException.class, () -> sessionTokenService.verify(forged));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+    }
+}
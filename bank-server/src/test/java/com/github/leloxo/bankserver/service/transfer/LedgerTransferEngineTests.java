@@ -0,0 +1,251 @@
+package com.github.leloxo.bankserver.service.transfer;
+
+import com.github.leloxo.bankserver.exception.bankaccount.BankAccountNotFoundException;
+import com.github.leloxo.bankserver.exception.bankaccount.InsufficientBalanceException;
+import com.github.leloxo.bankserver.model.bankaccount.Money;
+import com.github.leloxo.bankserver.model.customer.Customer;
+import com.github.leloxo.bankserver.model.validation.ValidationManager;
+import com.github.leloxo.bankserver.repository.BankAccountRepository;
+import com.github.leloxo.bankserver.repository.TestDatabase;
+import com.github.leloxo.bankserver.service.CustomerService;
+import com.github.leloxo.bankserver.service.cache.CustomerCache;
+import com.github.leloxo.bankserver.service.password.PasswordHashingExecutor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerTransferEngineTests {
+    private static final Money INITIAL_BALANCE = Money.parse("1000.00");
+
+    private static TestDatabase database;
+    private static BankAccountRepository bankAccountRepository;
+    private static Customer customer;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        database = new TestDatabase();
+        bankAccountRepository = database.getBankAccountRepository();
+        customer = database.saveCustomer("Ledger");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void transfersAreAppliedInMemoryAndFlushedToDatabase() throws Exception {
+        String sender = saveAccount(INITIAL_BALANCE);
+        String receiver = saveAccount(Money.ZERO);
+
+        Path walPath = tempDir.resolve("ledger.wal");
+        LedgerTransferEngine engine = newEngine(walPath, 0, 1024 * 1024);
+        engine.start();
+        try {
+            engine.transfer(sender, receiver, Money.parse("250.00"));
+            engine.transfer(receiver, sender, Money.parse("50.00"));
+            assertThrows(InsufficientBalanceException.class, () -> engine.transfer(receiver, sender, Money.parse("200.01")));
+            assertThrows(BankAccountNotFoundException.class, () -> engine.transfer(sender, "0000000000", Money.ofCents(100)));
+
+            assertEquals(0, Money.parse("800.00").compareTo(engine.getBalance(sender)));
+            assertEquals(0, Money.parse("200.00").compareTo(engine.getBalance(receiver)));
+        } finally {
+            engine.close();
+        }
+
+        assertEquals(0, Money.parse("800.00").compareTo(balanceOf(sender)));
+        assertEquals(0, Money.parse("200.00").compareTo(balanceOf(receiver)));
+        assertEquals(0, WriteAheadLog.readEntries(walPath, entry -> { }));
+    }
+
+    @Test
+    void startReplaysUnflushedEntriesAndIgnoresTornRecord() throws Exception {
+        String sender = saveAccount(INITIAL_BALANCE);
+        String receiver = saveAccount(Money.ZERO);
+        Path walPath = tempDir.resolve("crashed.wal");
+
+        // Simulate a crash: two transfers were logged but never reached the database, the third was cut short.
+        long checkpoint = bankAccountRepository.getLastLedgerSequence();
+        // A segment size of one byte puts every record into a segment of its own.
+        Path lastSegment;
+        try (WriteAheadLog writeAheadLog = WriteAheadLog.openEmpty(walPath, 1)) {
+            writeAheadLog.append(new LedgerEntry(checkpoint + 1, sender, receiver, Money.parse("100.00")));
+            writeAheadLog.append(new LedgerEntry(checkpoint + 2, sender, receiver, Money.parse("0.50")));
+            lastSegment = writeAheadLog.getPath();
+        }
+        Files.write(lastSegment, new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        LedgerTransferEngine engine = newEngine(walPath, 0, 1024 * 1024);
+        engine.start();
+        try {
+            assertEquals(checkpoint + 2, bankAccountRepository.getLastLedgerSequence());
+            assertEquals(0, Money.parse("899.50").compareTo(balanceOf(sender)));
+            assertEquals(0, Money.parse("100.50").compareTo(balanceOf(receiver)));
+
+            engine.transfer(sender, receiver, Money.ofCents(100));
+        } finally {
+            engine.close();
+        }
+        assertEquals(checkpoint + 3, bankAccountRepository.getLastLedgerSequence());
+    }
+
+    @Test
+    void deletedAccountsNoLongerAcceptTransfers() throws Exception {
+        String sender = saveAccount(INITIAL_BALANCE);
+        Customer deletedCustomer = database.saveCustomer("Deleted");
+        String deleted = database.saveAccount(deletedCustomer, Money.ZERO);
+
+        LedgerTransferEngine engine = newEngine(tempDir.resolve("deleted.wal"), 0, 1024 * 1024);
+        engine.start();
+        try (PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 1)) {
+            CustomerService customerService = new CustomerService(database.getCustomerRepository(), new ValidationManager(),
+                    new CustomerCache(100, Duration.ofMinutes(1)), passwordHashingExecutor, bankAccountRepository, engine);
+
+            engine.transfer(sender, deleted, Money.parse("100.00"));
+            customerService.deleteCustomer(deletedCustomer.getEmail());
+
+            assertThrows(BankAccountNotFoundException.class, () -> engine.transfer(sender, deleted, Money.parse("1.00")));
+            assertThrows(BankAccountNotFoundException.class, () -> engine.transfer(deleted, sender, Money.parse("1.00")));
+            assertThrows(BankAccountNotFoundException.class, () -> engine.getBalance(deleted));
+            assertEquals(0, Money.parse("900.00").compareTo(engine.getBalance(sender)));
+        } finally {
+            engine.close();
+        }
+        assertEquals(0, Money.parse("900.00").compareTo(balanceOf(sender)));
+        assertTrue(bankAccountRepository.getBankAccountByAccountNumber(deleted).isEmpty());
+    }
+
+    @Test
+    void transferRejectedByTheDatabaseIsReversedInMemory() throws Exception {
+        String sender = saveAccount(INITIAL_BALANCE);
+        Customer deletedCustomer = database.saveCustomer("Diverged");
+        String deleted = database.saveAccount(deletedCustomer, Money.ZERO);
+
+        LedgerTransferEngine engine = newEngine(tempDir.resolve("diverged.wal"), 0, 1024 * 1024);
+        engine.start();
+        try {
+            engine.getBalance(deleted);
+            // Deleted behind the engine's back, so the ledger still accepts the transfer.
+            database.getCustomerRepository().deleteCustomer(deletedCustomer.getEmail());
+            engine.transfer(sender, deleted, Money.parse("200.00"));
+        } finally {
+            engine.close();
+        }
+
+        assertEquals(0, INITIAL_BALANCE.compareTo(engine.getBalance(sender)));
+        assertEquals(0, INITIAL_BALANCE.compareTo(balanceOf(sender)));
+    }
+
+    @Test
+    void flushedSegmentsAreDeletedWhilePendingTransfersAreBounded() throws Exception {
+        int accounts = 8;
+        List<String> accountNumbers = database.saveAccounts(customer, accounts, INITIAL_BALANCE);
+        Path walPath = tempDir.resolve("segments.wal");
+
+        // Segments of about ten records, and at most 16 transfers waiting for the database.
+        LedgerTransferEngine engine = new LedgerTransferEngine(bankAccountRepository, walPath, 16, 0, 16, 400);
+        engine.start();
+        long completed;
+        try {
+            completed = run(engine, accountNumbers, 4, 250);
+            assertTrue(engine.getPendingCount() <= 16);
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(tempDir, "segments.wal.*")) {
+                int count = 0;
+                for (Path ignored : segments) {
+                    count++;
+                }
+                assertTrue(count < completed / 10, count + " segments for " + completed + " transfers");
+            }
+        } finally {
+            engine.close();
+        }
+
+        assertEquals(0, WriteAheadLog.readEntries(walPath, entry -> { }));
+        assertEquals(0, Money.ofCents(INITIAL_BALANCE.getCents() * accounts).compareTo(database.totalBalance(accountNumbers)));
+        assertEquals(completed, database.countTransfersFrom(accountNumbers));
+    }
+
+    @Test
+    void concurrentTransfersConserveMoneyInBothEngines() throws Exception {
+        int accounts = 32;
+        int threads = 8;
+        int transfersPerThread = 500;
+        Money expectedTotal = Money.ofCents(INITIAL_BALANCE.getCents() * accounts);
+
+        List<String> jdbcAccounts = database.saveAccounts(customer, accounts, INITIAL_BALANCE);
+        long jdbcCompleted = run(new JdbcTransferEngine(bankAccountRepository), jdbcAccounts, threads, transfersPerThread);
+
+        List<String> ledgerAccounts = database.saveAccounts(customer, accounts, INITIAL_BALANCE);
+        LedgerTransferEngine ledger = newEngine(tempDir.resolve("concurrent.wal"), 10, 1024 * 1024);
+        ledger.start();
+        long ledgerCompleted;
+        try {
+            ledgerCompleted = run(ledger, ledgerAccounts, threads, transfersPerThread);
+        } finally {
+            ledger.close();
+        }
+
+        assertEquals(0, expectedTotal.compareTo(database.totalBalance(jdbcAccounts)));
+        assertEquals(jdbcCompleted, database.countTransfersFrom(jdbcAccounts));
+        assertEquals(0, expectedTotal.compareTo(database.totalBalance(ledgerAccounts)));
+        assertEquals(ledgerCompleted, database.countTransfersFrom(ledgerAccounts));
+    }
+
+    /**
+     * @return The number of transfers that were applied.
+     */
+    private static long run(TransferEngine engine, List<String> accountNumbers, int threads, int transfersPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LongAdder completed = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    int from = random.nextInt(accountNumbers.size());
+                    int to = (from + 1 + random.nextInt(accountNumbers.size() - 1)) % accountNumbers.size();
+                    try {
+                        engine.transfer(accountNumbers.get(from), accountNumbers.get(to), Money.ofCents(random.nextInt(1, 1000)));
+                        completed.increment();
+                    } catch (InsufficientBalanceException ignored) {
+                        // Expected occasionally with random amounts.
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        return completed.sum();
+    }
+
+    private static LedgerTransferEngine newEngine(Path walPath, long fsyncIntervalMs, long segmentSize) {
+        return new LedgerTransferEngine(bankAccountRepository, walPath, 64, fsyncIntervalMs, 10_000, segmentSize);
+    }
+
+    private static String saveAccount(Money balance) {
+        return database.saveAccount(customer, balance);
+    }
+
+    private static Money balanceOf(String accountNumber) {
+        return database.balanceOf(accountNumber);
+    }
+}